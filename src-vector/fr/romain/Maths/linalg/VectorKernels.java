@@ -0,0 +1,149 @@
+package fr.romain.Maths.linalg;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The loops of Simd on the Vector API. This class is in its own source folder, src-vector,
+ * because it needs --add-modules jdk.incubator.vector to be compiled and run: Simd loads it
+ * by reflection only if the module is present, and uses the scalar loops otherwise. <br>
+ * Each loop goes over the full vectors of the preferred species (the widest the processor has)
+ * and ends with a scalar loop on the remaining elements.
+ */
+final class VectorKernels implements Kernels {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	VectorKernels() {}
+
+	@Override
+	public int lanes() {
+		return SPECIES.length();
+	}
+
+	@Override
+	public void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int len) {
+		int bound = SPECIES.loopBound(len);
+		DoubleVector va = DoubleVector.broadcast(SPECIES, alpha);
+		int k = 0;
+		for (; k < bound; k += SPECIES.length()) {
+			DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOff+k);
+			DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOff+k);
+			vx.fma(va, vy).intoArray(y, yOff+k);
+		}
+		for (; k < len; k++) {
+			y[yOff+k] += alpha*x[xOff+k];
+		}
+	}
+
+	@Override
+	public double dot(double[] a, int aOff, double[] b, int bOff, int len) {
+		int bound = SPECIES.loopBound(len);
+		DoubleVector acc = DoubleVector.zero(SPECIES);
+		int k = 0;
+		for (; k < bound; k += SPECIES.length()) {
+			DoubleVector va = DoubleVector.fromArray(SPECIES, a, aOff+k);
+			DoubleVector vb = DoubleVector.fromArray(SPECIES, b, bOff+k);
+			acc = va.fma(vb, acc);
+		}
+		double dot = acc.reduceLanes(VectorOperators.ADD);
+		for (; k < len; k++) {
+			dot += a[aOff+k]*b[bOff+k];
+		}
+		return dot;
+	}
+
+	@Override
+	public double squaredDistance(double[] a, int aOff, double[] b, int bOff, int len) {
+		int bound = SPECIES.loopBound(len);
+		DoubleVector acc = DoubleVector.zero(SPECIES);
+		int k = 0;
+		for (; k < bound; k += SPECIES.length()) {
+			DoubleVector d = DoubleVector.fromArray(SPECIES, a, aOff+k).sub(DoubleVector.fromArray(SPECIES, b, bOff+k));
+			acc = d.fma(d, acc);
+		}
+		double dist = acc.reduceLanes(VectorOperators.ADD);
+		for (; k < len; k++) {
+			double d = a[aOff+k]-b[bOff+k];
+			dist += d*d;
+		}
+		return dist;
+	}
+
+	@Override
+	public void add(double[] a, double[] b, double[] out, int len) {
+		int bound = SPECIES.loopBound(len);
+		int k = 0;
+		for (; k < bound; k += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, a, k).add(DoubleVector.fromArray(SPECIES, b, k)).intoArray(out, k);
+		}
+		for (; k < len; k++) {
+			out[k] = a[k]+b[k];
+		}
+	}
+
+	@Override
+	public void sub(double[] a, double[] b, double[] out, int len) {
+		int bound = SPECIES.loopBound(len);
+		int k = 0;
+		for (; k < bound; k += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, a, k).sub(DoubleVector.fromArray(SPECIES, b, k)).intoArray(out, k);
+		}
+		for (; k < len; k++) {
+			out[k] = a[k]-b[k];
+		}
+	}
+
+	@Override
+	public void mul(double[] a, double[] b, double[] out, int len) {
+		int bound = SPECIES.loopBound(len);
+		int k = 0;
+		for (; k < bound; k += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, a, k).mul(DoubleVector.fromArray(SPECIES, b, k)).intoArray(out, k);
+		}
+		for (; k < len; k++) {
+			out[k] = a[k]*b[k];
+		}
+	}
+
+	@Override
+	public void scale(double alpha, double[] a, double[] out, int len) {
+		int bound = SPECIES.loopBound(len);
+		int k = 0;
+		for (; k < bound; k += SPECIES.length()) {
+			DoubleVector.fromArray(SPECIES, a, k).mul(alpha).intoArray(out, k);
+		}
+		for (; k < len; k++) {
+			out[k] = alpha*a[k];
+		}
+	}
+
+	@Override
+	public double sum(double[] a, int len) {
+		int bound = SPECIES.loopBound(len);
+		DoubleVector acc = DoubleVector.zero(SPECIES);
+		int k = 0;
+		for (; k < bound; k += SPECIES.length()) {
+			acc = acc.add(DoubleVector.fromArray(SPECIES, a, k));
+		}
+		double sum = acc.reduceLanes(VectorOperators.ADD);
+		for (; k < len; k++) {
+			sum += a[k];
+		}
+		return sum;
+	}
+
+	@Override
+	public void logistic(double[] a, double[] out, int len) {
+		int bound = SPECIES.loopBound(len);
+		int k = 0;
+		for (; k < bound; k += SPECIES.length()) {
+			DoubleVector exp = DoubleVector.fromArray(SPECIES, a, k).neg().lanewise(VectorOperators.EXP);
+			DoubleVector.broadcast(SPECIES, 1.).div(exp.add(1.)).intoArray(out, k);
+		}
+		for (; k < len; k++) {
+			out[k] = 1./(1+Math.exp(-a[k]));
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package benchmarks;
+
+import java.util.Random;
+
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.linalg.algstruct.Ring;
+
+/**
+ * Compares the tiled products (Matrix.prod and DenseMatR.dot) with the textbook i-j-k loop
+ * for square matrices of sizes 64 to 2048. <br>
+ * Usage: ProdBenchmark [maxSize] [maxGenericSize] <br>
+ * The generic products on boxed doubles are much slower, so they stop at maxGenericSize (512 by default)
+ */
+public class ProdBenchmark {
+
+	static final Ring<Double> r = Field.realsField();
+
+	public static void main(String[] args) {
+		int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 2048;
+		int maxGenericSize = args.length > 1 ? Integer.parseInt(args[1]) : 512;
+
+		System.out.println("size\tnaive double (ms)\ttiled double (ms)\tspeedup"
+						 + "\tnaive generic (ms)\ttiled generic (ms)\tspeedup");
+
+		for (int n = 64; n <= maxSize; n *= 2) {
+			final int size = n;
+			double[] a = random(size, 1);
+			double[] b = random(size, 2);
+
+			DenseMatR denseA = dense(a, size);
+			DenseMatR denseB = dense(b, size);
+
+			double naiveDouble = time(()->naiveProd(a, b, size));
+			double tiledDouble = time(()->denseA.dot(denseB));
+
+			String line = size+"\t"+naiveDouble+"\t"+tiledDouble+"\t"+ratio(naiveDouble, tiledDouble);
+
+			if(size <= maxGenericSize) {
+				Matrix<Double> genericA = generic(a, size);
+				Matrix<Double> genericB = generic(b, size);
+
+				double naiveGeneric = time(()->naiveProd(genericA, genericB));
+				double tiledGeneric = time(()->genericA.prod(genericB, r));
+				line += "\t"+naiveGeneric+"\t"+tiledGeneric+"\t"+ratio(naiveGeneric, tiledGeneric);
+			}
+			System.out.println(line);
+		}
+	}
+
+	/**
+	 * @return the best time in milliseconds of a few runs, after some warm-up runs
+	 */
+	static double time(Runnable run) {
+		for (int i = 0; i < 2; i++) {
+			run.run();
+		}
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < 3; i++) {
+			long start = System.nanoTime();
+			run.run();
+			best = Math.min(best, System.nanoTime()-start);
+		}
+		return best/1e6;
+	}
+
+	static String ratio(double reference, double time) {
+		return String.format("x%.1f", reference/time);
+	}
+
+	static double[] random(int size, long seed) {
+		Random random = new Random(seed);
+		double[] values = new double[size*size];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextDouble();
+		}
+		return values;
+	}
+
+	static DenseMatR dense(double[] values, int size) {
+		DenseMatR matrix = new DenseMatR(size, size);
+		System.arraycopy(values, 0, matrix.getValues(), 0, values.length);
+		return matrix;
+	}
+
+	static Matrix<Double> generic(double[] values, int size) {
+		Matrix<Double> matrix = new Matrix<Double>(size, size);
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				matrix.set(i, j, values[i*size+j]);
+			}
+		}
+		return matrix;
+	}
+
+	/**
+	 * The textbook i-j-k loop on doubles, which goes down the columns of b
+	 */
+	static double[] naiveProd(double[] a, double[] b, int size) {
+		double[] c = new double[size*size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				double sum = 0;
+				for (int k = 0; k < size; k++) {
+					sum += a[i*size+k]*b[k*size+j];
+				}
+				c[i*size+j] = sum;
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * The former Matrix.prod: the textbook i-j-k loop through the ring
+	 */
+	static Matrix<Double> naiveProd(Matrix<Double> a, Matrix<Double> b) {
+		Matrix<Double> prod = new Matrix<Double>(a.dimRows(), b.dimCols());
+		for (int i = 0; i < a.dimRows(); i++) {
+			for (int j = 0; j < b.dimCols(); j++) {
+				Double sum = r.zero();
+				for (int k = 0; k < a.dimCols(); k++) {
+					sum = r.sum(sum, r.prod(a.get(i, k), b.get(k, j)));
+				}
+				prod.set(i, j, sum);
+			}
+		}
+		return prod;
+	}
+}
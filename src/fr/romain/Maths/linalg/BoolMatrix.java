@@ -0,0 +1,416 @@
+package fr.romain.Maths.linalg;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import fr.romain.Maths.linalg.Matrix.NotMultipliableMatricesException;
+import fr.romain.Maths.linalg.Matrix.NotSameDimensionsException;
+import fr.romain.Maths.linalg.Matrix.NotSquareMatrixException;
+import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.linalg.algstruct.Ring;
+
+/**
+ * This class represents matrices over the booleans (Ring.boolsRing: the sum is OR, the product
+ * is AND) where each row is a bitset: 64 elements in each long. <br>
+ * The product is word-parallel: the row i of AB is the OR of the rows k of B for which A(i,k)
+ * is true. With the method of the Four Russians, the rows of B are taken 8 by 8 and the 256
+ * ORs of each group are computed once: then each row of A only needs one OR of whole words per
+ * group of 8 columns, that is n^3/(8*64) word operations. The columns of the result are split
+ * in blocks computed in parallel. <br>
+ * The closure A* (the reachability in the graph of A) goes through the strongly connected
+ * components: in a reverse topological order, the row of a component is the OR of the rows of
+ * the components it has an arc to.
+ */
+public class BoolMatrix {
+
+	/**
+	 * The number of words of the columns computed by a task of the product
+	 */
+	static final int WORD_BLOCK = 32;
+
+	private final int n;
+	private final int m;
+	private final int words;
+	private final long[] bits;
+
+
+	/**
+	 * A matrix (n,m) full of false
+	 */
+	public BoolMatrix(int n, int m) {
+		this.n = n;
+		this.m = m;
+		this.words = (m+63)>>>6;
+		this.bits = new long[n*words];
+	}
+
+	/**
+	 * @return true if r is the ring of the booleans, on which Matrix uses this class
+	 */
+	public static boolean isBoolean(Ring<?> r) {
+		return r == Ring.boolsRing() || r == Field.boolsField();
+	}
+
+	public static BoolMatrix of(Matrix<Boolean> matrix) {
+		BoolMatrix bool = new BoolMatrix(matrix.dimRows(), matrix.dimCols());
+		for (int i = 0; i < bool.n; i++) {
+			for (int j = 0; j < bool.m; j++) {
+				if(matrix.get(i, j)) {
+					bool.set(i, j, true);
+				}
+			}
+		}
+		return bool;
+	}
+
+	public Matrix<Boolean> toMatrix(){
+		Matrix<Boolean> matrix = new Matrix<Boolean>(n, m);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				matrix.set(i, j, get(i, j));
+			}
+		}
+		return matrix;
+	}
+
+	public static BoolMatrix id(int n) {
+		BoolMatrix id = new BoolMatrix(n, n);
+		for (int i = 0; i < n; i++) {
+			id.set(i, i, true);
+		}
+		return id;
+	}
+
+	public boolean get(int i, int j) {
+		return (bits[i*words+(j>>>6)] & (1L << j)) != 0;
+	}
+
+	public void set(int i, int j, boolean value) {
+		if(value) {
+			bits[i*words+(j>>>6)] |= 1L << j;
+		}
+		else {
+			bits[i*words+(j>>>6)] &= ~(1L << j);
+		}
+	}
+
+	public int dimRows() {
+		return n;
+	}
+
+	public int dimCols() {
+		return m;
+	}
+
+	public int[] dims() {
+		return new int[] {n, m};
+	}
+
+	public boolean isSquare() {
+		return n == m;
+	}
+
+	/**
+	 * @return the number of true elements
+	 */
+	public long cardinality() {
+		long cardinality = 0;
+		for (long word : bits) {
+			cardinality += Long.bitCount(word);
+		}
+		return cardinality;
+	}
+
+	/**
+	 * The sum on booleans: the element-wise OR
+	 */
+	public BoolMatrix or(BoolMatrix matrix) {
+		if(n != matrix.n || m != matrix.m) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		BoolMatrix or = new BoolMatrix(n, m);
+		for (int w = 0; w < bits.length; w++) {
+			or.bits[w] = bits[w] | matrix.bits[w];
+		}
+		return or;
+	}
+
+	/**
+	 * The element-wise AND
+	 */
+	public BoolMatrix and(BoolMatrix matrix) {
+		if(n != matrix.n || m != matrix.m) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		BoolMatrix and = new BoolMatrix(n, m);
+		for (int w = 0; w < bits.length; w++) {
+			and.bits[w] = bits[w] & matrix.bits[w];
+		}
+		return and;
+	}
+
+
+	/**
+	 * The product on booleans: (AB)(i,j) = OR_k (A(i,k) AND B(k,j)), by the Four Russians
+	 */
+	public BoolMatrix prod(BoolMatrix matrix) {
+		if(m != matrix.n) {
+			throw new NotMultipliableMatricesException(dims(), matrix.dims());
+		}
+		BoolMatrix prod = new BoolMatrix(n, matrix.m);
+		int blocks = (prod.words+WORD_BLOCK-1)/WORD_BLOCK;
+		ForkJoinPool pool = Gemm.getPool();
+		boolean parallel = Gemm.isParallel(n, (m+7)/8, prod.words, pool);
+		RangeTask.forEach(pool, parallel, blocks, (long)n*((m+7)/8)*WORD_BLOCK,
+				block->multiply(matrix, prod, block*WORD_BLOCK, Math.min(prod.words, (block+1)*WORD_BLOCK)));
+		return prod;
+	}
+
+	/**
+	 * Computes the words [w0,w1[ of each row of prod = this x b
+	 */
+	private void multiply(BoolMatrix b, BoolMatrix prod, int w0, int w1) {
+		int width = w1-w0;
+		long[] table = new long[256*width];
+
+		for (int k0 = 0; k0 < m; k0 += 8) {
+			//table[s] = OR of the rows k0+bit of b for the bits of s
+			for (int s = 1; s < 256; s++) {
+				int bit = Integer.numberOfTrailingZeros(s);
+				int previous = (s & (s-1))*width;
+				int row = k0+bit;
+				if(row >= m) {
+					System.arraycopy(table, previous, table, s*width, width);
+					continue;
+				}
+				int rowB = row*b.words+w0;
+				for (int w = 0; w < width; w++) {
+					table[s*width+w] = table[previous+w] | b.bits[rowB+w];
+				}
+			}
+
+			int word = k0>>>6;
+			int shift = k0 & 63;
+			for (int i = 0; i < n; i++) {
+				int s = (int) (bits[i*words+word] >>> shift) & 0xFF;
+				if(s == 0) {
+					continue;
+				}
+				int rowC = i*prod.words+w0;
+				int t = s*width;
+				for (int w = 0; w < width; w++) {
+					prod.bits[rowC+w] |= table[t+w];
+				}
+			}
+		}
+	}
+
+	/**
+	 * this^k by square-and-multiply
+	 * @param k has to be positive
+	 */
+	public BoolMatrix pow(long k) {
+		if(!isSquare()) {
+			throw new NotSquareMatrixException("power");
+		}
+		if(k < 0) {
+			throw new IllegalArgumentException("The exponent has to be positive");
+		}
+		BoolMatrix pow = id(n);
+		BoolMatrix square = this;
+		while (k > 0) {
+			if((k & 1) == 1) {
+				pow = pow.prod(square);
+			}
+			k >>= 1;
+			if(k > 0) {
+				square = square.prod(square);
+			}
+		}
+		return pow;
+	}
+
+
+	/**
+	 * The reflexive and transitive closure A* = I + A + A^2 + ...: A*(i,j) is true if there is a
+	 * path (maybe empty) from i to j in the graph of A. <br>
+	 * The strongly connected components are found by the algorithm of Tarjan, which gives them
+	 * in a reverse topological order: the row of a component is then the OR of its members and of
+	 * the rows of the components it has an arc to, already computed. It costs O(n + arcs) plus
+	 * one OR of rows for each arc between components.
+	 */
+	public BoolMatrix closure() {
+		if(!isSquare()) {
+			throw new NotSquareMatrixException("closure");
+		}
+		BoolMatrix closure = new BoolMatrix(n, n);
+		int[] comp = new int[n];
+		int[] order = new int[n];
+		int[] starts = components(comp, order);
+		int nbComps = starts.length-1;
+		//the row of the first member of each component
+		int[] representative = new int[nbComps];
+
+		for (int c = 0; c < nbComps; c++) {
+			int rep = order[starts[c]];
+			representative[c] = rep;
+			int rowRep = rep*words;
+			for (int p = starts[c]; p < starts[c+1]; p++) {
+				int i = order[p];
+				closure.bits[rowRep+(i>>>6)] |= 1L << i;
+				for (int j = nextSetBit(i, 0); j >= 0; j = nextSetBit(i, j+1)) {
+					int d = comp[j];
+					if(d != c) {
+						int rowD = representative[d]*words;
+						for (int w = 0; w < words; w++) {
+							closure.bits[rowRep+w] |= closure.bits[rowD+w];
+						}
+					}
+				}
+			}
+			for (int p = starts[c]+1; p < starts[c+1]; p++) {
+				System.arraycopy(closure.bits, rowRep, closure.bits, order[p]*words, words);
+			}
+		}
+		return closure;
+	}
+
+	/**
+	 * The transitive closure A+ = A + A^2 + ...: A+(i,j) is true if there is a non empty path
+	 * from i to j. The row i of A+ is the OR of the rows of A* of the successors of i
+	 */
+	public BoolMatrix transitiveClosure() {
+		BoolMatrix star = closure();
+		BoolMatrix plus = new BoolMatrix(n, n);
+		for (int i = 0; i < n; i++) {
+			int rowI = i*words;
+			for (int j = nextSetBit(i, 0); j >= 0; j = nextSetBit(i, j+1)) {
+				int rowJ = j*words;
+				for (int w = 0; w < words; w++) {
+					plus.bits[rowI+w] |= star.bits[rowJ+w];
+				}
+			}
+		}
+		return plus;
+	}
+
+	/**
+	 * @return the first column j >= from where the row i is true, -1 if there is none
+	 */
+	private int nextSetBit(int i, int from) {
+		if(from >= m) {
+			return -1;
+		}
+		int w = from>>>6;
+		long word = bits[i*words+w] & (-1L << from);
+		while (true) {
+			if(word != 0) {
+				return (w<<6)+Long.numberOfTrailingZeros(word);
+			}
+			if(++w == words) {
+				return -1;
+			}
+			word = bits[i*words+w];
+		}
+	}
+
+	/**
+	 * The strongly connected components by an iterative algorithm of Tarjan
+	 * @param comp filled with the component of each node
+	 * @param order filled with the nodes, component after component
+	 * @return the start of each component in order (and n at the end), the components being in
+	 * a reverse topological order (a component only has arcs to the previous ones)
+	 */
+	private int[] components(int[] comp, int[] order) {
+		int[] index = new int[n];
+		int[] low = new int[n];
+		Arrays.fill(index, -1);
+		boolean[] onStack = new boolean[n];
+		int[] stack = new int[n];
+		int[] callStack = new int[n];
+		int[] nextChild = new int[n];
+		int[] starts = new int[n+1];
+		int stackSize = 0;
+		int counter = 0;
+		int nbComps = 0;
+		int ordered = 0;
+
+		for (int root = 0; root < n; root++) {
+			if(index[root] >= 0) {
+				continue;
+			}
+			int depth = 0;
+			callStack[depth++] = root;
+			index[root] = low[root] = counter++;
+			stack[stackSize++] = root;
+			onStack[root] = true;
+			nextChild[root] = 0;
+
+			while (depth > 0) {
+				int v = callStack[depth-1];
+				int w = nextSetBit(v, nextChild[v]);
+				if(w >= 0) {
+					nextChild[v] = w+1;
+					if(index[w] < 0) {
+						index[w] = low[w] = counter++;
+						stack[stackSize++] = w;
+						onStack[w] = true;
+						nextChild[w] = 0;
+						callStack[depth++] = w;
+					}
+					else if(onStack[w]) {
+						low[v] = Math.min(low[v], index[w]);
+					}
+					continue;
+				}
+				depth--;
+				if(depth > 0) {
+					int parent = callStack[depth-1];
+					low[parent] = Math.min(low[parent], low[v]);
+				}
+				if(low[v] == index[v]) {
+					starts[nbComps] = ordered;
+					int x;
+					do {
+						x = stack[--stackSize];
+						onStack[x] = false;
+						comp[x] = nbComps;
+						order[ordered++] = x;
+					} while (x != v);
+					nbComps++;
+				}
+			}
+		}
+		starts[nbComps] = n;
+		return Arrays.copyOf(starts, nbComps+1);
+	}
+
+
+	@Override
+	public boolean equals(Object obj) {
+		if(!(obj instanceof BoolMatrix)) {
+			return false;
+		}
+		BoolMatrix matrix = (BoolMatrix) obj;
+		return n == matrix.n && m == matrix.m && Arrays.equals(bits, matrix.bits);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31*(31*n+m)+Arrays.hashCode(bits);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < n; i++) {
+			if(i > 0) {
+				s.append("\n");
+			}
+			for (int j = 0; j < m; j++) {
+				s.append(get(i, j) ? '1' : '0');
+			}
+		}
+		return s.toString();
+	}
+}
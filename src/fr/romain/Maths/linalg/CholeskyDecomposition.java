@@ -0,0 +1,172 @@
+package fr.romain.Maths.linalg;
+
+import fr.romain.Maths.linalg.Matrix.NotMatchingDimensionsException;
+import fr.romain.Maths.linalg.Matrix.NotPositiveDefiniteMatrixException;
+import fr.romain.Maths.linalg.Matrix.NotSquareMatrixException;
+
+/**
+ * This class represents the Cholesky decomposition of a symmetric positive-definite real
+ * matrix A (n,n): A = L x tL where L is lower triangular with a positive diagonal. <br>
+ * The factorization costs n^3/3 multiplications, half of an LU decomposition, and doesn't need
+ * any pivoting. Then AX = B is solved by a forward substitution (LY = B) followed by a
+ * back substitution (tLX = Y), without ever forming the inverse of A.
+ * <br><br>
+ * Only the lower triangle of A is read: A is supposed to be symmetric.
+ */
+public class CholeskyDecomposition {
+
+	/**
+	 * L stored row after row (its upper triangle is null)
+	 */
+	private final double[] l;
+	private final int n;
+
+
+	/**
+	 * @throws NotPositiveDefiniteMatrixException if a diagonal element of L would be the
+	 * square root of a non positive number
+	 */
+	public CholeskyDecomposition(DenseMatR a) {
+		if(!a.isSquare()) {
+			throw new NotSquareMatrixException("Cholesky decomposition");
+		}
+		n = a.dimRows();
+		l = new double[n*n];
+		double[] values = a.getValues();
+
+		for (int i = 0; i < n; i++) {
+			int rowI = i*n;
+			for (int j = 0; j <= i; j++) {
+				int rowJ = j*n;
+				double sum = values[rowI+j];
+				for (int k = 0; k < j; k++) {
+					sum -= l[rowI+k]*l[rowJ+k];
+				}
+				if(i == j) {
+					if(!(sum > 0)) {
+						throw new NotPositiveDefiniteMatrixException();
+					}
+					l[rowI+i] = Math.sqrt(sum);
+				}
+				else {
+					l[rowI+j] = sum/l[rowJ+j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the lower triangular factor L
+	 */
+	public DenseMatR getL() {
+		return new DenseMatR(n, n, l.clone());
+	}
+
+	/**
+	 * @return the determinant of A: the square of the product of the diagonal of L
+	 */
+	public double det() {
+		double det = 1;
+		for (int i = 0; i < n; i++) {
+			det *= l[i*n+i];
+		}
+		return det*det;
+	}
+
+	/**
+	 * Solves AX = B, O(n^2) for each column of B
+	 * @param b a matrix (n,k): each column is a right-hand side
+	 * @return the matrix X (n,k)
+	 */
+	public DenseMatR solve(DenseMatR b) {
+		checkRows(b);
+		double[] x = b.getValues().clone();
+		forward(x, b.dimCols());
+		backward(x, b.dimCols());
+		return new DenseMatR(n, b.dimCols(), x);
+	}
+
+	public VectR solve(Vector<Double> b) {
+		return VectR.of(solve(DenseMatR.of(b.toColMat())).getCol(0));
+	}
+
+	/**
+	 * Solves LY = B
+	 */
+	public DenseMatR forwardSubstitution(DenseMatR b) {
+		checkRows(b);
+		double[] y = b.getValues().clone();
+		forward(y, b.dimCols());
+		return new DenseMatR(n, b.dimCols(), y);
+	}
+
+	/**
+	 * Solves tLX = Y
+	 */
+	public DenseMatR backSubstitution(DenseMatR y) {
+		checkRows(y);
+		double[] x = y.getValues().clone();
+		backward(x, y.dimCols());
+		return new DenseMatR(n, y.dimCols(), x);
+	}
+
+	/**
+	 * @return the inverse of A, by solving AX = I
+	 */
+	public DenseMatR inverse() {
+		return solve(DenseMatR.id(n));
+	}
+
+	private void checkRows(DenseMatR b) {
+		if(b.dimRows() != n) {
+			throw new NotMatchingDimensionsException(b.dimRows()+" != "+n);
+		}
+	}
+
+	/**
+	 * Replaces x (n,k) by the solution of LY = x
+	 */
+	private void forward(double[] x, int k) {
+		for (int i = 0; i < n; i++) {
+			int rowI = i*k;
+			for (int j = 0; j < i; j++) {
+				double lij = l[i*n+j];
+				if(lij == 0) {
+					continue;
+				}
+				int rowJ = j*k;
+				for (int c = 0; c < k; c++) {
+					x[rowI+c] -= lij*x[rowJ+c];
+				}
+			}
+			double lii = l[i*n+i];
+			for (int c = 0; c < k; c++) {
+				x[rowI+c] /= lii;
+			}
+		}
+	}
+
+	/**
+	 * Replaces y (n,k) by the solution of tLX = y. The column i of L is the row i of tL,
+	 * so once x(i) is known it is removed from the rows above it
+	 */
+	private void backward(double[] y, int k) {
+		for (int i = n-1; i >= 0; i--) {
+			int rowI = i*k;
+			double lii = l[i*n+i];
+			for (int c = 0; c < k; c++) {
+				y[rowI+c] /= lii;
+			}
+			for (int j = 0; j < i; j++) {
+				double lij = l[i*n+j];
+				if(lij == 0) {
+					continue;
+				}
+				int rowJ = j*k;
+				for (int c = 0; c < k; c++) {
+					y[rowJ+c] -= lij*y[rowI+c];
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,566 @@
+package fr.romain.Maths.linalg;
+
+import fr.romain.Maths.linalg.Matrix.NotInversibleMatrixException;
+import fr.romain.Maths.linalg.Matrix.NotMatchingDimensionsException;
+import fr.romain.Maths.linalg.Matrix.NotMultipliableMatricesException;
+import fr.romain.Maths.linalg.Matrix.NotSameDimensionsException;
+import fr.romain.Maths.linalg.Matrix.NotSquareMatrixException;
+import fr.romain.Maths.utils.Complex;
+import fr.romain.Maths.utils.Reals;
+
+/**
+ * This class represents complex matrices stored in two contiguous arrays of primitive doubles
+ * (row after row): one for the real parts and one for the imaginary parts. <br>
+ * The kernels work directly on these two planes and don't create any Complex: the product is
+ * made of four real products computed by Gemm, (A+iB)(C+iD) = (AC-BD) + i(AD+BC), and the
+ * inverse and the determinant come from a gaussian elimination done on the planes. <br>
+ * Use {@link #of(Matrix)} and {@link #toMatC()} to go from one representation to the other.
+ */
+public class DenseMatC {
+
+	private final double[] re;
+	private final double[] im;
+	private final int n;
+	private final int m;
+
+
+	public DenseMatC(int n, int m) {
+		this(n, m, new double[n*m], new double[n*m]);
+	}
+
+	public DenseMatC(int[] dim) {
+		this(dim[0], dim[1]);
+	}
+
+	public DenseMatC(Complex[][] values) {
+		this(values.length, values[0].length);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				set(i, j, values[i][j]);
+			}
+		}
+	}
+
+	/**
+	 * Wraps the given arrays without copying them
+	 * @param re the real parts of the elements row after row, its length has to be n*m
+	 * @param im the imaginary parts, with the same layout
+	 */
+	DenseMatC(int n, int m, double[] re, double[] im) {
+		if(re.length != n*m || im.length != n*m) {
+			throw new NotMatchingDimensionsException(re.length+" and "+im.length+" != "+n+"*"+m);
+		}
+		this.n = n;
+		this.m = m;
+		this.re = re;
+		this.im = im;
+	}
+
+	/**
+	 * @return the complex matrix whose real part is real and whose imaginary part is 0
+	 */
+	public static DenseMatC of(DenseMatR real) {
+		return new DenseMatC(real.dimRows(), real.dimCols(), real.getValues().clone(), new double[real.getValues().length]);
+	}
+
+	public static DenseMatC of(Matrix<Complex> matrix) {
+		DenseMatC dense = new DenseMatC(matrix.dims());
+		for (int i = 0; i < dense.n; i++) {
+			for (int j = 0; j < dense.m; j++) {
+				dense.set(i, j, matrix.get(i, j));
+			}
+		}
+		return dense;
+	}
+
+	public MatC toMatC() {
+		MatC matrix = new MatC(n, m);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				matrix.set(i, j, get(i, j));
+			}
+		}
+		return matrix;
+	}
+
+	/**
+	 * @return the backing array of the real parts (row after row), modifying it modifies this matrix
+	 */
+	public double[] getRealValues() {
+		return re;
+	}
+
+	/**
+	 * @return the backing array of the imaginary parts (row after row), modifying it modifies this matrix
+	 */
+	public double[] getImValues() {
+		return im;
+	}
+
+	public DenseMatR real() {
+		return new DenseMatR(n, m, re.clone());
+	}
+
+	public DenseMatR imaginary() {
+		return new DenseMatR(n, m, im.clone());
+	}
+
+	/**
+	 * @return a new Complex with the value of the element (i,j)
+	 */
+	public Complex get(int i, int j) {
+		return new Complex(re[i*m+j], im[i*m+j]);
+	}
+
+	public double getReal(int i, int j) {
+		return re[i*m+j];
+	}
+
+	public double getIm(int i, int j) {
+		return im[i*m+j];
+	}
+
+	public void set(int i, int j, Complex value) {
+		set(i, j, value.getReal(), value.getIm());
+	}
+
+	public void set(int i, int j, double real, double imaginary) {
+		re[i*m+j] = real;
+		im[i*m+j] = imaginary;
+	}
+
+	public int dimRows() {
+		return n;
+	}
+
+	public int dimCols() {
+		return m;
+	}
+
+	public int[] dims() {
+		return new int[] {n,m};
+	}
+
+	public boolean hasDim(int[] dims) {
+		return n == dims[0] && m == dims[1];
+	}
+
+	public boolean isSquare() {
+		return n == m;
+	}
+
+
+	public DenseMatC plus(DenseMatC matrix) {
+		if(!hasDim(matrix.dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		DenseMatC sum = new DenseMatC(n, m);
+		for (int k = 0; k < re.length; k++) {
+			sum.re[k] = re[k]+matrix.re[k];
+			sum.im[k] = im[k]+matrix.im[k];
+		}
+		return sum;
+	}
+
+	public DenseMatC minus(DenseMatC matrix) {
+		if(!hasDim(matrix.dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		DenseMatC diff = new DenseMatC(n, m);
+		for (int k = 0; k < re.length; k++) {
+			diff.re[k] = re[k]-matrix.re[k];
+			diff.im[k] = im[k]-matrix.im[k];
+		}
+		return diff;
+	}
+
+	/**
+	 * The usual product on matrices: four real products computed by the kernel of Gemm
+	 * (in parallel on the pool of Gemm if they are big enough)
+	 */
+	public DenseMatC prod(DenseMatC matrix) {
+		if(m != matrix.n) {
+			throw new NotMultipliableMatricesException(dims(), matrix.dims());
+		}
+		DenseMatC prod = new DenseMatC(n, matrix.m);
+		prod(re, im, matrix.re, matrix.im, prod.re, prod.im, new double[n*matrix.m], n, m, matrix.m);
+		return prod;
+	}
+
+	/**
+	 * Computes (cr + i ci) = (ar + i ai) x (br + i bi) where a is (n,m), b is (m,p) and c is (n,p),
+	 * all stored row after row. c and the workspace (n*p doubles) don't share their storage with
+	 * a or b, their previous elements are overwritten
+	 */
+	private static void prod(double[] ar, double[] ai, double[] br, double[] bi,
+							 double[] cr, double[] ci, double[] workspace, int n, int m, int p) {
+		int size = n*p;
+		Gemm.prod(ar, br, cr, n, m, p);
+		Gemm.prod(ai, bi, workspace, n, m, p);
+		for (int k = 0; k < size; k++) {
+			cr[k] -= workspace[k];
+		}
+		Gemm.prod(ar, bi, ci, n, m, p);
+		Gemm.prod(ai, br, workspace, n, m, p);
+		for (int k = 0; k < size; k++) {
+			ci[k] += workspace[k];
+		}
+	}
+
+	/**
+	 * the element-wise product on matrices
+	 */
+	public DenseMatC hProd(DenseMatC matrix) {
+		if(!hasDim(matrix.dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		DenseMatC prod = new DenseMatC(n, m);
+		for (int k = 0; k < re.length; k++) {
+			prod.re[k] = re[k]*matrix.re[k]-im[k]*matrix.im[k];
+			prod.im[k] = re[k]*matrix.im[k]+im[k]*matrix.re[k];
+		}
+		return prod;
+	}
+
+	public DenseMatC times(Complex k) {
+		double kr = k.getReal();
+		double ki = k.getIm();
+		DenseMatC times = new DenseMatC(n, m);
+		for (int l = 0; l < re.length; l++) {
+			times.re[l] = kr*re[l]-ki*im[l];
+			times.im[l] = kr*im[l]+ki*re[l];
+		}
+		return times;
+	}
+
+	public DenseMatC times(double k) {
+		DenseMatC times = new DenseMatC(n, m);
+		for (int l = 0; l < re.length; l++) {
+			times.re[l] = k*re[l];
+			times.im[l] = k*im[l];
+		}
+		return times;
+	}
+
+	public DenseMatC t() {
+		DenseMatC transpose = new DenseMatC(m, n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				transpose.re[j*n+i] = re[i*m+j];
+				transpose.im[j*n+i] = im[i*m+j];
+			}
+		}
+		return transpose;
+	}
+
+	/**
+	 * @return the conjugate transpose (or adjoint) of this matrix
+	 */
+	public DenseMatC h() {
+		DenseMatC adjoint = new DenseMatC(m, n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				adjoint.re[j*n+i] = re[i*m+j];
+				adjoint.im[j*n+i] = -im[i*m+j];
+			}
+		}
+		return adjoint;
+	}
+
+	public DenseMatC conjugate() {
+		DenseMatC conjugate = new DenseMatC(n, m, re.clone(), new double[im.length]);
+		for (int k = 0; k < im.length; k++) {
+			conjugate.im[k] = -im[k];
+		}
+		return conjugate;
+	}
+
+	public DenseMatC pow(int k) {
+		return pow((long) k);
+	}
+
+	/**
+	 * Computes this^k by square-and-multiply: O(log k) products, in four pairs of planes
+	 * (the current square, the result, a workspace and the one of the products) whatever k
+	 * @param k has to be positive
+	 */
+	public DenseMatC pow(long k) {
+		if(!isSquare()) {
+			throw new NotSquareMatrixException("power");
+		}
+		if(k < 0) {
+			throw new IllegalArgumentException("The exponent has to be positive");
+		}
+		if(k == 0) {
+			return id(n);
+		}
+		int size = n*n;
+		double[] squareRe = re.clone();
+		double[] squareIm = im.clone();
+		double[] powRe = null;
+		double[] powIm = null;
+		double[] workRe = new double[size];
+		double[] workIm = new double[size];
+		double[] workspace = new double[size];
+
+		while (true) {
+			if((k & 1) == 1) {
+				if(powRe == null) {
+					powRe = squareRe.clone();
+					powIm = squareIm.clone();
+				}
+				else {
+					prod(powRe, powIm, squareRe, squareIm, workRe, workIm, workspace, n, n, n);
+					double[] tmp = powRe;
+					powRe = workRe;
+					workRe = tmp;
+					tmp = powIm;
+					powIm = workIm;
+					workIm = tmp;
+				}
+			}
+			k >>= 1;
+			if(k == 0) {
+				return new DenseMatC(n, n, powRe, powIm);
+			}
+			prod(squareRe, squareIm, squareRe, squareIm, workRe, workIm, workspace, n, n, n);
+			double[] tmp = squareRe;
+			squareRe = workRe;
+			workRe = tmp;
+			tmp = squareIm;
+			squareIm = workIm;
+			workIm = tmp;
+		}
+	}
+
+	public Complex trace() {
+		if(!isSquare()) {
+			throw new NotSquareMatrixException("Trace");
+		}
+		double traceRe = 0;
+		double traceIm = 0;
+		for (int i = 0; i < n; i++) {
+			traceRe += re[i*m+i];
+			traceIm += im[i*m+i];
+		}
+		return new Complex(traceRe, traceIm);
+	}
+
+	/**
+	 * The determinant is calculated with a gaussian elimination with partial pivoting
+	 * (on the module). Only an exactly null pivot gives 0, as in DenseMatR.det <br>
+	 * Complexity: O(n^3)
+	 */
+	public Complex det() {
+		if(!isSquare()) {
+			throw new NotSquareMatrixException("Determinant");
+		}
+		double[] luRe = re.clone();
+		double[] luIm = im.clone();
+		double detRe = 1;
+		double detIm = 0;
+
+		for (int k = 0; k < n; k++) {
+			int rowMax = pivotRow(luRe, luIm, m, k, k, n);
+			double pr = luRe[rowMax*m+k];
+			double pi = luIm[rowMax*m+k];
+			if(pr == 0 && pi == 0) {
+				return Complex.zero;
+			}
+			if(rowMax != k) {
+				swapRows(luRe, luIm, m, rowMax, k);
+				detRe = -detRe;
+				detIm = -detIm;
+			}
+			double tmp = detRe*pr-detIm*pi;
+			detIm = detRe*pi+detIm*pr;
+			detRe = tmp;
+
+			//1/pivot
+			double module2 = pr*pr+pi*pi;
+			double invRe = pr/module2;
+			double invIm = -pi/module2;
+			for (int i = k+1; i < n; i++) {
+				double xr = luRe[i*m+k];
+				double xi = luIm[i*m+k];
+				if(xr == 0 && xi == 0) {
+					continue;
+				}
+				double fr = xr*invRe-xi*invIm;
+				double fi = xr*invIm+xi*invRe;
+				eliminate(luRe, luIm, i*m, k*m, fr, fi, k+1, m);
+			}
+		}
+		return new Complex(detRe, detIm);
+	}
+
+	/**
+	 * The inverse is calculated by a Gauss-Jordan elimination with partial pivoting
+	 * on the augmented matrix (this|I)
+	 */
+	public DenseMatC inv() {
+		if(!isSquare()) {
+			throw new NotSquareMatrixException("inversion of a matrix");
+		}
+		int width = 2*n;
+		double[] augmRe = new double[n*width];
+		double[] augmIm = new double[n*width];
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(re, i*m, augmRe, i*width, m);
+			System.arraycopy(im, i*m, augmIm, i*width, m);
+			augmRe[i*width+n+i] = 1;
+		}
+
+		if(reduce(augmRe, augmIm, n, width, n) != n) {
+			throw new NotInversibleMatrixException();
+		}
+
+		DenseMatC inv = new DenseMatC(n, n);
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(augmRe, i*width+n, inv.re, i*n, n);
+			System.arraycopy(augmIm, i*width+n, inv.im, i*n, n);
+		}
+		return inv;
+	}
+
+	public int rank() {
+		return reduce(re.clone(), im.clone(), n, m, m);
+	}
+
+	public DenseMatC clone() {
+		return new DenseMatC(n, m, re.clone(), im.clone());
+	}
+
+
+	@Override
+	public String toString() {
+		return toMatC().toString();
+	}
+
+	/**
+	 * Two complex matrices are equal if they have the same dimensions and if the real and
+	 * imaginary parts of all their elements are equal up to the precision of Reals.equals
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(!(obj instanceof DenseMatC)) {
+			return false;
+		}
+		DenseMatC matrix = (DenseMatC) obj;
+		if(!hasDim(matrix.dims())) {
+			return false;
+		}
+		for (int k = 0; k < re.length; k++) {
+			if(!Reals.equals(re[k], matrix.re[k]) || !Reals.equals(im[k], matrix.im[k])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31*n+m;
+	}
+
+	//######################### below are defined all useful constant matrices ###########################
+
+	public static DenseMatC zeros(int... dims) {
+		return new DenseMatC(dims);
+	}
+
+	public static DenseMatC id(int dim) {
+		DenseMatC id = new DenseMatC(dim, dim);
+		for (int i = 0; i < dim; i++) {
+			id.re[i*dim+i] = 1.;
+		}
+		return id;
+	}
+
+
+	//######################### below: gaussian elimination on the planes ###########################
+
+	/**
+	 * @return the row in [from, to[ which has the biggest module in the column col
+	 */
+	private static int pivotRow(double[] re, double[] im, int width, int col, int from, int to) {
+		int rowMax = from;
+		double max = -1;
+		for (int i = from; i < to; i++) {
+			double r = re[i*width+col];
+			double c = im[i*width+col];
+			double module2 = r*r+c*c;
+			if(module2 > max) {
+				rowMax = i;
+				max = module2;
+			}
+		}
+		return rowMax;
+	}
+
+	private static void swapRows(double[] re, double[] im, int width, int l1, int l2) {
+		for (int j = 0; j < width; j++) {
+			double tmp = re[l1*width+j];
+			re[l1*width+j] = re[l2*width+j];
+			re[l2*width+j] = tmp;
+			tmp = im[l1*width+j];
+			im[l1*width+j] = im[l2*width+j];
+			im[l2*width+j] = tmp;
+		}
+	}
+
+	/**
+	 * row(i) -= (fr + i fi) x row(p) on the columns [from, to[, where rowI and rowP are the
+	 * offsets of the two rows
+	 */
+	private static void eliminate(double[] re, double[] im, int rowI, int rowP, double fr, double fi, int from, int to) {
+		for (int k = from; k < to; k++) {
+			double pr = re[rowP+k];
+			double pi = im[rowP+k];
+			re[rowI+k] -= fr*pr-fi*pi;
+			im[rowI+k] -= fr*pi+fi*pr;
+		}
+	}
+
+	/**
+	 * Puts in place the planes (rows x width) in their reduced row echelon form, with partial
+	 * pivoting. Only the first pivotCols columns are used to look for pivots.
+	 * @return the number of pivots found, which is the rank of the first pivotCols columns
+	 */
+	private static int reduce(double[] re, double[] im, int rows, int width, int pivotCols) {
+		int numPivot = 0;
+		for (int j = 0; j < pivotCols && numPivot < rows; j++) {
+			int rowMax = pivotRow(re, im, width, j, numPivot, rows);
+			double pr = re[rowMax*width+j];
+			double pi = im[rowMax*width+j];
+			double module2 = pr*pr+pi*pi;
+			if(Reals.isNull(Math.sqrt(module2))) {
+				continue;
+			}
+			if(rowMax != numPivot) {
+				swapRows(re, im, width, rowMax, numPivot);
+			}
+			//the row of the pivot is divided by the pivot
+			double invRe = pr/module2;
+			double invIm = -pi/module2;
+			int rowP = numPivot*width;
+			for (int k = j; k < width; k++) {
+				double xr = re[rowP+k];
+				double xi = im[rowP+k];
+				re[rowP+k] = xr*invRe-xi*invIm;
+				im[rowP+k] = xr*invIm+xi*invRe;
+			}
+			for (int i = 0; i < rows; i++) {
+				int rowI = i*width;
+				double fr = re[rowI+j];
+				double fi = im[rowI+j];
+				if(i == numPivot || (fr == 0 && fi == 0)) {
+					continue;
+				}
+				eliminate(re, im, rowI, rowP, fr, fi, j, width);
+			}
+			numPivot++;
+		}
+		return numPivot;
+	}
+}
@@ -0,0 +1,758 @@
+package fr.romain.Maths.linalg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+import fr.romain.Maths.linalg.Matrix.AliasedMatricesException;
+import fr.romain.Maths.linalg.Matrix.NotInversibleMatrixException;
+import fr.romain.Maths.linalg.Matrix.NotMatchingDimensionsException;
+import fr.romain.Maths.linalg.Matrix.NotMultipliableMatricesException;
+import fr.romain.Maths.linalg.Matrix.NotSameDimensionsException;
+import fr.romain.Maths.linalg.Matrix.NotSquareMatrixException;
+import fr.romain.Maths.utils.Reals;
+
+/**
+ * This class represents real matrices stored in a single contiguous array of primitive doubles
+ * (row after row). <br>
+ * It offers the same operations as MatR but without boxing any element, which is what matters
+ * on big design matrices. Use {@link #of(Matrix)} and {@link #toMatR()} to go from one
+ * representation to the other.
+ */
+public class DenseMatR {
+
+	private final double[] values;
+	private final int n;
+	private final int m;
+
+
+	public DenseMatR(int n, int m) {
+		this(n, m, new double[n*m]);
+	}
+
+	public DenseMatR(int[] dim) {
+		this(dim[0], dim[1]);
+	}
+
+	public DenseMatR(double[][] values) {
+		this(values.length, values[0].length);
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(values[i], 0, this.values, i*m, m);
+		}
+	}
+
+	/**
+	 * Wraps the given array without copying it
+	 * @param values the elements of the matrix row after row, its length has to be n*m
+	 */
+	DenseMatR(int n, int m, double[] values) {
+		if(values.length != n*m) {
+			throw new NotMatchingDimensionsException(values.length+" != "+n+"*"+m);
+		}
+		this.n = n;
+		this.m = m;
+		this.values = values;
+	}
+
+	/**
+	 * @param matrix any matrix or view: a transposed view is transposed by blocks (see Transpose)
+	 */
+	public static DenseMatR of(Matrix<Double> matrix) {
+		DenseMatR dense = new DenseMatR(matrix.dims());
+		Transpose.unbox(matrix.storage(), matrix.index(0, 0), matrix.rowStride(), matrix.colStride(),
+						dense.values, 0, dense.m, 1, dense.n, dense.m);
+		return dense;
+	}
+
+	public MatR toMatR() {
+		MatR matrix = new MatR(n, m);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				matrix.set(i, j, values[i*m+j]);
+			}
+		}
+		return matrix;
+	}
+
+	/**
+	 * @return the backing array (row after row), modifying it modifies this matrix
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	public double get(int i, int j) {
+		return values[i*m+j];
+	}
+
+	public void set(int i, int j, double value) {
+		values[i*m+j] = value;
+	}
+
+	public VectR getRow(int i) {
+		VectR row = new VectR(m);
+		for (int j = 0; j < m; j++) {
+			row.set(j, values[i*m+j]);
+		}
+		return row;
+	}
+
+	public VectR getCol(int j) {
+		VectR col = new VectR(n);
+		for (int i = 0; i < n; i++) {
+			col.set(i, values[i*m+j]);
+		}
+		return col;
+	}
+
+	public void setCol(int j, Vector<Double> col) {
+		for (int i = 0; i < n; i++) {
+			values[i*m+j] = col.get(i);
+		}
+	}
+
+	public int dimRows() {
+		return n;
+	}
+
+	public int dimCols() {
+		return m;
+	}
+
+	public int[] dims() {
+		return new int[] {n,m};
+	}
+
+	public boolean hasDim(int[] dims) {
+		return n == dims[0] && m == dims[1];
+	}
+
+	public boolean isSquare() {
+		return n == m;
+	}
+
+
+	public DenseMatR plus(DenseMatR matrix) {
+		if(!hasDim(matrix.dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		DenseMatR sum = new DenseMatR(n, m);
+		Simd.add(values, matrix.values, sum.values, values.length);
+		return sum;
+	}
+
+	public DenseMatR minus(DenseMatR matrix) {
+		if(!hasDim(matrix.dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		DenseMatR diff = new DenseMatR(n, m);
+		Simd.sub(values, matrix.values, diff.values, values.length);
+		return diff;
+	}
+
+	/**
+	 * dest = this + matrix, dest may be this or matrix
+	 */
+	public void plusInto(DenseMatR matrix, DenseMatR dest) {
+		checkDims(matrix, dest);
+		Simd.add(values, matrix.values, dest.values, values.length);
+	}
+
+	/**
+	 * dest = this - matrix, dest may be this or matrix
+	 */
+	public void minusInto(DenseMatR matrix, DenseMatR dest) {
+		checkDims(matrix, dest);
+		Simd.sub(values, matrix.values, dest.values, values.length);
+	}
+
+	/**
+	 * dest = this .* matrix, dest may be this or matrix
+	 */
+	public void hDotInto(DenseMatR matrix, DenseMatR dest) {
+		checkDims(matrix, dest);
+		Simd.mul(values, matrix.values, dest.values, values.length);
+	}
+
+	/**
+	 * dest = this x matrix, dest can't be this or matrix
+	 */
+	public void dotInto(DenseMatR matrix, DenseMatR dest) {
+		if(m != matrix.n) {
+			throw new NotMultipliableMatricesException(dims(), matrix.dims());
+		}
+		if(!dest.hasDim(new int[] {n, matrix.m})) {
+			throw new NotSameDimensionsException(new int[] {n, matrix.m}, dest.dims());
+		}
+		if(dest.values == values || dest.values == matrix.values) {
+			throw new AliasedMatricesException("The destination of a product can't be one of its operands");
+		}
+		Gemm.prod(values, matrix.values, dest.values, n, m, matrix.m);
+	}
+
+	public void plusInPlace(DenseMatR matrix) {
+		plusInto(matrix, this);
+	}
+
+	public void minusInPlace(DenseMatR matrix) {
+		minusInto(matrix, this);
+	}
+
+	public void scaleInPlace(double k) {
+		Simd.scale(k, values, values, values.length);
+	}
+
+	/**
+	 * this = this + alpha.x
+	 */
+	public void axpy(double alpha, DenseMatR x) {
+		if(!hasDim(x.dims())) {
+			throw new NotSameDimensionsException(dims(), x.dims());
+		}
+		Simd.axpy(alpha, x.values, values, values.length);
+	}
+
+	private void checkDims(DenseMatR matrix, DenseMatR dest) {
+		if(!hasDim(matrix.dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		if(!hasDim(dest.dims())) {
+			throw new NotSameDimensionsException(dims(), dest.dims());
+		}
+	}
+
+	/**
+	 * The usual product on matrices, computed by the cache-blocked kernel of Gemm
+	 * (in parallel on the pool of Gemm if it is big enough)
+	 */
+	public DenseMatR dot(DenseMatR matrix) {
+		if(m != matrix.n) {
+			throw new NotMultipliableMatricesException(dims(), matrix.dims());
+		}
+		DenseMatR prod = new DenseMatR(n, matrix.m);
+		Gemm.prod(values, matrix.values, prod.values, n, m, matrix.m);
+		return prod;
+	}
+	
+	/**
+	 * The usual product on matrices, split in panels computed on the given pool
+	 */
+	public DenseMatR dot(DenseMatR matrix, ForkJoinPool pool) {
+		if(m != matrix.n) {
+			throw new NotMultipliableMatricesException(dims(), matrix.dims());
+		}
+		DenseMatR prod = new DenseMatR(n, matrix.m);
+		Gemm.parallelProd(values, matrix.values, prod.values, n, m, matrix.m, pool);
+		return prod;
+	}
+
+	/**
+	 * @return tThis x matrix, computed by a kernel which reads both matrices row after row
+	 * instead of forming the transpose (both matrices need the same number of rows)
+	 */
+	public DenseMatR tDot(DenseMatR matrix) {
+		if(n != matrix.n) {
+			throw new NotMultipliableMatricesException(new int[] {m, n}, matrix.dims());
+		}
+		DenseMatR prod = new DenseMatR(m, matrix.m);
+		Gemm.tProd(values, matrix.values, prod.values, n, m, matrix.m);
+		return prod;
+	}
+
+	/**
+	 * @return the Gram matrix tThis x this: only its upper triangle is computed
+	 */
+	public DenseMatR gram() {
+		DenseMatR gram = new DenseMatR(m, m);
+		Gemm.tProd(values, values, gram.values, n, m, m);
+		return gram;
+	}
+
+	/**
+	 * the element-wise product on matrices
+	 */
+	public DenseMatR hDot(DenseMatR matrix) {
+		if(!hasDim(matrix.dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		DenseMatR prod = new DenseMatR(n, m);
+		Simd.mul(values, matrix.values, prod.values, values.length);
+		return prod;
+	}
+
+	public DenseMatR dot(double k) {
+		DenseMatR times = new DenseMatR(n, m);
+		Simd.scale(k, values, times.values, values.length);
+		return times;
+	}
+
+	/**
+	 * @return the transpose of this matrix, copied by blocks (see Transpose). <br>
+	 * To multiply by the transpose, tDot doesn't form it at all
+	 */
+	public DenseMatR t() {
+		DenseMatR transpose = new DenseMatR(m, n);
+		Transpose.copy(values, 0, 1, m, transpose.values, 0, n, 1, m, n);
+		return transpose;
+	}
+
+	public DenseMatR pow(int k) {
+		return pow((long) k);
+	}
+
+	/**
+	 * Computes this^k by square-and-multiply: O(log k) products, in three buffers
+	 * (the current square, the result and a workspace) whatever k
+	 * @param k has to be positive
+	 */
+	public DenseMatR pow(long k) {
+		if(!isSquare()) {
+			throw new NotSquareMatrixException("power");
+		}
+		if(k < 0) {
+			throw new IllegalArgumentException("The exponent has to be positive");
+		}
+		if(k == 0) {
+			return id(n);
+		}
+		double[] square = values.clone();
+		double[] pow = null;
+		double[] workspace = new double[n*n];
+
+		while (true) {
+			if((k & 1) == 1) {
+				if(pow == null) {
+					pow = square.clone();
+				}
+				else {
+					Gemm.prod(pow, square, workspace, n, n, n);
+					double[] tmp = pow;
+					pow = workspace;
+					workspace = tmp;
+				}
+			}
+			k >>= 1;
+			if(k == 0) {
+				return new DenseMatR(n, n, pow);
+			}
+			Gemm.prod(square, square, workspace, n, n, n);
+			double[] tmp = square;
+			square = workspace;
+			workspace = tmp;
+		}
+	}
+
+	public double trace() {
+		if(!isSquare()) {
+			throw new NotSquareMatrixException("Trace");
+		}
+		double trace = 0;
+		for (int i = 0; i < n; i++) {
+			trace += values[i*m+i];
+		}
+		return trace;
+	}
+
+	public double asScalar() {
+		if(values.length != 1) {
+			throw new NotMatchingDimensionsException("This matrix can't be seen as a scalar because it is too big");
+		}
+		return values[0];
+	}
+
+	/**
+	 * The usual scalar product: Tr(tAxB), computed without any product of matrices
+	 */
+	public double scalarProd(DenseMatR matrix) {
+		if(!hasDim(matrix.dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		return Simd.dot(values, matrix.values, values.length);
+	}
+
+	/**
+	 * @return Tr(this x matrix): the dot product of each row of this matrix with the column
+	 * of the same index of matrix, without computing the product
+	 */
+	public double traceProd(DenseMatR matrix) {
+		if(n != matrix.m || m != matrix.n) {
+			throw new NotMultipliableMatricesException(dims(), matrix.dims());
+		}
+		double trace = 0;
+		for (int i = 0; i < n; i++) {
+			int row = i*m;
+			for (int k = 0; k < m; k++) {
+				trace += values[row+k]*matrix.values[k*n+i];
+			}
+		}
+		return trace;
+	}
+
+	/**
+	 * @return the squared Frobenius norm of this - matrix, in one pass without creating the difference
+	 */
+	public double squaredDistance(DenseMatR matrix) {
+		if(!hasDim(matrix.dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		return Simd.squaredDistance(values, 0, matrix.values, 0, values.length);
+	}
+
+	/**
+	 * @return the Frobenius norm sqrt(Tr(tAxA))
+	 */
+	public double norm() {
+		return Math.sqrt(Simd.sumSquares(values, values.length));
+	}
+
+
+	/**
+	 * The determinant is calculated with a gaussian elimination with partial pivoting.
+	 * Only an exactly null pivot gives 0, so that a matrix of tiny elements keeps its tiny determinant <br>
+	 * Complexity: O(n^3)
+	 */
+	public double det() {
+		if(!isSquare()) {
+			throw new NotSquareMatrixException("Determinant");
+		}
+		double[] lu = values.clone();
+		double det = 1;
+
+		for (int k = 0; k < n; k++) {
+			int rowMax = pivotRow(lu, m, k, k, n);
+			double pivot = lu[rowMax*m+k];
+			if(pivot == 0) {
+				return 0;
+			}
+			if(rowMax != k) {
+				swapRows(lu, m, rowMax, k);
+				det = -det;
+			}
+			det *= pivot;
+			for (int i = k+1; i < n; i++) {
+				double factor = lu[i*m+k]/pivot;
+				if(factor != 0) {
+					for (int j = k+1; j < m; j++) {
+						lu[i*m+j] -= factor*lu[k*m+j];
+					}
+				}
+			}
+		}
+		return det;
+	}
+
+	/**
+	 * @return the Cholesky decomposition of this matrix, which has to be symmetric positive-definite
+	 */
+	public CholeskyDecomposition cholesky() {
+		return new CholeskyDecomposition(this);
+	}
+
+	/**
+	 * @return the eigendecomposition of this matrix, which has to be symmetric
+	 */
+	public EigenDecomposition eigen() {
+		return new EigenDecomposition(this);
+	}
+
+	/**
+	 * @return the QR decomposition of this matrix (it needs at least as many rows as columns)
+	 */
+	public QRDecomposition qr() {
+		return new QRDecomposition(this);
+	}
+
+	/**
+	 * The inverse is calculated by a Gauss-Jordan elimination with partial pivoting
+	 * on the augmented matrix (this|I)
+	 */
+	public DenseMatR inv() {
+		if(!isSquare()) {
+			throw new NotSquareMatrixException("inversion of a matrix");
+		}
+		int width = 2*n;
+		double[] augm = new double[n*width];
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(values, i*m, augm, i*width, m);
+			augm[i*width+n+i] = 1;
+		}
+
+		if(reduce(augm, n, width, n) != n) {
+			throw new NotInversibleMatrixException();
+		}
+
+		DenseMatR inv = new DenseMatR(n, n);
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(augm, i*width+n, inv.values, i*n, n);
+		}
+		return inv;
+	}
+
+	/**
+	 * the element-wise inverse :<br>
+	 * hInv() = (1/aij)
+	 */
+	public DenseMatR hInv() {
+		return elmtWise(x->1./x);
+	}
+
+	public int rank() {
+		return reduce(values.clone(), n, m, m);
+	}
+
+	public List<Vector<Double>> ker(){
+		double[] reduced = values.clone();
+		int[] pivotCols = new int[n];
+		int rank = reduce(reduced, n, m, m, pivotCols);
+
+		boolean[] isPivot = new boolean[m];
+		for (int p = 0; p < rank; p++) {
+			isPivot[pivotCols[p]] = true;
+		}
+
+		List<Vector<Double>> kerBasis = new ArrayList<Vector<Double>>();
+		for (int free = 0; free < m; free++) {
+			if(isPivot[free]) {
+				continue;
+			}
+			VectR root = new VectR(m);
+			for (int j = 0; j < m; j++) {
+				root.set(j, 0.);
+			}
+			root.set(free, 1.);
+			for (int p = 0; p < rank; p++) {
+				root.set(pivotCols[p], -reduced[p*m+free]);
+			}
+			kerBasis.add(root);
+		}
+		return kerBasis;
+	}
+
+
+	public VectR colsMax() {
+		VectR colsMax = new VectR(m);
+		for (int j = 0; j < m; j++) {
+			double max = values[j];
+			for (int i = 1; i < n; i++) {
+				max = Math.max(max, values[i*m+j]);
+			}
+			colsMax.set(j, max);
+		}
+		return colsMax;
+	}
+
+	public VectR colsMin() {
+		VectR colsMin = new VectR(m);
+		for (int j = 0; j < m; j++) {
+			double min = values[j];
+			for (int i = 1; i < n; i++) {
+				min = Math.min(min, values[i*m+j]);
+			}
+			colsMin.set(j, min);
+		}
+		return colsMin;
+	}
+
+	public VectR colsMeans() {
+		double[] sums = new double[m];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				sums[j] += values[i*m+j];
+			}
+		}
+		VectR colsMeans = new VectR(m);
+		for (int j = 0; j < m; j++) {
+			colsMeans.set(j, sums[j]/n);
+		}
+		return colsMeans;
+	}
+
+	public void forEachCols(Function<VectR, VectR> f) {
+		for (int j = 0; j < m; j++) {
+			setCol(j, f.apply(getCol(j)));
+		}
+	}
+
+	public void forEachElmt(DoubleUnaryOperator f) {
+		for (int k = 0; k < values.length; k++) {
+			values[k] = f.applyAsDouble(values[k]);
+		}
+	}
+
+	/**
+	 * @return a deferred element-wise expression on this matrix (see MatExpr), which reads it in place
+	 */
+	public MatExpr lazy() {
+		return MatExpr.of(this);
+	}
+
+	/**
+	 * @return the element-wise logistic function 1/(1+exp(-x)), computed by Simd
+	 */
+	public DenseMatR logistic() {
+		DenseMatR logistic = new DenseMatR(n, m);
+		Simd.logistic(values, logistic.values, values.length);
+		return logistic;
+	}
+
+	public DenseMatR elmtWise(DoubleUnaryOperator f) {
+		DenseMatR res = new DenseMatR(n, m);
+		for (int k = 0; k < values.length; k++) {
+			res.values[k] = f.applyAsDouble(values[k]);
+		}
+		return res;
+	}
+
+	public DenseMatR clone() {
+		return new DenseMatR(n, m, values.clone());
+	}
+
+
+	@Override
+	public String toString() {
+		return toMatR().toString();
+	}
+
+	/**
+	 * Two real matrices are equal if they have the same dimensions and if all their elements
+	 * are equal up to the precision of Reals.equals
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(!(obj instanceof DenseMatR)) {
+			return false;
+		}
+		DenseMatR matrix = (DenseMatR) obj;
+		if(!hasDim(matrix.dims())) {
+			return false;
+		}
+		for (int k = 0; k < values.length; k++) {
+			//== for the infinities, which are equal but whose difference is NaN
+			if(values[k] != matrix.values[k] && !Reals.equals(values[k], matrix.values[k])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31*n+m;
+	}
+
+	//######################### below are defined all useful constant matrices ###########################
+
+	public static DenseMatR zeros(int... dims) {
+		return new DenseMatR(dims);
+	}
+
+	public static DenseMatR ones(int... dims) {
+		DenseMatR ones = new DenseMatR(dims);
+		Arrays.fill(ones.values, 1.);
+		return ones;
+	}
+
+	public static DenseMatR id(int dim) {
+		DenseMatR id = new DenseMatR(dim, dim);
+		for (int i = 0; i < dim; i++) {
+			id.values[i*dim+i] = 1.;
+		}
+		return id;
+	}
+
+	/**
+	 * @return the augmented matrix (m1|m2|...|mk)
+	 */
+	public static DenseMatR concat(DenseMatR... matrices) {
+		int n = matrices[0].n;
+		int width = 0;
+		for (DenseMatR matrix : matrices) {
+			if(matrix.n != n) {
+				throw new NotMatchingDimensionsException("there is not the same number of rows in the matrices");
+			}
+			width += matrix.m;
+		}
+		DenseMatR concatened = new DenseMatR(n, width);
+		int offset = 0;
+		for (DenseMatR matrix : matrices) {
+			for (int i = 0; i < n; i++) {
+				System.arraycopy(matrix.values, i*matrix.m, concatened.values, i*width+offset, matrix.m);
+			}
+			offset += matrix.m;
+		}
+		return concatened;
+	}
+
+
+	//######################### below: gaussian elimination on primitive buffers ###########################
+
+	/**
+	 * @return the row in [from, to[ which has the biggest absolute value in the column col
+	 */
+	private static int pivotRow(double[] a, int width, int col, int from, int to) {
+		int rowMax = from;
+		double max = Math.abs(a[from*width+col]);
+		for (int i = from+1; i < to; i++) {
+			double abs = Math.abs(a[i*width+col]);
+			if(abs > max) {
+				rowMax = i;
+				max = abs;
+			}
+		}
+		return rowMax;
+	}
+
+	private static void swapRows(double[] a, int width, int l1, int l2) {
+		for (int j = 0; j < width; j++) {
+			double tmp = a[l1*width+j];
+			a[l1*width+j] = a[l2*width+j];
+			a[l2*width+j] = tmp;
+		}
+	}
+
+	private static int reduce(double[] a, int rows, int width, int pivotCols) {
+		return reduce(a, rows, width, pivotCols, new int[rows]);
+	}
+
+	/**
+	 * Puts in place the buffer a (rows x width) in its reduced row echelon form, with partial
+	 * pivoting. Only the first pivotCols columns are used to look for pivots.
+	 * @param pivots filled with the column of each pivot
+	 * @return the number of pivots found, which is the rank of the first pivotCols columns
+	 */
+	private static int reduce(double[] a, int rows, int width, int pivotCols, int[] pivots) {
+		int numPivot = 0;
+		for (int j = 0; j < pivotCols && numPivot < rows; j++) {
+			int rowMax = pivotRow(a, width, j, numPivot, rows);
+			double pivot = a[rowMax*width+j];
+			if(Reals.isNull(pivot)) {
+				continue;
+			}
+			if(rowMax != numPivot) {
+				swapRows(a, width, rowMax, numPivot);
+			}
+			int rowP = numPivot*width;
+			for (int k = j; k < width; k++) {
+				a[rowP+k] /= pivot;
+			}
+			//the other rows are independent: in parallel when they are big enough
+			final int col = j;
+			final int p = numPivot;
+			ForkJoinPool pool = Gemm.getPool();
+			boolean parallel = (long)rows*(width-j) >= Gemm.GRAIN && pool.getParallelism() > 1;
+			RangeTask.forEach(pool, parallel, rows, width-j, i->{
+				double factor = a[i*width+col];
+				if(i == p || factor == 0) {
+					return;
+				}
+				Simd.axpy(-factor, a, rowP+col, a, i*width+col, width-col);
+			});
+			pivots[numPivot++] = j;
+		}
+		return numPivot;
+	}
+
+}
@@ -0,0 +1,213 @@
+package fr.romain.Maths.linalg;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import fr.romain.Maths.linalg.Matrix.NotSquareMatrixException;
+import fr.romain.Maths.linalg.Matrix.NotSymmetricMatrixException;
+import fr.romain.Maths.utils.Reals;
+
+/**
+ * This class represents the eigendecomposition of a symmetric real matrix A (n,n):
+ * A = V.D.tV where D is diagonal (the eigenvalues) and V is orthogonal (the eigenvectors in
+ * its columns). <br>
+ * It is computed by the cyclic Jacobi method: each rotation cancels one element A(p,q) out of
+ * the diagonal, and sweeps of rotations over all the pairs (p,q) are done until the elements
+ * out of the diagonal are negligible compared to the diagonal (the convergence is quadratic,
+ * usually under ten sweeps).
+ * <br><br>
+ * Rotations on disjoint pairs of indices commute, so a sweep is split in n-1 rounds of n/2
+ * disjoint pairs (round-robin ordering, like a chess tournament). All the rotations of a round
+ * are computed from the same matrix, then applied together in parallel: first on the rows
+ * p and q of A (one task per pair), then on the columns p and q of A and V (one task per row,
+ * which goes through all the pairs).
+ */
+public class EigenDecomposition {
+
+	private static final int MAX_SWEEPS = 100;
+	private static final double EPS = 1e-15;
+
+	private final double[] values;
+	private final DenseMatR vectors;
+	private final int sweeps;
+
+
+	public EigenDecomposition(DenseMatR a) {
+		this(a, Gemm.getPool());
+	}
+
+	/**
+	 * @param pool the pool on which the rotations of each round are applied
+	 * @throws NotSymmetricMatrixException if a is not symmetric
+	 */
+	public EigenDecomposition(DenseMatR a, ForkJoinPool pool) {
+		if(!a.isSquare()) {
+			throw new NotSquareMatrixException("eigendecomposition");
+		}
+		int n = a.dimRows();
+		double[] d = a.getValues().clone();
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < i; j++) {
+				if(!Reals.equals(d[i*n+j], d[j*n+i])) {
+					throw new NotSymmetricMatrixException();
+				}
+			}
+		}
+		double[] v = DenseMatR.id(n).getValues();
+
+		int players = n+n%2;
+		int[] order = new int[players];
+		for (int k = 0; k < players; k++) {
+			order[k] = k;
+		}
+		int[] ps = new int[players/2];
+		int[] qs = new int[players/2];
+		double[] cs = new double[players/2];
+		double[] ss = new double[players/2];
+
+		boolean parallel = (long)n*n >= Gemm.GRAIN;
+
+		int sweep = 0;
+		boolean rotated = true;
+		while (rotated && sweep < MAX_SWEEPS) {
+			sweep++;
+			rotated = false;
+			for (int round = 0; round < players-1; round++) {
+				int pairs = 0;
+				for (int k = 0; k < players/2; k++) {
+					int p = Math.min(order[k], order[players-1-k]);
+					int q = Math.max(order[k], order[players-1-k]);
+					//q == n is the player which sits out when n is odd
+					if(q >= n) {
+						continue;
+					}
+					double apq = d[p*n+q];
+					if(Math.abs(apq) <= EPS*Math.sqrt(Math.abs(d[p*n+p]*d[q*n+q]))) {
+						//negligible compared to the diagonal: the eigenvalues keep their relative accuracy
+						d[p*n+q] = 0;
+						d[q*n+p] = 0;
+						continue;
+					}
+					rotation(d, n, p, q, pairs, cs, ss);
+					ps[pairs] = p;
+					qs[pairs] = q;
+					pairs++;
+				}
+				if(pairs > 0) {
+					rotated = true;
+					final int nbPairs = pairs;
+					RangeTask.forEach(pool, parallel, nbPairs, n, k->rotateRows(d, n, ps[k], qs[k], cs[k], ss[k]));
+					RangeTask.forEach(pool, parallel, n, nbPairs, i->{
+						for (int k = 0; k < nbPairs; k++) {
+							rotateCols(d, n, i, ps[k], qs[k], cs[k], ss[k]);
+							rotateCols(v, n, i, ps[k], qs[k], cs[k], ss[k]);
+						}
+					});
+					for (int k = 0; k < nbPairs; k++) {
+						d[ps[k]*n+qs[k]] = 0;
+						d[qs[k]*n+ps[k]] = 0;
+					}
+				}
+				//the first player stays, the others turn
+				int last = order[players-1];
+				System.arraycopy(order, 1, order, 2, players-2);
+				if(players > 1) {
+					order[1] = last;
+				}
+			}
+		}
+		this.sweeps = sweep;
+
+		//eigenvalues in decreasing order, the eigenvectors follow them
+		Integer[] sorted = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			sorted[i] = i;
+		}
+		Arrays.sort(sorted, (i,j)->Double.compare(d[j*n+j], d[i*n+i]));
+		values = new double[n];
+		vectors = new DenseMatR(n, n);
+		for (int k = 0; k < n; k++) {
+			int col = sorted[k];
+			values[k] = d[col*n+col];
+			for (int i = 0; i < n; i++) {
+				vectors.set(i, k, v[i*n+col]);
+			}
+		}
+	}
+
+	/**
+	 * Computes c = cos and s = sin of the rotation which cancels d(p,q) and stores them at k
+	 */
+	private static void rotation(double[] d, int n, int p, int q, int k, double[] cs, double[] ss) {
+		double apq = d[p*n+q];
+		double theta = (d[q*n+q]-d[p*n+p])/(2*apq);
+		double t = Math.signum(theta)/(Math.abs(theta)+Math.sqrt(theta*theta+1));
+		if(theta == 0) {
+			t = 1;
+		}
+		double c = 1/Math.sqrt(t*t+1);
+		cs[k] = c;
+		ss[k] = t*c;
+	}
+
+	/**
+	 * rows p and q of tJ.A
+	 */
+	private static void rotateRows(double[] d, int n, int p, int q, double c, double s) {
+		int rowP = p*n;
+		int rowQ = q*n;
+		for (int j = 0; j < n; j++) {
+			double apj = d[rowP+j];
+			double aqj = d[rowQ+j];
+			d[rowP+j] = c*apj-s*aqj;
+			d[rowQ+j] = s*apj+c*aqj;
+		}
+	}
+
+	/**
+	 * elements (i,p) and (i,q) of A.J
+	 */
+	private static void rotateCols(double[] d, int n, int i, int p, int q, double c, double s) {
+		int rowI = i*n;
+		double aip = d[rowI+p];
+		double aiq = d[rowI+q];
+		d[rowI+p] = c*aip-s*aiq;
+		d[rowI+q] = s*aip+c*aiq;
+	}
+
+	/**
+	 * @return the eigenvalues in decreasing order
+	 */
+	public VectR getEigenvalues() {
+		VectR eigenvalues = new VectR(values.length);
+		for (int i = 0; i < values.length; i++) {
+			eigenvalues.set(i, values[i]);
+		}
+		return eigenvalues;
+	}
+
+	/**
+	 * @return the matrix whose column k is a unit eigenvector of the k-th eigenvalue
+	 */
+	public MatR getEigenvectors() {
+		return vectors.toMatR();
+	}
+
+	/**
+	 * @return the diagonal matrix of the eigenvalues
+	 */
+	public MatR getD() {
+		DenseMatR diag = new DenseMatR(values.length, values.length);
+		for (int i = 0; i < values.length; i++) {
+			diag.set(i, i, values[i]);
+		}
+		return diag.toMatR();
+	}
+
+	/**
+	 * @return the number of sweeps it took to converge
+	 */
+	public int sweeps() {
+		return sweeps;
+	}
+}
@@ -0,0 +1,116 @@
+package fr.romain.Maths.linalg;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import fr.romain.Maths.linalg.algstruct.Field;
+
+/**
+ * The core of the gaussian elimination of Matrix (echelon forms, gaussInv, rank, ker). <br>
+ * It works in place on the storage of one matrix, which can be any view: the rows are swapped,
+ * scaled and combined element by element, without creating any row, vector or intermediate
+ * matrix. For each pivot, the rows to update are independent: when there are enough elements,
+ * they are updated in parallel on the pool of Gemm.
+ * <br><br>
+ * Each eliminated element is set to zero exactly (instead of the rounding error of the
+ * subtraction), so that the echelon form doesn't depend on the precision of equals.
+ */
+final class GaussElimination {
+
+	private GaussElimination() {}
+
+	/**
+	 * Puts the matrix a in place in its row echelon form, or in its reduced row echelon form.
+	 * Only the first pivotCols columns are used to look for pivots (the others are just updated,
+	 * like the right part of an augmented matrix).
+	 * @param abs if not null, the pivot of each column is the element of biggest absolute value
+	 * (partial pivoting), otherwise the first non null element
+	 * @param reduced true for the reduced form: the pivots are one and they are the only non null
+	 * element of their column
+	 * @param pivots filled with the column of each pivot (at least min(rows, pivotCols) elements)
+	 * @return the number of pivots, which is the rank of the first pivotCols columns
+	 */
+	@SuppressWarnings("unchecked")
+	static<K> int reduce(Matrix<K> a, int pivotCols, Field<K> f, Function<K, Double> abs, BiPredicate<K, K> equals,
+						 boolean reduced, int[] pivots) {
+		Object[] v = a.storage();
+		int base = a.index(0, 0);
+		int rs = a.rowStride();
+		int cs = a.colStride();
+		int rows = a.dimRows();
+		int width = a.dimCols();
+		K zero = f.zero();
+
+		int numPivot = 0;
+		for (int j = 0; j < pivotCols && numPivot < rows; j++) {
+			int rowPivot = pivotRow(v, base, rs, cs, j, numPivot, rows, zero, abs, equals);
+			if(rowPivot < 0) {
+				continue;
+			}
+			if(rowPivot != numPivot) {
+				a.swapRows(rowPivot, numPivot);
+			}
+			int rowP = base+numPivot*rs;
+
+			if(reduced) {
+				K inv = f.prodInv((K) v[rowP+j*cs]);
+				v[rowP+j*cs] = f.one();
+				for (int k = j+1; k < width; k++) {
+					v[rowP+k*cs] = f.prod(inv, (K) v[rowP+k*cs]);
+				}
+			}
+			K pivot = (K) v[rowP+j*cs];
+
+			final int col = j;
+			final int p = numPivot;
+			int from = reduced ? 0 : numPivot+1;
+			ForkJoinPool pool = Gemm.getPool();
+			boolean parallel = (long)(rows-from)*(width-j) >= Gemm.GRAIN && pool.getParallelism() > 1;
+			RangeTask.forEach(pool, parallel, rows-from, width-j, t->{
+				int i = from+t;
+				if(i == p) {
+					return;
+				}
+				int rowI = base+i*rs;
+				K x = (K) v[rowI+col*cs];
+				if(equals.test(x, zero)) {
+					v[rowI+col*cs] = zero;
+					return;
+				}
+				K factor = reduced ? x : f.div(x, pivot);
+				for (int k = col+1; k < width; k++) {
+					v[rowI+k*cs] = f.minus((K) v[rowI+k*cs], f.prod(factor, (K) v[rowP+k*cs]));
+				}
+				v[rowI+col*cs] = zero;
+			});
+			pivots[numPivot++] = j;
+		}
+		return numPivot;
+	}
+
+	/**
+	 * @return the row in [from, to[ of the pivot of the column col, -1 if all its elements are null
+	 */
+	@SuppressWarnings("unchecked")
+	private static<K> int pivotRow(Object[] v, int base, int rs, int cs, int col, int from, int to, K zero,
+								   Function<K, Double> abs, BiPredicate<K, K> equals) {
+		int rowPivot = -1;
+		double max = -1;
+		for (int i = from; i < to; i++) {
+			K x = (K) v[base+i*rs+col*cs];
+			if(equals.test(x, zero)) {
+				continue;
+			}
+			if(abs == null) {
+				return i;
+			}
+			double absX = abs.apply(x);
+			if(absX > max) {
+				rowPivot = i;
+				max = absX;
+			}
+		}
+		return rowPivot;
+	}
+}
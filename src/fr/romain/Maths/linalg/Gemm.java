@@ -0,0 +1,398 @@
+package fr.romain.Maths.linalg;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import fr.romain.Maths.linalg.algstruct.Accumulator;
+import fr.romain.Maths.linalg.algstruct.Ring;
+
+/**
+ * This class gathers the kernels which compute the product of two matrices (GEneral Matrix
+ * Multiplication), on generic matrices for any ring as well as on primitive doubles. <br>
+ * The kernels are cache-blocked: the product C = A x B is split into tiles so that the
+ * tile of B in use stays in cache while all the rows of A go through it, and the inner
+ * loop runs along a row of B and a row of C (loop order i-k-j) instead of going down a column.
+ * <br><br>
+ * Big products are computed in parallel: the output is split into panels of rows (or of
+ * columns when it has few rows) which are computed by the tasks of a ForkJoinPool. Each task
+ * writes its own cells of C, so this works for any ring as its operations are stateless.
+ * Below a number of multiplications (see setParallelThreshold) the product stays sequential.
+ */
+public class Gemm {
+	
+	/**
+	 * Read by the threads which compute products, so volatile like parallelThreshold
+	 */
+	private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+	
+	/**
+	 * The pool created by setParallelism, which is shut down when it is replaced
+	 * (a pool given to setPool belongs to the caller). Guarded by Gemm.class
+	 */
+	private static ForkJoinPool ownPool;
+	
+	/**
+	 * The number of multiplications (n*m*p) from which a product is computed in parallel
+	 */
+	private static volatile long parallelThreshold = 1L << 21;
+	
+	/**
+	 * The number of multiplications under which a task doesn't split its panel anymore
+	 */
+	static final long GRAIN = 1L << 16;
+
+	/**
+	 * Tile sizes for the generic kernel. Its elements are references to boxed objects,
+	 * so the tiles are kept small enough for the references of a tile of B (64x64) to stay in L1/L2
+	 */
+	static final int BLOCK_K = 64;
+	static final int BLOCK_J = 64;
+
+	/**
+	 * Tile sizes for the kernel on doubles: a tile of B is 128x256 doubles (256 KB, L2) and
+	 * a segment of a row of C is 256 doubles (2 KB, L1)
+	 */
+	static final int DBLOCK_K = 128;
+	static final int DBLOCK_J = 256;
+
+
+	/**
+	 * Chooses the pool on which the big products are computed (the common pool by default).
+	 * It isn't shut down by Gemm
+	 */
+	public static synchronized void setPool(ForkJoinPool pool) {
+		replacePool(pool, null);
+	}
+	
+	/**
+	 * Computes the big products on a new pool of the given parallelism level. The pool created
+	 * by a previous call is shut down (the products already running on it still complete)
+	 */
+	public static synchronized void setParallelism(int parallelism) {
+		ForkJoinPool created = new ForkJoinPool(parallelism);
+		replacePool(created, created);
+	}
+	
+	private static void replacePool(ForkJoinPool pool, ForkJoinPool own) {
+		ForkJoinPool previous = ownPool;
+		Gemm.pool = pool;
+		ownPool = own;
+		if(previous != null && previous != pool) {
+			previous.shutdown();
+		}
+	}
+	
+	public static ForkJoinPool getPool() {
+		return pool;
+	}
+	
+	/**
+	 * @param threshold the number of multiplications (n*m*p) from which a product is computed
+	 * in parallel. Long.MAX_VALUE keeps all the products sequential
+	 */
+	public static void setParallelThreshold(long threshold) {
+		parallelThreshold = threshold;
+	}
+	
+	public static long getParallelThreshold() {
+		return parallelThreshold;
+	}
+	
+	/**
+	 * @param pool the pool the product will run on: read once by the caller, so that the check,
+	 * the grain and the tasks use the same pool even if it is replaced meanwhile
+	 */
+	static boolean isParallel(int n, int m, int p, ForkJoinPool pool) {
+		return (long)n*m*p >= parallelThreshold && pool.getParallelism() > 1;
+	}
+	
+
+	/**
+	 * @return the product a x b for the ring r, computed by tiles, in parallel if it is big enough
+	 */
+	public static<K> Matrix<K> prod(Matrix<K> a, Matrix<K> b, Ring<K> r){
+		if(!a.canBeProdTo(b)) {
+			throw new Matrix.NotMultipliableMatricesException(a.dims(), b.dims());
+		}
+		Matrix<K> c = Matrix.zeros(r, a.dimRows(), b.dimCols());
+		ForkJoinPool pool = Gemm.pool;
+		if(isParallel(a.dimRows(), a.dimCols(), b.dimCols(), pool)) {
+			pool.invoke(new ProdTask<K>(a, b, c, r, 0, a.dimRows(), 0, b.dimCols(), grain(a.dimRows(), a.dimCols(), b.dimCols(), pool)));
+		}
+		else {
+			multiply(a, b, c, r, 0, a.dimRows(), 0, b.dimCols());
+		}
+		return c;
+	}
+	
+	/**
+	 * Computes c = a x b for the ring r, where c is an existing matrix whose previous elements
+	 * are overwritten. c must not share its storage with a or b
+	 */
+	static<K> void prodInto(Matrix<K> a, Matrix<K> b, Matrix<K> c, Ring<K> r) {
+		K zero = r.zero();
+		for (int i = 0; i < c.dimRows(); i++) {
+			for (int j = 0; j < c.dimCols(); j++) {
+				c.set(i, j, zero);
+			}
+		}
+		ForkJoinPool pool = Gemm.pool;
+		if(isParallel(a.dimRows(), a.dimCols(), b.dimCols(), pool)) {
+			pool.invoke(new ProdTask<K>(a, b, c, r, 0, a.dimRows(), 0, b.dimCols(), grain(a.dimRows(), a.dimCols(), b.dimCols(), pool)));
+		}
+		else {
+			multiply(a, b, c, r, 0, a.dimRows(), 0, b.dimCols());
+		}
+	}
+	
+	/**
+	 * @return the product a x b for the ring r, split in panels on the given pool whatever its size
+	 */
+	public static<K> Matrix<K> parallelProd(Matrix<K> a, Matrix<K> b, Ring<K> r, ForkJoinPool pool){
+		if(!a.canBeProdTo(b)) {
+			throw new Matrix.NotMultipliableMatricesException(a.dims(), b.dims());
+		}
+		Matrix<K> c = Matrix.zeros(r, a.dimRows(), b.dimCols());
+		pool.invoke(new ProdTask<K>(a, b, c, r, 0, a.dimRows(), 0, b.dimCols(), grain(a.dimRows(), a.dimCols(), b.dimCols(), pool)));
+		return c;
+	}
+	
+	/**
+	 * Computes c = a x b where the three matrices are stored row after row:
+	 * a is (n,m), b is (m,p) and c is (n,p) and doesn't share its storage with a or b
+	 * (its previous elements are overwritten).
+	 * The product is computed in parallel if it is big enough
+	 */
+	static void prod(double[] a, double[] b, double[] c, int n, int m, int p) {
+		Arrays.fill(c, 0, n*p, 0.);
+		ForkJoinPool pool = Gemm.pool;
+		if(isParallel(n, m, p, pool)) {
+			pool.invoke(new DoubleProdTask(a, b, c, m, p, 0, n, 0, p, grain(n, m, p, pool)));
+		}
+		else {
+			multiply(a, b, c, m, p, 0, n, 0, p);
+		}
+	}
+	
+	/**
+	 * Same as prod but split in panels on the given pool whatever the size of the product
+	 */
+	static void parallelProd(double[] a, double[] b, double[] c, int n, int m, int p, ForkJoinPool pool) {
+		pool.invoke(new DoubleProdTask(a, b, c, m, p, 0, n, 0, p, grain(n, m, p, pool)));
+	}
+	
+	/**
+	 * Computes c = tA x b without forming tA: a is (n,m), b is (n,p) and c is (m,p), all stored
+	 * row after row (c is overwritten). <br>
+	 * Each row k of a and b adds the rank one update tA(k) x b(k) to c, so that every access
+	 * runs along a row. The rows of c are done by panels small enough to stay in cache while
+	 * all the rows of a and b go through them. The panels write different rows of c, so big
+	 * products compute them in parallel (with at least one panel per thread of the pool). <br>
+	 * If a == b (the Gram matrix tA x A), only the upper triangle is computed and then mirrored.
+	 */
+	static void tProd(double[] a, double[] b, double[] c, int n, int m, int p) {
+		Arrays.fill(c, 0, m*p, 0.);
+		boolean gram = a == b;
+		ForkJoinPool pool = Gemm.pool;
+		boolean parallel = isParallel(n, m, p, pool);
+		int panel = Math.max(1, (DBLOCK_K*DBLOCK_J)/Math.max(p, 1));
+		if(parallel) {
+			panel = Math.min(panel, Math.max(1, (m+pool.getParallelism()-1)/pool.getParallelism()));
+		}
+		int size = panel;
+
+		RangeTask.forEach(pool, parallel, (m+size-1)/size, (long)size*n*p, t->{
+			int ii = t*size;
+			int iEnd = Math.min(ii+size, m);
+
+			for (int k = 0; k < n; k++) {
+				int rowA = k*m;
+				int rowB = k*p;
+				for (int i = ii; i < iEnd; i++) {
+					double aki = a[rowA+i];
+					int j0 = gram ? i : 0;
+					Simd.axpy(aki, b, rowB+j0, c, i*p+j0, p-j0);
+				}
+			}
+		});
+
+		if(gram) {
+			for (int i = 0; i < m; i++) {
+				for (int j = 0; j < i; j++) {
+					c[i*p+j] = c[j*p+i];
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return the number of multiplications a task can do without splitting: about four
+	 * tasks per thread of the pool, but no smaller than GRAIN
+	 */
+	private static long grain(int n, int m, int p, ForkJoinPool pool) {
+		return Math.max(GRAIN, (long)n*m*p/(4L*pool.getParallelism()));
+	}
+	
+
+	/**
+	 * Adds to the panel [i0,i1[ x [j0,j1[ of c the same panel of the product a x b <br>
+	 * The three matrices may be views with any strides. Inside a tile, each element of c sums
+	 * its products in an accumulator of the ring (see Ring.accumulator), which is written back
+	 * once per tile
+	 */
+	@SuppressWarnings("unchecked")
+	static<K> void multiply(Matrix<K> a, Matrix<K> b, Matrix<K> c, Ring<K> r, int i0, int i1, int j0, int j1) {
+		Object[] va = a.storage();
+		Object[] vb = b.storage();
+		Object[] vc = c.storage();
+		int aColStride = a.colStride();
+		int bRowStride = b.rowStride();
+		int bColStride = b.colStride();
+		int cColStride = c.colStride();
+		int n = a.dimCols();
+		Accumulator<K> acc = r.accumulator();
+
+		for (int kk = 0; kk < n; kk += BLOCK_K) {
+			int kEnd = Math.min(kk+BLOCK_K, n);
+
+			for (int jj = j0; jj < j1; jj += BLOCK_J) {
+				int jEnd = Math.min(jj+BLOCK_J, j1);
+
+				for (int i = i0; i < i1; i++) {
+					int rowA = a.index(i, 0);
+					int rowC = c.index(i, 0);
+
+					for (int j = jj; j < jEnd; j++) {
+						int ic = rowC+j*cColStride;
+						int ib = b.index(kk, j);
+						acc.reset();
+						acc.add((K) vc[ic]);
+						for (int k = kk; k < kEnd; k++) {
+							acc.addProd((K) va[rowA+k*aColStride], (K) vb[ib]);
+							ib += bRowStride;
+						}
+						vc[ic] = acc.get();
+					}
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Adds to the panel [i0,i1[ x [j0,j1[ of c the same panel of the product a x b,
+	 * where the three matrices are stored row after row: a is (.,m), b is (m,p) and c is (.,p) <br>
+	 * Its micro-kernel is the axpy of Simd on a row of the tile of b
+	 */
+	static void multiply(double[] a, double[] b, double[] c, int m, int p, int i0, int i1, int j0, int j1) {
+
+		for (int kk = 0; kk < m; kk += DBLOCK_K) {
+			int kEnd = Math.min(kk+DBLOCK_K, m);
+
+			for (int jj = j0; jj < j1; jj += DBLOCK_J) {
+				int jEnd = Math.min(jj+DBLOCK_J, j1);
+
+				for (int i = i0; i < i1; i++) {
+					int rowA = i*m;
+					int rowC = i*p;
+
+					for (int k = kk; k < kEnd; k++) {
+						double aik = a[rowA+k];
+						Simd.axpy(aik, b, k*p+jj, c, rowC+jj, jEnd-jj);
+					}
+				}
+			}
+		}
+	}
+
+	
+	/**
+	 * Computes the panel [i0,i1[ x [j0,j1[ of a generic product, splitting it in two along its
+	 * longest dimension (rows or columns) while it has more than grain multiplications
+	 */
+	private static class ProdTask<K> extends RecursiveAction {
+		private static final long serialVersionUID = 5312807373391742375L;
+		
+		private final Matrix<K> a, b, c;
+		private final Ring<K> r;
+		private final int i0, i1, j0, j1;
+		private final long grain;
+		
+		ProdTask(Matrix<K> a, Matrix<K> b, Matrix<K> c, Ring<K> r, int i0, int i1, int j0, int j1, long grain) {
+			this.a = a;
+			this.b = b;
+			this.c = c;
+			this.r = r;
+			this.i0 = i0;
+			this.i1 = i1;
+			this.j0 = j0;
+			this.j1 = j1;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			int rows = i1-i0;
+			int cols = j1-j0;
+			if((long)rows*cols*a.dimCols() <= grain || (rows == 1 && cols == 1)) {
+				multiply(a, b, c, r, i0, i1, j0, j1);
+			}
+			else if(rows >= cols) {
+				int mid = (i0+i1) >>> 1;
+				invokeAll(new ProdTask<K>(a, b, c, r, i0, mid, j0, j1, grain),
+						  new ProdTask<K>(a, b, c, r, mid, i1, j0, j1, grain));
+			}
+			else {
+				int mid = (j0+j1) >>> 1;
+				invokeAll(new ProdTask<K>(a, b, c, r, i0, i1, j0, mid, grain),
+						  new ProdTask<K>(a, b, c, r, i0, i1, mid, j1, grain));
+			}
+		}
+	}
+	
+	/**
+	 * Same as ProdTask for the kernel on doubles
+	 */
+	private static class DoubleProdTask extends RecursiveAction {
+		private static final long serialVersionUID = -2771365541395426409L;
+		
+		private final double[] a, b, c;
+		private final int m, p;
+		private final int i0, i1, j0, j1;
+		private final long grain;
+		
+		DoubleProdTask(double[] a, double[] b, double[] c, int m, int p, int i0, int i1, int j0, int j1, long grain) {
+			this.a = a;
+			this.b = b;
+			this.c = c;
+			this.m = m;
+			this.p = p;
+			this.i0 = i0;
+			this.i1 = i1;
+			this.j0 = j0;
+			this.j1 = j1;
+			this.grain = grain;
+		}
+
+		@Override
+		protected void compute() {
+			int rows = i1-i0;
+			int cols = j1-j0;
+			if((long)rows*cols*m <= grain || (rows == 1 && cols == 1)) {
+				multiply(a, b, c, m, p, i0, i1, j0, j1);
+			}
+			else if(rows >= cols) {
+				int mid = (i0+i1) >>> 1;
+				invokeAll(new DoubleProdTask(a, b, c, m, p, i0, mid, j0, j1, grain),
+						  new DoubleProdTask(a, b, c, m, p, mid, i1, j0, j1, grain));
+			}
+			else {
+				int mid = (j0+j1) >>> 1;
+				invokeAll(new DoubleProdTask(a, b, c, m, p, i0, i1, j0, mid, grain),
+						  new DoubleProdTask(a, b, c, m, p, i0, i1, mid, j1, grain));
+			}
+		}
+	}
+
+}
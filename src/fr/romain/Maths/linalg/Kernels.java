@@ -0,0 +1,32 @@
+package fr.romain.Maths.linalg;
+
+/**
+ * The loops of Simd which have a vectorized implementation (see VectorKernels, in the source
+ * folder src-vector). Simd only goes through this interface, so that the classes of src
+ * compile and run without the module jdk.incubator.vector.
+ */
+interface Kernels {
+
+	/**
+	 * @return the number of doubles in a vector of the processor
+	 */
+	int lanes();
+
+	void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int len);
+
+	double dot(double[] a, int aOff, double[] b, int bOff, int len);
+
+	double squaredDistance(double[] a, int aOff, double[] b, int bOff, int len);
+
+	void add(double[] a, double[] b, double[] out, int len);
+
+	void sub(double[] a, double[] b, double[] out, int len);
+
+	void mul(double[] a, double[] b, double[] out, int len);
+
+	void scale(double alpha, double[] a, double[] out, int len);
+
+	double sum(double[] a, int len);
+
+	void logistic(double[] a, double[] out, int len);
+}
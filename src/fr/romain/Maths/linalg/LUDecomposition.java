@@ -0,0 +1,240 @@
+package fr.romain.Maths.linalg;
+
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import fr.romain.Maths.linalg.Matrix.NotInversibleMatrixException;
+import fr.romain.Maths.linalg.Matrix.NotMatchingDimensionsException;
+import fr.romain.Maths.linalg.Matrix.NotSquareMatrixException;
+import fr.romain.Maths.linalg.algstruct.Field;
+
+/**
+ * This class represents the LU decomposition with partial pivoting of a matrix A (n,m): <br>
+ * PA = LU where P is a permutation of the rows, L (n,n) is lower triangular with ones on its
+ * diagonal and U (n,m) is in row echelon form. <br>
+ * The elimination, O(n^3), is done once at the construction. Then the determinant, the rank,
+ * the inverse and the solutions of AX = B for any B are got from the factors without
+ * doing it again.
+ * <br><br>
+ * At each step, the pivot is the element of the biggest absolute value in its column
+ * (which needs an absolute value on K, see Field.abs), or its first non null element
+ * if there is none (exact fields). A column without any non null element is skipped,
+ * so that the decomposition also exists for singular and rectangular matrices.
+ *
+ * @param <K> the type of elements in the matrix
+ */
+public class LUDecomposition<K> {
+
+	private final Field<K> f;
+
+	/**
+	 * L and U are stored in the same matrix: U on and above the pivots, the multipliers of L
+	 * below them (the multiplier of the row i for the pivot p is in the column of the pivot p)
+	 */
+	private final Matrix<K> lu;
+
+	/**
+	 * perm[i] is the row of A which is the row i of PA
+	 */
+	private final int[] perm;
+
+	/**
+	 * pivotCols[p] is the column of the p-th pivot
+	 */
+	private final int[] pivotCols;
+	private final int rank;
+	private final boolean evenPermutation;
+
+
+	/**
+	 * @param abs the absolute value which chooses the pivots, null to take the first non null element
+	 */
+	public LUDecomposition(Matrix<K> a, Field<K> f, Function<K, Double> abs, BiPredicate<K, K> equals) {
+		this.f = f;
+		this.lu = a.clone();
+
+		int n = a.dimRows();
+		int m = a.dimCols();
+		perm = new int[n];
+		for (int i = 0; i < n; i++) {
+			perm[i] = i;
+		}
+		pivotCols = new int[Math.min(n, m)];
+		boolean even = true;
+
+		int row = 0;
+		for (int col = 0; col < m && row < n; col++) {
+
+			int rowMax = row;
+			if(abs == null) {
+				while(rowMax < n-1 && equals.test(lu.get(rowMax, col), f.zero())) {
+					rowMax++;
+				}
+			}
+			else {
+				double max = abs.apply(lu.get(row, col));
+				for (int i = row+1; i < n; i++) {
+					double absi = abs.apply(lu.get(i, col));
+					if(absi > max) {
+						rowMax = i;
+						max = absi;
+					}
+				}
+			}
+
+			K pivot = lu.get(rowMax, col);
+			if(equals.test(pivot, f.zero())) {
+				continue;
+			}
+			if(rowMax != row) {
+				lu.swapRows(rowMax, row);
+				int tmp = perm[rowMax];
+				perm[rowMax] = perm[row];
+				perm[row] = tmp;
+				even = !even;
+			}
+
+			K pivotInv = f.prodInv(pivot);
+			for (int i = row+1; i < n; i++) {
+				K factor = f.prod(lu.get(i, col), pivotInv);
+				lu.set(i, col, factor);
+				if(equals.test(factor, f.zero())) {
+					continue;
+				}
+				for (int j = col+1; j < m; j++) {
+					lu.set(i, j, f.minus(lu.get(i, j), f.prod(factor, lu.get(row, j))));
+				}
+			}
+			pivotCols[row++] = col;
+		}
+		rank = row;
+		evenPermutation = even;
+	}
+
+	public int rank() {
+		return rank;
+	}
+
+	/**
+	 * @return true if the decomposed matrix is square and inversible
+	 */
+	public boolean isInversible() {
+		return lu.isSquare() && rank == lu.dimRows();
+	}
+
+	/**
+	 * @return the determinant of the decomposed matrix: det(P)*prod(diag(U))
+	 */
+	public K det() {
+		if(!lu.isSquare()) {
+			throw new NotSquareMatrixException("Determinant");
+		}
+		if(rank < lu.dimRows()) {
+			return f.zero();
+		}
+		K det = evenPermutation ? f.one() : f.sumInv(f.one());
+		for (int i = 0; i < lu.dimRows(); i++) {
+			det = f.prod(det, lu.get(i, i));
+		}
+		return det;
+	}
+
+	/**
+	 * Solves AX = B by a forward then a backward substitution, O(n^2) for each column of B
+	 * @param b a matrix (n,k): each column is a right-hand side
+	 * @return the matrix X (n,k)
+	 * @throws NotInversibleMatrixException if the decomposed matrix is not inversible
+	 */
+	public Matrix<K> solve(Matrix<K> b) {
+		if(!isInversible()) {
+			throw new NotInversibleMatrixException();
+		}
+		int n = lu.dimRows();
+		if(b.dimRows() != n) {
+			throw new NotMatchingDimensionsException(b.dimRows()+" != "+n);
+		}
+		int k = b.dimCols();
+		Matrix<K> x = new Matrix<K>(n, k);
+
+		//forward substitution: LY = PB, L has ones on its diagonal
+		for (int i = 0; i < n; i++) {
+			for (int c = 0; c < k; c++) {
+				K sum = b.get(perm[i], c);
+				for (int j = 0; j < i; j++) {
+					sum = f.minus(sum, f.prod(lu.get(i, j), x.get(j, c)));
+				}
+				x.set(i, c, sum);
+			}
+		}
+
+		//backward substitution: UX = Y
+		for (int i = n-1; i >= 0; i--) {
+			K diagInv = f.prodInv(lu.get(i, i));
+			for (int c = 0; c < k; c++) {
+				K sum = x.get(i, c);
+				for (int j = i+1; j < n; j++) {
+					sum = f.minus(sum, f.prod(lu.get(i, j), x.get(j, c)));
+				}
+				x.set(i, c, f.prod(diagInv, sum));
+			}
+		}
+		return x;
+	}
+
+	public Vector<K> solve(Vector<K> b) {
+		return solve(b.toColMat()).toVec();
+	}
+
+	/**
+	 * @return the inverse of the decomposed matrix, by solving AX = I
+	 */
+	public Matrix<K> inverse() {
+		return solve(Matrix.id(f, lu.dimRows()));
+	}
+
+	/**
+	 * @return the lower triangular factor L (n,n)
+	 */
+	public Matrix<K> getL() {
+		int n = lu.dimRows();
+		Matrix<K> l = Matrix.id(f, n);
+		for (int p = 0; p < rank; p++) {
+			for (int i = p+1; i < n; i++) {
+				l.set(i, p, lu.get(i, pivotCols[p]));
+			}
+		}
+		return l;
+	}
+
+	/**
+	 * @return the factor U (n,m) in row echelon form
+	 */
+	public Matrix<K> getU() {
+		Matrix<K> u = Matrix.zeros(f, lu.dims());
+		for (int p = 0; p < rank; p++) {
+			for (int j = pivotCols[p]; j < lu.dimCols(); j++) {
+				u.set(p, j, lu.get(p, j));
+			}
+		}
+		return u;
+	}
+
+	/**
+	 * @return the permutation matrix P
+	 */
+	public Matrix<K> getP() {
+		int n = lu.dimRows();
+		Matrix<K> p = Matrix.zeros(f, n, n);
+		for (int i = 0; i < n; i++) {
+			p.set(i, perm[i], f.one());
+		}
+		return p;
+	}
+
+	/**
+	 * @return the rows of A in the order of PA
+	 */
+	public int[] getPivot() {
+		return perm.clone();
+	}
+}
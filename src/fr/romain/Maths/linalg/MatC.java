@@ -14,8 +14,15 @@ public class MatC extends Matrix<Complex> {
 	private final static Function<Complex, Double> abs = c->c.module();
 	private final static BiPredicate<Complex, Complex> equals = (z1,z2)->z1.equals(z2);
 	
+	/**
+	 * @return the given matrix seen as a MatC, sharing its storage (no copy)
+	 */
 	public static MatC of(Matrix<Complex> m){
-		return new MatC(m.getValues());
+		return new MatC(m);
+	}
+	
+	public static MatC of(DenseMatC m) {
+		return m.toMatC();
 	}
 	
 	public MatC(Complex[][] values) {
@@ -31,38 +38,127 @@ public class MatC extends Matrix<Complex> {
 		super(dim);
 	}
 	
+	private MatC(Matrix<Complex> m) {
+		super(m);
+	}
+	
+	/**
+	 * @return a copy of this matrix in two planes of primitive doubles
+	 */
+	public DenseMatC toDense() {
+		return DenseMatC.of(this);
+	}
+	
 	
 	public MatC plus(MatC matrix) {
-		return (MatC) plus(matrix, f);
+		return of(plus(matrix, f));
+	}
+	
+	public MatC minus(MatC matrix) {
+		return of(minus(matrix, f));
+	}
+	
+	/**
+	 * dest = this + matrix, dest may be this or matrix (see Matrix.plusInto)
+	 */
+	public void plusInto(MatC matrix, MatC dest) {
+		plusInto(matrix, dest, f);
+	}
+	
+	public void minusInto(MatC matrix, MatC dest) {
+		minusInto(matrix, dest, f);
+	}
+	
+	/**
+	 * dest = this x matrix, dest can't overlap this or matrix
+	 */
+	public void prodInto(MatC matrix, MatC dest) {
+		if(!canBeProdTo(matrix)) {
+			throw new NotMultipliableMatricesException(dims(), matrix.dims());
+		}
+		if(dest.overlaps(this) || dest.overlaps(matrix)) {
+			throw new AliasedMatricesException("The destination of a product can't overlap its operands");
+		}
+		dest.assign(prod(matrix));
+	}
+	
+	public void plusInPlace(MatC matrix) {
+		plusInto(matrix, this, f);
+	}
+	
+	public void minusInPlace(MatC matrix) {
+		minusInto(matrix, this, f);
+	}
+	
+	public void scaleInPlace(Complex k) {
+		timesInto(k, this, f);
+	}
+	
+	/**
+	 * this = this + alpha.x
+	 */
+	public void axpy(Complex alpha, MatC x) {
+		axpy(alpha, x, f);
 	}
 	
 
+	/**
+	 * The product of two complex matrices, computed on the real and imaginary planes
+	 * (see DenseMatC.prod): four real products of Gemm, whatever the size. They replace
+	 * Strassen for MatC, which is still available with strassenProd(matrix, f)
+	 */
 	public MatC prod(MatC matrix) {
-		return (MatC) prod(matrix, f);
+		if(dimCols() != matrix.dimRows()) {
+			throw new NotMultipliableMatricesException(dims(), matrix.dims());
+		}
+		return toDense().prod(matrix.toDense()).toMatC();
 	}
 	
 	public MatC pow(int k){
-		return (MatC) pow(k, f);
+		return toDense().pow(k).toMatC();
+	}
+	
+	public MatC pow(long k){
+		return toDense().pow(k).toMatC();
 	}
 	
 	public MatC times(Complex k) {
-		return (MatC) times(k, f);
+		return of(times(k, f));
 	}
 	
 	public Complex trace() {
 		return trace(f);
 	}
 	
+	/**
+	 * @return the LU decomposition of this matrix, to reuse for several operations
+	 * (determinant, inverse, rank, linear systems)
+	 */
+	public LUDecomposition<Complex> lu() {
+		return lu(f, abs, equals);
+	}
+	
 	public Complex det() {
-		return recDet(f);
+		return toDense().det();
 	}
 	
 	public MatC inv() {
-		return (MatC) gaussInv(f, abs, equals);
+		return toDense().inv().toMatC();
 	}
 	
 	public int rank() {
-		return rank(f, equals);
+		return toDense().rank();
+	}
+	
+	/**
+	 * @return the rank factorization of this matrix: rank, kernel and image from a single elimination
+	 */
+	public RankDecomposition<Complex> rankDecomposition() {
+		return rankDecomposition(f, abs, equals);
+	}
+	
+	public List<Vector<Complex>> im(){
+		return im(f, abs, equals);
 	}
 	
 	public List<Vector<Complex>> ker(){
@@ -74,11 +170,11 @@ public class MatC extends Matrix<Complex> {
 	}
 	
 	public static MatC zeros(int... dims) {
-		return (MatC) Matrix.zeros(f, dims);
+		return of(Matrix.zeros(f, dims));
 	}
 	
 	public static MatC id (int dim) {
-		return (MatC) Matrix.id(f, dim);
+		return of(Matrix.id(f, dim));
 	}
 	
 }
@@ -0,0 +1,289 @@
+package fr.romain.Maths.linalg;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+import fr.romain.Maths.linalg.Matrix.NotMatchingDimensionsException;
+import fr.romain.Maths.linalg.Matrix.NotSameDimensionsException;
+
+/**
+ * This class represents a deferred element-wise expression on real matrices, like
+ * (1-Y) .* log(1-G): the operations (plus, minus, hDot, dot(scalar), elmtWise, t) only build a tree,
+ * which is evaluated element after element in a single pass, either into one output buffer
+ * (toDense, toMatR) or directly into a reduction (sum, asScalar). <br>
+ * No intermediate matrix is ever created: the leaves read the elements of the matrices in place
+ * (a transposition only swaps the strides of a leaf) and a constant matrix (like the matrix of ones)
+ * stores nothing.
+ */
+public abstract class MatExpr {
+
+	private final int n;
+	private final int m;
+
+
+	private MatExpr(int n, int m) {
+		this.n = n;
+		this.m = m;
+	}
+
+	/**
+	 * @return the element (i,j) of the expression
+	 */
+	abstract double at(int i, int j);
+
+
+	/**
+	 * The expression which reads the given matrix (no copy: it mustn't be modified before the evaluation)
+	 */
+	public static MatExpr of(DenseMatR matrix) {
+		return new DenseLeaf(matrix.getValues(), 0, matrix.dimCols(), 1, matrix.dimRows(), matrix.dimCols());
+	}
+
+	/**
+	 * The expression which reads the given matrix, or view, in its storage (no copy: it mustn't be
+	 * modified before the evaluation)
+	 */
+	public static MatExpr of(Matrix<Double> matrix) {
+		return new BoxedLeaf(matrix.storage(), matrix.index(0, 0), matrix.rowStride(), matrix.colStride(),
+							 matrix.dimRows(), matrix.dimCols());
+	}
+
+	/**
+	 * @return the (n,m) matrix whose elements are all equal to value, without storing it
+	 */
+	public static MatExpr constant(double value, int n, int m) {
+		return new Constant(value, n, m);
+	}
+
+	public int dimRows() {
+		return n;
+	}
+
+	public int dimCols() {
+		return m;
+	}
+
+	public int[] dims() {
+		return new int[] {n,m};
+	}
+
+
+	public MatExpr plus(MatExpr expr) {
+		return binary(expr, Double::sum);
+	}
+
+	public MatExpr minus(MatExpr expr) {
+		return binary(expr, (a,b)->a-b);
+	}
+
+	/**
+	 * the element-wise product
+	 */
+	public MatExpr hDot(MatExpr expr) {
+		return binary(expr, (a,b)->a*b);
+	}
+
+	public MatExpr plus(double k) {
+		return elmtWise(x->x+k);
+	}
+
+	public MatExpr dot(double k) {
+		return elmtWise(x->k*x);
+	}
+
+	/**
+	 * @return k - this, element-wise (like 1 - G)
+	 */
+	public MatExpr from(double k) {
+		return elmtWise(x->k-x);
+	}
+
+	public MatExpr elmtWise(DoubleUnaryOperator f) {
+		return new Unary(this, f);
+	}
+
+	public MatExpr log() {
+		return elmtWise(Math::log);
+	}
+
+	/**
+	 * The transposition is pushed down to the leaves, where it swaps the strides
+	 */
+	public abstract MatExpr t();
+
+	private MatExpr binary(MatExpr expr, DoubleBinaryOperator op) {
+		if(n != expr.n || m != expr.m) {
+			throw new NotSameDimensionsException(dims(), expr.dims());
+		}
+		return new Binary(this, expr, op);
+	}
+
+
+	/**
+	 * Evaluates the expression in a single pass into a new matrix
+	 */
+	public DenseMatR toDense() {
+		DenseMatR dense = new DenseMatR(n, m);
+		double[] values = dense.getValues();
+		for (int i = 0; i < n; i++) {
+			int row = i*m;
+			for (int j = 0; j < m; j++) {
+				values[row+j] = at(i, j);
+			}
+		}
+		return dense;
+	}
+
+	public MatR toMatR() {
+		MatR matrix = new MatR(n, m);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				matrix.set(i, j, at(i, j));
+			}
+		}
+		return matrix;
+	}
+
+	/**
+	 * @return the sum of the elements of the expression, evaluated in a single pass without any buffer
+	 */
+	public double sum() {
+		double sum = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				sum += at(i, j);
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * @return the sum of the element-wise product with expr: Tr(tThis x expr)
+	 */
+	public double scalarProd(MatExpr expr) {
+		return hDot(expr).sum();
+	}
+
+	public double asScalar() {
+		if(n*m != 1) {
+			throw new NotMatchingDimensionsException("This expression can't be seen as a scalar because it is too big");
+		}
+		return at(0, 0);
+	}
+
+
+	//######################### below: the nodes of the tree ###########################
+
+	private static class DenseLeaf extends MatExpr {
+		private final double[] values;
+		private final int offset;
+		private final int rowStride;
+		private final int colStride;
+
+		DenseLeaf(double[] values, int offset, int rowStride, int colStride, int n, int m) {
+			super(n, m);
+			this.values = values;
+			this.offset = offset;
+			this.rowStride = rowStride;
+			this.colStride = colStride;
+		}
+
+		@Override
+		double at(int i, int j) {
+			return values[offset+i*rowStride+j*colStride];
+		}
+
+		@Override
+		public MatExpr t() {
+			return new DenseLeaf(values, offset, colStride, rowStride, dimCols(), dimRows());
+		}
+	}
+
+	private static class BoxedLeaf extends MatExpr {
+		private final Object[] values;
+		private final int offset;
+		private final int rowStride;
+		private final int colStride;
+
+		BoxedLeaf(Object[] values, int offset, int rowStride, int colStride, int n, int m) {
+			super(n, m);
+			this.values = values;
+			this.offset = offset;
+			this.rowStride = rowStride;
+			this.colStride = colStride;
+		}
+
+		@Override
+		double at(int i, int j) {
+			return (Double) values[offset+i*rowStride+j*colStride];
+		}
+
+		@Override
+		public MatExpr t() {
+			return new BoxedLeaf(values, offset, colStride, rowStride, dimCols(), dimRows());
+		}
+	}
+
+	private static class Constant extends MatExpr {
+		private final double value;
+
+		Constant(double value, int n, int m) {
+			super(n, m);
+			this.value = value;
+		}
+
+		@Override
+		double at(int i, int j) {
+			return value;
+		}
+
+		@Override
+		public MatExpr t() {
+			return new Constant(value, dimCols(), dimRows());
+		}
+	}
+
+	private static class Unary extends MatExpr {
+		private final MatExpr expr;
+		private final DoubleUnaryOperator f;
+
+		Unary(MatExpr expr, DoubleUnaryOperator f) {
+			super(expr.n, expr.m);
+			this.expr = expr;
+			this.f = f;
+		}
+
+		@Override
+		double at(int i, int j) {
+			return f.applyAsDouble(expr.at(i, j));
+		}
+
+		@Override
+		public MatExpr t() {
+			return new Unary(expr.t(), f);
+		}
+	}
+
+	private static class Binary extends MatExpr {
+		private final MatExpr left;
+		private final MatExpr right;
+		private final DoubleBinaryOperator op;
+
+		Binary(MatExpr left, MatExpr right, DoubleBinaryOperator op) {
+			super(left.n, left.m);
+			this.left = left;
+			this.right = right;
+			this.op = op;
+		}
+
+		@Override
+		double at(int i, int j) {
+			return op.applyAsDouble(left.at(i, j), right.at(i, j));
+		}
+
+		@Override
+		public MatExpr t() {
+			return new Binary(left.t(), right.t(), op);
+		}
+	}
+}
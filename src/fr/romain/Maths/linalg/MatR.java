@@ -1,6 +1,8 @@
 package fr.romain.Maths.linalg;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 
@@ -13,11 +15,28 @@ public class MatR extends Matrix<Double> {
 	
 	private final static Field<Double> f = Field.realsField();
 	
-	private final static Function<Double, Double> abs = Math::abs;
 	private final static BiPredicate<Double, Double> equals = Reals::equals;
 	
+	/**
+	 * @return the given matrix seen as a MatR, sharing its storage (no copy)
+	 */
 	public static MatR of(Matrix<Double> m){
-		return new MatR(m.getValues());
+		return new MatR(m);
+	}
+	
+	public static MatR of(DenseMatR m) {
+		return m.toMatR();
+	}
+	
+	public static MatR of(SparseMatrix<Double> m) {
+		return of(m.toMatrix(f));
+	}
+	
+	/**
+	 * @return the sparse matrix of the non null elements of this matrix (for Reals.isNull)
+	 */
+	public SparseMatrix<Double> toSparse() {
+		return SparseMatrix.of(this, f, equals);
 	}
 	
 	public MatR(Double[][] values) {
@@ -33,18 +52,109 @@ public class MatR extends Matrix<Double> {
 		super(dim);
 	}
 	
+	private MatR(Matrix<Double> m) {
+		super(m);
+	}
+	
+	/**
+	 * @return a copy of this matrix backed by primitive doubles, on which the heavy
+	 * operations (product, inversion, determinant, ...) don't box any element
+	 */
+	public DenseMatR toDense() {
+		return DenseMatR.of(this);
+	}
+	
 	
 	public MatR plus(MatR matrix) {
-		return (MatR) plus(matrix, f);
+		if(!hasDim(matrix.dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		MatR sum = new MatR(dims());
+		plusInto(matrix, sum, f);
+		return sum;
 	}
 	
 	public MatR minus(MatR matrix) {
-		return (MatR) minus(matrix, f);
+		if(!hasDim(matrix.dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		MatR diff = new MatR(dims());
+		minusInto(matrix, diff, f);
+		return diff;
 	}
 	
 
+	/**
+	 * dest = this + matrix, dest may be this or matrix (see Matrix.plusInto)
+	 */
+	public void plusInto(MatR matrix, MatR dest) {
+		plusInto(matrix, dest, f);
+	}
+	
+	public void minusInto(MatR matrix, MatR dest) {
+		minusInto(matrix, dest, f);
+	}
+	
+	public void hDotInto(MatR matrix, MatR dest) {
+		hadamardProdInto(matrix, dest, f);
+	}
+	
+	/**
+	 * dest = this x m, dest can't overlap this or m. The product is computed on primitive doubles
+	 * and written into dest
+	 */
+	public void dotInto(MatR m, MatR dest) {
+		if(!canBeProdTo(m)) {
+			throw new NotMultipliableMatricesException(dims(), m.dims());
+		}
+		if(dest.overlaps(this) || dest.overlaps(m)) {
+			throw new AliasedMatricesException("The destination of a product can't overlap its operands");
+		}
+		dest.assign(toDense().dot(m.toDense()).toMatR());
+	}
+	
+	public void plusInPlace(MatR matrix) {
+		plusInto(matrix, this, f);
+	}
+	
+	public void minusInPlace(MatR matrix) {
+		minusInto(matrix, this, f);
+	}
+	
+	public void scaleInPlace(double k) {
+		timesInto(k, this, f);
+	}
+	
+	/**
+	 * this = this + alpha.x
+	 */
+	public void axpy(double alpha, MatR x) {
+		axpy(alpha, x, f);
+	}
+	
+	/**
+	 * If this matrix is a transposed view (see transposedView), the product is computed by tDot
+	 * on the matrix it comes from: the transpose is never formed
+	 */
 	public MatR dot(MatR m) {
-		return (MatR) prod(m, f);
+		if(layout() == Layout.COL_MAJOR) {
+			return transposedView().toDense().tDot(m.toDense()).toMatR();
+		}
+		return toDense().dot(m.toDense()).toMatR();
+	}
+	
+	/**
+	 * The product by a sparse matrix, which goes through its stored elements only
+	 */
+	public MatR dot(SparseMatrix<Double> m) {
+		return of(m.leftProd(this, f));
+	}
+	
+	/**
+	 * The usual product on matrices, computed in parallel on the given pool
+	 */
+	public MatR dot(MatR m, ForkJoinPool pool) {
+		return toDense().dot(m.toDense(), pool).toMatR();
 	}
 	
 	/**
@@ -53,20 +163,59 @@ public class MatR extends Matrix<Double> {
 	 * @return
 	 */
 	public MatR hDot(MatR m) {
-		return (MatR) hadamardProd(m, f);
+		if(!hasDim(m.dims())) {
+			throw new NotSameDimensionsException(dims(), m.dims());
+		}
+		MatR prod = new MatR(dims());
+		hadamardProdInto(m, prod, f);
+		return prod;
 	}
 	
 	public MatR dot(double k) {
-		return (MatR) times(k, f);
+		MatR times = new MatR(dims());
+		timesInto(k, times, f);
+		return times;
 	}
 	
+	/**
+	 * @return a copy of the transpose (see transposedView to multiply by the transpose without copy)
+	 */
 	public MatR t() {
-		return (MatR) transpose();
+		return of(transpose());
+	}
+	
+	@Override
+	public MatR subMatrix(int i, int j, int dimRows, int dimCols) {
+		return of(super.subMatrix(i, j, dimRows, dimCols));
+	}
+	
+	@Override
+	public MatR row(int i) {
+		return of(super.row(i));
+	}
+	
+	@Override
+	public MatR col(int j) {
+		return of(super.col(j));
+	}
+	
+	@Override
+	public MatR block(int bi, int bj, int blockRows, int blockCols) {
+		return of(super.block(bi, bj, blockRows, blockCols));
+	}
+	
+	@Override
+	public MatR transposedView() {
+		return of(super.transposedView());
 	}
 	
 	
 	public MatR pow(int k){
-		return (MatR) pow(k, f);
+		return toDense().pow(k).toMatR();
+	}
+	
+	public MatR pow(long k){
+		return toDense().pow(k).toMatR();
 	}
 	
 	
@@ -74,12 +223,57 @@ public class MatR extends Matrix<Double> {
 		return trace(f);
 	}
 	
+	/**
+	 * @return the LU decomposition of this matrix, to reuse for several operations
+	 * (determinant, inverse, rank, linear systems)
+	 */
+	public LUDecomposition<Double> lu() {
+		return lu(f, Math::abs, equals);
+	}
+	
+	/**
+	 * @return the Cholesky decomposition of this matrix, which has to be symmetric positive-definite
+	 */
+	public CholeskyDecomposition cholesky() {
+		return toDense().cholesky();
+	}
+	
+	/**
+	 * @return the eigendecomposition of this matrix, which has to be symmetric
+	 */
+	public EigenDecomposition eigen() {
+		return new EigenDecomposition(toDense());
+	}
+	
+	/**
+	 * @param pool the pool on which the rotations of the Jacobi method are applied
+	 */
+	public EigenDecomposition eigen(ForkJoinPool pool) {
+		return new EigenDecomposition(toDense(), pool);
+	}
+	
+	/**
+	 * @return the QR decomposition of this matrix (it needs at least as many rows as columns),
+	 * done in place in the only copy of this matrix made for it
+	 */
+	public QRDecomposition qr() {
+		DenseMatR dense = toDense();
+		return new QRDecomposition(dimRows(), dimCols(), dense.getValues());
+	}
+	
+	/**
+	 * @return tThis x matrix, without forming the transpose
+	 */
+	public MatR tDot(MatR matrix) {
+		return toDense().tDot(matrix.toDense()).toMatR();
+	}
+	
 	public double det() {
-		return recDet(f);
+		return toDense().det();
 	}
 	
 	public MatR inv() {
-		return (MatR) gaussInv(f, abs, equals);
+		return toDense().inv().toMatR();
 	}
 	
 	/**
@@ -88,54 +282,103 @@ public class MatR extends Matrix<Double> {
 	 * @return
 	 */
 	public MatR hInv() {
-		return (MatR) hadamardInv(f);
+		return of(hadamardInv(f));
 	}
 	
 	public int rank() {
-		return rank(f, equals);
+		return toDense().rank();
+	}
+	
+	/**
+	 * @return the rank factorization of this matrix: rank, kernel and image from a single elimination
+	 */
+	public RankDecomposition<Double> rankDecomposition() {
+		return rankDecomposition(f, Math::abs, equals);
+	}
+	
+	public List<Vector<Double>> im(){
+		return im(f, Math::abs, equals);
 	}
 	
 	public List<Vector<Double>> ker(){
-		return ker(f, abs, equals);
+		return toDense().ker();
 	}
 	
 	public double scalarProd(MatR m) {
 		return scalarProd(m, f);
 	}
 	
+	/**
+	 * @return Tr(this x m), without computing the product
+	 */
+	public double traceProd(MatR m) {
+		return traceProd(m, f);
+	}
+	
+	/**
+	 * @return the squared Frobenius norm of this - m, without creating the difference
+	 */
+	public double squaredDistance(MatR m) {
+		return squaredDistance(m, f);
+	}
+	
+	/**
+	 * @return the Frobenius norm sqrt(Tr(tAxA))
+	 */
+	public double norm() {
+		return Math.sqrt(scalarProd(this));
+	}
+	
 	public VectR colsMax() {
 		VectR colsMax = new VectR(dimCols());
-		List<Vector<Double>> cols = getCols();
-		
-		for (int i = 0; i < cols.size(); i++) {
-			colsMax.set(i, ((VectR)cols.get(i)).max());
+		for (int j = 0; j < dimCols(); j++) {
+			double max = get(0, j);
+			for (int i = 1; i < dimRows(); i++) {
+				max = Math.max(max, get(i, j));
+			}
+			colsMax.set(j, max);
 		}
 		return colsMax;
 	}
 	
 	public VectR colsMin() {
 		VectR colsMin = new VectR(dimCols());
-		List<Vector<Double>> cols = getCols();
-		
-		for (int i = 0; i < cols.size(); i++) {
-			colsMin.set(i, ((VectR)cols.get(i)).min());
+		for (int j = 0; j < dimCols(); j++) {
+			double min = get(0, j);
+			for (int i = 1; i < dimRows(); i++) {
+				min = Math.min(min, get(i, j));
+			}
+			colsMin.set(j, min);
 		}
 		return colsMin;
 	}
 	
 	public VectR colsMeans() {
 		VectR colsMeans = new VectR(dimCols());
-		List<Vector<Double>> cols = getCols();
-		
-		for (int i = 0; i < cols.size(); i++) {
-			colsMeans.set(i, ((VectR)cols.get(i)).mean());
+		for (int j = 0; j < dimCols(); j++) {
+			double sum = 0;
+			for (int i = 0; i < dimRows(); i++) {
+				sum += get(i, j);
+			}
+			colsMeans.set(j, sum/dimRows());
 		}
 		return colsMeans;
 	}
 	
 	public void forEachCols(Function<VectR, VectR> f) {
 		for (int i = 0; i < dimCols(); i++) {
-			setCol(i, f.apply(((VectR)getCol(i))));
+			setCol(i, f.apply(VectR.of(getCol(i))));
+		}
+	}
+	
+	/**
+	 * Applies f on each column of this matrix, given as a view: the columns are not copied
+	 * and f can modify them in place
+	 * @param f takes the index of the column and the view on it
+	 */
+	public void forEachColsView(BiConsumer<Integer, MatR> f) {
+		for (int j = 0; j < dimCols(); j++) {
+			f.accept(j, col(j));
 		}
 	}
 	
@@ -147,6 +390,20 @@ public class MatR extends Matrix<Double> {
 		}
 	}
 	
+	/**
+	 * @return a deferred element-wise expression on this matrix (see MatExpr), which reads it in place
+	 */
+	public MatExpr lazy() {
+		return MatExpr.of(this);
+	}
+	
+	/**
+	 * @return the element-wise logistic function 1/(1+exp(-x))
+	 */
+	public MatR logistic() {
+		return elmtWise(x->1./(1+Math.exp(-x)));
+	}
+	
 	public MatR elmtWise(Function<Double, Double> f) {
 		MatR res = new MatR(dims());
 		for (int i = 0; i < dimRows(); i++) {
@@ -196,23 +453,23 @@ public class MatR extends Matrix<Double> {
 	}
 	
 	public static MatR zeros(int... dims) {
-		return (MatR) Matrix.zeros(f, dims);
+		return of(Matrix.zeros(f, dims));
 	}
 	
 	public static MatR ones(int... dims) {
-		return (MatR) Matrix.ones(f, dims);
+		return of(Matrix.ones(f, dims));
 	}
 	
 	public static MatR id(int dim) {
-		return (MatR) Matrix.id(f, dim);
+		return of(Matrix.id(f, dim));
 	}
 	
 	public static MatR concat(MatR... matrices) {
-		MatR concatened = matrices[0];
-		for (int i = 1; i < matrices.length; i++) {
-			concatened = (MatR) concatened.augmRow(matrices[i]);
+		DenseMatR[] dense = new DenseMatR[matrices.length];
+		for (int i = 0; i < matrices.length; i++) {
+			dense[i] = matrices[i].toDense();
 		}
-		return concatened;
+		return DenseMatR.concat(dense).toMatR();
 	}
 }
 
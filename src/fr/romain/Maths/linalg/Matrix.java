@@ -2,10 +2,13 @@ package fr.romain.Maths.linalg;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 
+import fr.romain.Maths.linalg.algstruct.Accumulator;
 import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.linalg.algstruct.IntegralDomain;
 import fr.romain.Maths.linalg.algstruct.Ring;
  
 /**
@@ -14,22 +17,64 @@ import fr.romain.Maths.linalg.algstruct.Ring;
  * @param <K> the type of elements in the matrix
  */
 public class Matrix<K> {
+	
+	/**
+	 * The order in which the elements of a new matrix are stored in its flat array
+	 */
+	public enum Layout {
+		ROW_MAJOR, COL_MAJOR
+	}
 
-	private Object[][] values;
+	/**
+	 * All the elements are stored in one flat array: the element (i,j) is at
+	 * offset + i*rowStride + j*colStride. <br>
+	 * Views (sub-matrices, rows, columns, transposed) share this array with the matrix
+	 * they come from and only change the offset, the strides and the dimensions.
+	 */
+	private final Object[] values;
+	private final int offset;
+	private final int rowStride;
+	private final int colStride;
+	private final int n;
+	private final int m;
 	
 	
 	public Matrix(int n,int m){
-		values = new Object[n][m]; 
+		this(n, m, Layout.ROW_MAJOR);
+	}
+	
+	public Matrix(int n, int m, Layout layout) {
+		this(new Object[n*m], 0, layout == Layout.ROW_MAJOR ? m : 1, layout == Layout.ROW_MAJOR ? 1 : n, n, m);
 	}
 	
 	public Matrix(K[][] values) {
-		this.values = values;
+		this(values.length, values[0].length);
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(values[i], 0, this.values, i*m, m);
+		}
 	}
 	
 	public Matrix(int[] dim) {
 		this(dim[0],dim[1]);
 	}
 	
+	/**
+	 * Builds a matrix which shares the storage of the given one.
+	 * Useful for subclasses which want to see a matrix (or a view) as one of them without copy
+	 */
+	protected Matrix(Matrix<K> matrix) {
+		this(matrix.values, matrix.offset, matrix.rowStride, matrix.colStride, matrix.n, matrix.m);
+	}
+	
+	private Matrix(Object[] values, int offset, int rowStride, int colStride, int n, int m) {
+		this.values = values;
+		this.offset = offset;
+		this.rowStride = rowStride;
+		this.colStride = colStride;
+		this.n = n;
+		this.m = m;
+	}
+	
 	public static<K> Matrix<K> of(K[][] tab){
 		return new Matrix<K>(tab);
 	}
@@ -47,28 +92,68 @@ public class Matrix<K> {
 	
 	@SafeVarargs
 	public static<K> Matrix<K> byCols(Vector<K>...vectors){
-		return byRows(vectors).transpose();
+		Matrix<K> matrix = new Matrix<K>(vectors[0].dim(), vectors.length, Layout.COL_MAJOR);
+		for (int j = 0; j < vectors.length; j++) {
+			matrix.setCol(j, vectors[j]);
+		}
+		return matrix;
 	}
 
+	/**
+	 * @return a copy of the elements of this matrix, row by row
+	 */
 	@SuppressWarnings("unchecked")
 	public K[][] getValues(){
-		return (K[][]) values;
+		Object[][] tab = new Object[n][m];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				tab[i][j] = values[index(i, j)];
+			}
+		}
+		return (K[][]) tab;
+	}
+	
+	int index(int i, int j) {
+		return offset + i*rowStride + j*colStride;
 	}
 	
+	/**
+	 * Direct access to the flat storage for the kernels of this package
+	 * (see index, rowStride and colStride to address it)
+	 */
+	Object[] storage() {
+		return values;
+	}
+	
+	int rowStride() {
+		return rowStride;
+	}
+	
+	int colStride() {
+		return colStride;
+	}
+	
+	@SuppressWarnings("unchecked")
 	public K get(int i, int j) {
-		return getValues()[i][j];
+		return (K) values[index(i, j)];
 	}
 	
 	public void set(int i,int j, K value) {
-		values[i][j] = value;
+		values[index(i, j)] = value;
 	}
 	
 	public Vector<K> getRow(int i){
-		return new Vector<K>(getValues()[i]);
+		Vector<K> row = new Vector<>(dimCols());
+		for (int j = 0; j < dimCols(); j++) {
+			row.set(j, get(i, j));
+		}
+		return row;
 	}
 	
 	public void setRow(int i, Vector<K> row) {
-		values[i] = row.getValues();
+		for (int j = 0; j < dimCols(); j++) {
+			values[index(i, j)] = row.get(j);
+		}
 	}
 	
 	
@@ -82,7 +167,7 @@ public class Matrix<K> {
 	
 	public void setCol(int j,Vector<K> col) {
 		for (int i = 0; i < dimRows(); i++) {
-			values[i][j]=col.get(i);
+			values[index(i, j)]=col.get(i);
 		}
 	}
 	
@@ -102,13 +187,106 @@ public class Matrix<K> {
 		return cols;
 	}
 	
+	
+	//############## Below: views which share the storage of this matrix (no copy) #######
+	
+	/**
+	 * @param i the first row of the view
+	 * @param j the first column of the view
+	 * @param dimRows the number of rows of the view
+	 * @param dimCols the number of columns of the view
+	 * @return the sub-matrix of this matrix starting at (i,j), sharing its storage:
+	 * modifying the view modifies this matrix
+	 */
+	public Matrix<K> subMatrix(int i, int j, int dimRows, int dimCols) {
+		if(i < 0 || j < 0 || dimRows < 0 || dimCols < 0 || i+dimRows > n || j+dimCols > m) {
+			throw new NotMatchingDimensionsException("the sub-matrix ("+i+","+j+")+("+dimRows+","+dimCols+") "
+												   + "is not inside a ("+n+","+m+") matrix");
+		}
+		return new Matrix<K>(values, index(i, j), rowStride, colStride, dimRows, dimCols);
+	}
+	
+	/**
+	 * @return the row i as a 1 x dimCols view on this matrix
+	 */
+	public Matrix<K> row(int i) {
+		return subMatrix(i, 0, 1, m);
+	}
+	
+	/**
+	 * @return the column j as a dimRows x 1 view on this matrix
+	 */
+	public Matrix<K> col(int j) {
+		return subMatrix(0, j, n, 1);
+	}
+	
+	/**
+	 * Sees this matrix as a grid of blocks of dimensions (blockRows,blockCols).
+	 * The blocks on the last rows and columns may be smaller
+	 * @return the view on the block (bi,bj) of this grid
+	 */
+	public Matrix<K> block(int bi, int bj, int blockRows, int blockCols) {
+		int i = bi*blockRows;
+		int j = bj*blockCols;
+		return subMatrix(i, j, Math.min(blockRows, n-i), Math.min(blockCols, m-j));
+	}
+	
+	/**
+	 * @return the transpose of this matrix as a view sharing its storage
+	 */
+	public Matrix<K> transposedView() {
+		return new Matrix<K>(values, offset, colStride, rowStride, m, n);
+	}
+	
+	/**
+	 * @return true if the two matrices have their elements in the same array
+	 * (one may be a view on the other)
+	 */
+	public boolean sharesStorage(Matrix<K> matrix) {
+		return values == matrix.values;
+	}
+	
+	/**
+	 * @return the layout in which the elements of this matrix are stored,
+	 * null if it is a view which is not contiguous in any order
+	 */
+	public Layout layout() {
+		if(colStride == 1 && (rowStride == m || n == 1)) {
+			return Layout.ROW_MAJOR;
+		}
+		if(rowStride == 1 && (colStride == n || m == 1)) {
+			return Layout.COL_MAJOR;
+		}
+		return null;
+	}
+	
+	/**
+	 * Copies all the elements of the matrix src into this matrix, by blocks when their layouts
+	 * differ (like a transposition, see Transpose)
+	 */
+	public void assign(Matrix<K> src) {
+		if(!hasDim(src.dims())) {
+			throw new NotSameDimensionsException(dims(), src.dims());
+		}
+		if(sharesStorage(src)) {
+			//the elements are copied in the order of the rows, which the views may rely on
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < m; j++) {
+					values[index(i, j)] = src.values[src.index(i, j)];
+				}
+			}
+			return;
+		}
+		Transpose.copy(src.values, src.offset, src.rowStride, src.colStride, values, offset, rowStride, colStride, n, m);
+	}
+	
 
 	/**
 	 * 
 	 * @return the number of rows
 	 */
 	public int dimRows() {
-		return values.length;
+		return n;
 	}
 
 	/**
@@ -116,7 +294,7 @@ public class Matrix<K> {
 	 * @return the number of columns
 	 */
 	public int dimCols() {
-		return values[0].length;
+		return m;
 	}
 	
 	/**
@@ -144,12 +322,7 @@ public class Matrix<K> {
 	 */
 	public Matrix<K> times(K k, Ring<K> r) {
 		Matrix<K> matrix = new Matrix<K>(dims());
-		
-		for (int i = 0; i < matrix.dimRows(); i++) {
-			for (int j = 0; j < matrix.dimCols(); j++) {
-				matrix.set(i, j, r.prod(k, get(i,j)));
-			}
-		}
+		timesInto(k, matrix, r);
 		return matrix;
 		
 	}
@@ -159,84 +332,320 @@ public class Matrix<K> {
 	 * The usual sum in the vector space of matrices for a ring r
 	 */
 	public Matrix<K> plus(Matrix<K> m,Ring<K> r){
-		
-		if(hasDim(m.dims())) {
-			Matrix<K> sumMatrix = new Matrix<K>(dims());
-			
-			for (int i = 0; i < sumMatrix.dimRows(); i++) {
-				for (int j = 0; j < sumMatrix.dimCols(); j++) {
-					sumMatrix.set(i, j, r.sum(get(i, j), m.get(i, j)));
-				}
-			}
-			return sumMatrix;
-			
+		if(!hasDim(m.dims())) {
+			throw new NotSameDimensionsException(dims(), m.dims());
 		}
-		throw new NotSameDimensionsException(dims(), m.dims());
-		
+		Matrix<K> sumMatrix = new Matrix<K>(dims());
+		plusInto(m, sumMatrix, r);
+		return sumMatrix;
 	}
 	
 	public Matrix<K> minus(Matrix<K> m,Ring<K> r){
 		if(!hasDim(m.dims())) {
 			throw new NotSameDimensionsException(dims(), m.dims());
 		}
-		return plus(m.times(r.sumInv(r.one()), r), r);
+		Matrix<K> diff = new Matrix<K>(dims());
+		minusInto(m, diff, r);
+		return diff;
+	}
+	
+	
+	//######################### below: in-place operations and operations into a given matrix ###########################
+	
+	/**
+	 * @return true if one element of this matrix may be stored at the same place as one element
+	 * of the given matrix (they share their storage and the ranges of their views intersect)
+	 */
+	public boolean overlaps(Matrix<K> matrix) {
+		if(!sharesStorage(matrix) || n*m == 0 || matrix.n*matrix.m == 0) {
+			return false;
+		}
+		return index(0, 0) <= matrix.index(matrix.n-1, matrix.m-1) 
+			&& matrix.index(0, 0) <= index(n-1, m-1);
+	}
+	
+	/**
+	 * @return true if the two matrices are the same view on the same storage
+	 */
+	private boolean isSameView(Matrix<K> matrix) {
+		return values == matrix.values && offset == matrix.offset 
+			&& rowStride == matrix.rowStride && colStride == matrix.colStride;
+	}
+	
+	/**
+	 * An element-wise operation can write into one of its operands (each element is read before
+	 * being written at the same place), but not into a different view which overlaps it
+	 */
+	private static<K> void checkElementWise(Matrix<K> dest, Matrix<K> src) {
+		if(dest.overlaps(src) && !dest.isSameView(src)) {
+			throw new AliasedMatricesException("The destination overlaps an operand with another layout");
+		}
+	}
+	
+	/**
+	 * dest = this + m, dest may be this or m
+	 */
+	public void plusInto(Matrix<K> m, Matrix<K> dest, Ring<K> r) {
+		if(!hasDim(m.dims())) {
+			throw new NotSameDimensionsException(dims(), m.dims());
+		}
+		if(!hasDim(dest.dims())) {
+			throw new NotSameDimensionsException(dims(), dest.dims());
+		}
+		checkElementWise(dest, this);
+		checkElementWise(dest, m);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < this.m; j++) {
+				dest.set(i, j, r.sum(get(i, j), m.get(i, j)));
+			}
+		}
+	}
+	
+	/**
+	 * dest = this - m, dest may be this or m
+	 */
+	public void minusInto(Matrix<K> m, Matrix<K> dest, Ring<K> r) {
+		if(!hasDim(m.dims())) {
+			throw new NotSameDimensionsException(dims(), m.dims());
+		}
+		if(!hasDim(dest.dims())) {
+			throw new NotSameDimensionsException(dims(), dest.dims());
+		}
+		checkElementWise(dest, this);
+		checkElementWise(dest, m);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < this.m; j++) {
+				dest.set(i, j, r.minus(get(i, j), m.get(i, j)));
+			}
+		}
+	}
+	
+	/**
+	 * dest = k.this, dest may be this
+	 */
+	public void timesInto(K k, Matrix<K> dest, Ring<K> r) {
+		if(!hasDim(dest.dims())) {
+			throw new NotSameDimensionsException(dims(), dest.dims());
+		}
+		checkElementWise(dest, this);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				dest.set(i, j, r.prod(k, get(i, j)));
+			}
+		}
+	}
+	
+	/**
+	 * dest = this .* matrix (the hadamard product), dest may be this or matrix
+	 */
+	public void hadamardProdInto(Matrix<K> matrix, Matrix<K> dest, Ring<K> r) {
+		if(!hasDim(matrix.dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		if(!hasDim(dest.dims())) {
+			throw new NotSameDimensionsException(dims(), dest.dims());
+		}
+		checkElementWise(dest, this);
+		checkElementWise(dest, matrix);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				dest.set(i, j, r.prod(get(i, j), matrix.get(i, j)));
+			}
+		}
+	}
+	
+	/**
+	 * dest = this x m, computed by the kernel of Gemm. dest can't overlap this or m
+	 */
+	public void prodInto(Matrix<K> m, Matrix<K> dest, Ring<K> r) {
+		if(!canBeProdTo(m)) {
+			throw new NotMultipliableMatricesException(dims(), m.dims());
+		}
+		if(!dest.hasDim(new int[] {n, m.m})) {
+			throw new NotSameDimensionsException(new int[] {n, m.m}, dest.dims());
+		}
+		if(dest.overlaps(this) || dest.overlaps(m)) {
+			throw new AliasedMatricesException("The destination of a product can't overlap its operands");
+		}
+		Gemm.prodInto(this, m, dest, r);
 	}
 	
+	public void plusInPlace(Matrix<K> m, Ring<K> r) {
+		plusInto(m, this, r);
+	}
+	
+	public void minusInPlace(Matrix<K> m, Ring<K> r) {
+		minusInto(m, this, r);
+	}
+	
+	public void scaleInPlace(K k, Ring<K> r) {
+		timesInto(k, this, r);
+	}
 	
 	/**
-	 * The usual product on matrices for the ring r
+	 * this = this + alpha.x, without any intermediate matrix
 	 */
+	public void axpy(K alpha, Matrix<K> x, Ring<K> r) {
+		if(!hasDim(x.dims())) {
+			throw new NotSameDimensionsException(dims(), x.dims());
+		}
+		checkElementWise(this, x);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				set(i, j, r.sum(get(i, j), r.prod(alpha, x.get(i, j))));
+			}
+		}
+	}
+	
+	
+	/**
+	 * The usual product on matrices for the ring r <br>
+	 * It is computed by the cache-blocked kernel of Gemm, in parallel if it is big enough
+	 * (by the kernels of MinPlus or MaxPlus on primitive doubles if r is Ring.realsDioideMin()
+	 * or Ring.realsDioideMax(), on the bitsets of BoolMatrix if r is the ring of the booleans)
+	 */
+	@SuppressWarnings("unchecked")
 	public Matrix<K> prod(Matrix<K> m,Ring<K> r){
 		
-		if(canBeProdTo(m)) {	
-			Matrix<K> prod = new Matrix<K>(dimRows(),m.dimCols());
-	
-			for (int i = 0; i < dimRows(); i++) {
-				for (int j = 0; j < m.dimCols(); j++) {
+		if(canBeProdTo(m)) {
+			if(MinPlus.isMinPlus(r)) {
+				return (Matrix<K>) MinPlus.prod((Matrix<Double>) this, (Matrix<Double>) m);
+			}
+			if(MaxPlus.isMaxPlus(r)) {
+				return (Matrix<K>) MaxPlus.prod((Matrix<Double>) this, (Matrix<Double>) m);
+			}
+			if(BoolMatrix.isBoolean(r)) {
+				return (Matrix<K>) BoolMatrix.of((Matrix<Boolean>) this).prod(BoolMatrix.of((Matrix<Boolean>) m)).toMatrix();
+			}
+			return Gemm.prod(this, m, r);
+		}
+		throw new NotMultipliableMatricesException(dims(), m.dims());
+	}
 	
-					K sum = r.zero();
+	/**
+	 * The usual product on matrices for the ring r, split in panels of rows or columns
+	 * which are computed in parallel on the given pool
+	 */
+	public Matrix<K> prod(Matrix<K> m, Ring<K> r, ForkJoinPool pool){
+		return Gemm.parallelProd(this, m, r, pool);
+	}
 	
-					for (int k = 0; k < dimCols(); k++) {
-						sum = r.sum(sum, r.prod(get(i, k), m.get(k, j)));
-					}
-					prod.set(i, j, sum);
+	/**
+	 * The closure (Kleene star) I + A + A^2 + ... computed by the Floyd-Warshall algorithm, O(n^3).
+	 * <br>
+	 * r has to be a dioid whose sum is idempotent and where the closure of each element of the
+	 * diagonal is one (no cycle which improves a path): shortest paths on Ring.realsDioideMin()
+	 * (computed on primitive doubles by MinPlus), longest paths on Ring.realsDioideMax() without
+	 * positive cycle, reachability on booleans (computed on bitsets by BoolMatrix), ...
+	 */
+	@SuppressWarnings("unchecked")
+	public Matrix<K> closure(Ring<K> r){
+		if(!isSquare()) {
+			throw new NotSquareMatrixException("closure");
+		}
+		if(MinPlus.isMinPlus(r)) {
+			return (Matrix<K>) MinPlus.closure((Matrix<Double>) this);
+		}
+		if(BoolMatrix.isBoolean(r)) {
+			return (Matrix<K>) BoolMatrix.of((Matrix<Boolean>) this).closure().toMatrix();
+		}
+		int n = dimRows();
+		Matrix<K> closure = clone();
+		for (int i = 0; i < n; i++) {
+			closure.set(i, i, r.sum(r.one(), closure.get(i, i)));
+		}
+		for (int k = 0; k < n; k++) {
+			for (int i = 0; i < n; i++) {
+				K cik = closure.get(i, k);
+				if(cik.equals(r.zero())) {
+					continue;
+				}
+				for (int j = 0; j < n; j++) {
+					closure.set(i, j, r.sum(closure.get(i, j), r.prod(cik, closure.get(k, j))));
 				}
 			}
-			return prod;
 		}
-		throw new NotMultipliableMatricesException(dims(), m.dims());
+		return closure;
+	}
+	
+	/**
+	 * The product by a sparse matrix, which goes through its stored elements only
+	 */
+	public Matrix<K> prod(SparseMatrix<K> m, Ring<K> r){
+		return m.leftProd(this, r);
+	}
+	
+	/**
+	 * The usual product on square matrices, computed with the Strassen-Winograd algorithm
+	 * (see Strassen). The ring has to have an inverse for the sum
+	 */
+	public Matrix<K> strassenProd(Matrix<K> m, Ring<K> r){
+		return Strassen.prod(this, m, r);
 	}
 	
 	
 	public Matrix<K> pow(int k, Ring<K> r){
+		return pow((long) k, r);
+	}
+	
+	/**
+	 * Computes this^k by square-and-multiply: O(log k) products. <br>
+	 * Only three matrices are allocated (the current square, the result and a workspace
+	 * for the products), whatever k. It works on dioids too (like Ring.realsDioideMax).
+	 * On the ring of the booleans, it is computed on the bitsets of BoolMatrix
+	 * @param k has to be positive
+	 */
+	@SuppressWarnings("unchecked")
+	public Matrix<K> pow(long k, Ring<K> r){
 		if(!isSquare()) {
 			throw new NotSquareMatrixException("power");
 		}
+		if(k < 0) {
+			throw new IllegalArgumentException("The exponent has to be positive");
+		}
 		if(k==0) {
 			return id(r, dimRows());
 		}
-		if(k==1) {
-			return this;
-		}
-		if(k%2==0) {
-			return pow(k/2, r).prod(pow(k/2, r), r);
+		if(BoolMatrix.isBoolean(r)) {
+			return (Matrix<K>) BoolMatrix.of((Matrix<Boolean>) this).pow(k).toMatrix();
 		}
 		
-		return prod(pow((k-1)/2, r).prod(pow((k-1)/2, r), r),r);	
+		Matrix<K> square = clone();
+		Matrix<K> pow = null;
+		Matrix<K> workspace = new Matrix<K>(dims());
+		
+		while (true) {
+			if((k & 1) == 1) {
+				if(pow == null) {
+					pow = square.clone();
+				}
+				else {
+					Gemm.prodInto(pow, square, workspace, r);
+					Matrix<K> tmp = pow;
+					pow = workspace;
+					workspace = tmp;
+				}
+			}
+			k >>= 1;
+			if(k == 0) {
+				return pow;
+			}
+			Gemm.prodInto(square, square, workspace, r);
+			Matrix<K> tmp = square;
+			square = workspace;
+			workspace = tmp;
+		}
 	}
 	
 	
 	
 	
+	/**
+	 * @return a copy of the transpose of this matrix, copied by blocks (see Transpose),
+	 * see transposedView to avoid the copy
+	 */
 	public Matrix<K> transpose() {
-		Matrix<K> transpose = new Matrix<K>(dimCols(),dimRows());
-		
-		for (int i = 0; i < dimRows(); i++) {
-			for (int j = 0; j < dimCols(); j++) {
-				transpose.set(j, i, get(i, j));
-			}
-		}
-		return transpose;
+		return transposedView().clone();
 	}
 	
 	public K asScalar() {
@@ -250,25 +659,75 @@ public class Matrix<K> {
 		if (!isSquare()) {
 			throw new NotSquareMatrixException("Trace");
 		}
-		K trace = r.zero();
+		Accumulator<K> trace = r.accumulator();
 		for (int i = 0; i < dimRows(); i++) {
-			trace = r.sum(trace, get(i, i));
+			trace.add(get(i, i));
 		}
-		return trace;
+		return trace.get();
 	}
       
 	
 	/**
-	 * The usual scalar prod : Tr(tAxB)
+	 * The usual scalar prod : Tr(tAxB), which is the sum of the element-wise products: it is
+	 * computed in one pass on the two storages, in O(n*m) and without any intermediate matrix
 	 */
+	@SuppressWarnings("unchecked")
 	public K scalarProd(Matrix<K> m, Ring<K> r){
 		if(!hasDim(m.dims())) {
 			throw new NotSameDimensionsException(dims(), m.dims());
 		}
-		return transpose().prod(m, r).trace(r);
-		
+		Accumulator<K> scalarProd = r.accumulator();
+		for (int i = 0; i < n; i++) {
+			int a = offset+i*rowStride;
+			int b = m.offset+i*m.rowStride;
+			for (int j = 0; j < this.m; j++) {
+				scalarProd.addProd((K) values[a+j*colStride], (K) m.values[b+j*m.colStride]);
+			}
+		}
+		return scalarProd.get();
 	}	
 	
+	/**
+	 * @return Tr(this x m), the sum of the products this(i,k)*m(k,i), without computing the product
+	 * (in O(n*p) instead of O(n^2*p))
+	 */
+	@SuppressWarnings("unchecked")
+	public K traceProd(Matrix<K> m, Ring<K> r) {
+		if(n != m.m || this.m != m.n) {
+			throw new NotMultipliableMatricesException(dims(), m.dims());
+		}
+		Accumulator<K> trace = r.accumulator();
+		for (int i = 0; i < n; i++) {
+			int a = offset+i*rowStride;
+			int b = m.offset+i*m.colStride;
+			for (int k = 0; k < this.m; k++) {
+				trace.addProd((K) values[a+k*colStride], (K) m.values[b+k*m.rowStride]);
+			}
+		}
+		return trace.get();
+	}
+	
+	/**
+	 * @return the scalar prod of this - m by itself (the squared distance for the scalar prod
+	 * Tr(tAxB)), without creating the difference
+	 */
+	@SuppressWarnings("unchecked")
+	public K squaredDistance(Matrix<K> m, Ring<K> r) {
+		if(!hasDim(m.dims())) {
+			throw new NotSameDimensionsException(dims(), m.dims());
+		}
+		Accumulator<K> dist = r.accumulator();
+		for (int i = 0; i < n; i++) {
+			int a = offset+i*rowStride;
+			int b = m.offset+i*m.rowStride;
+			for (int j = 0; j < this.m; j++) {
+				K d = r.minus((K) values[a+j*colStride], (K) m.values[b+j*m.colStride]);
+				dist.addProd(d, d);
+			}
+		}
+		return dist.get();
+	}
+	
 	
 	/**
 	 * If the matrix has dimensions like 1xn or nx1,
@@ -278,7 +737,7 @@ public class Matrix<K> {
 	 */
 	public Vector<K> toVec(){
 		if (dimRows()==1){
-			return new Vector<>(getValues()[0]);
+			return getRow(0);
 		}
 		else if (dimCols()==1) {
 			Vector<K> vec = new Vector<>(dimRows());
@@ -327,8 +786,74 @@ public class Matrix<K> {
 	
 	
 	/**
-	 * The determinant is calculated recursively
-	 * TODO: Bareiss Algorithm
+	 * The determinant with the best algorithm available for r: the LU decomposition with partial
+	 * pivoting if r is a field (see Field.abs), the Bareiss algorithm if it is only an integral
+	 * domain, the cofactor expansion (recDet) otherwise
+	 * @param equals used to test if an element is null
+	 */
+	public K det(Ring<K> r, BiPredicate<K, K> equals) {
+		if(r instanceof Field) {
+			Field<K> f = (Field<K>) r;
+			return lu(f, f.abs(), equals).det();
+		}
+		if(r instanceof IntegralDomain) {
+			return bareissDet((IntegralDomain<K>) r, equals);
+		}
+		return recDet(r);
+	}
+	
+	/**
+	 * Same as det(r, equals) where an element is null if it equals r.zero()
+	 */
+	public K det(Ring<K> r) {
+		return det(r, Object::equals);
+	}
+	
+	/**
+	 * The determinant by the fraction-free elimination of Bareiss: O(n^3) operations,
+	 * all of them in K because each division by the previous pivot is exact. <br>
+	 * The rows are swapped when a pivot is null.
+	 * @param d an integral domain (with an exact division)
+	 * @param equals used to test if an element is null
+	 */
+	public K bareissDet(IntegralDomain<K> d, BiPredicate<K, K> equals) {
+		if(!isSquare())
+			throw new NotSquareMatrixException("Determinant");
+		
+		int n = dimRows();
+		Matrix<K> m = clone();
+		boolean even = true;
+		K previous = d.one();
+		
+		for (int k = 0; k < n-1; k++) {
+			if(equals.test(m.get(k, k), d.zero())) {
+				int swap = k+1;
+				while (swap < n && equals.test(m.get(swap, k), d.zero())) {
+					swap++;
+				}
+				if(swap == n) {
+					return d.zero();
+				}
+				m.swapRows(k, swap);
+				even = !even;
+			}
+			K pivot = m.get(k, k);
+			for (int i = k+1; i < n; i++) {
+				K mik = m.get(i, k);
+				for (int j = k+1; j < n; j++) {
+					K num = d.minus(d.prod(pivot, m.get(i, j)), d.prod(mik, m.get(k, j)));
+					m.set(i, j, d.exactDiv(num, previous));
+				}
+			}
+			previous = pivot;
+		}
+		K det = m.get(n-1, n-1);
+		return even ? det : d.sumInv(det);
+	}
+	
+	/**
+	 * The determinant is calculated recursively (cofactor expansion along the first row):
+	 * O(n!). Prefer det, which uses the Bareiss algorithm when it is possible
 	 * @param <K>
 	 * @param matrix
 	 * @param r
@@ -342,13 +867,13 @@ public class Matrix<K> {
 		if(dimRows()==1) {
 			return get(0, 0);
 		}
-		K sign = r.sumInv(r.one());;
+		K sign = r.sumInv(r.one());
 		K det = r.zero();
 		
 		for (int j = 0; j < dimCols(); j++) {
+			sign = r.sumInv(sign);
 			if(get(0, j).equals(r.zero()))
 				continue;
-			sign = r.sumInv(sign);
 			K detRec = getMat(0, j).recDet(r);
 			det = r.sum(det, r.prod(sign,get(0, j),detRec));
 			 
@@ -368,7 +893,7 @@ public class Matrix<K> {
 	public K cofactor(Ring<K> r,int i,int j) {
 		
 		K sign = r.pow(r.sumInv(r.one()), i+j);	
-		return r.prod(sign, getMat(i, j).recDet(r));
+		return r.prod(sign, getMat(i, j).det(r));
 	}
 	
 	
@@ -390,7 +915,7 @@ public class Matrix<K> {
 	
 	
 	public boolean isInversible(Ring<K> r,BiPredicate<K, K> equals) {
-		return !equals.test(recDet(r),r.zero());
+		return !equals.test(det(r, equals),r.zero());
 	}
 	
 	
@@ -405,7 +930,7 @@ public class Matrix<K> {
 	 * @return the inverse of this matrix
 	 */
 	public Matrix<K> comInv(Field<K> f,BiPredicate<K, K> equals){
-		K det = recDet(f);
+		K det = det(f, equals);
 		if(equals.test(det, f.zero())) {
 			throw new NotInversibleMatrixException();
 		}
@@ -425,9 +950,11 @@ public class Matrix<K> {
 	 * @param j
 	 */
 	public void swapRows(int l1, int l2) {
-		Vector<K> row1 = getRow(l1);
-		setRow(l1, getRow(l2));
-		setRow(l2, row1);
+		for (int j = 0; j < dimCols(); j++) {
+			Object tmp = values[index(l1, j)];
+			values[index(l1, j)] = values[index(l2, j)];
+			values[index(l2, j)] = tmp;
+		}
 	}
 	
 	/**
@@ -440,7 +967,9 @@ public class Matrix<K> {
 	 * @param r
 	 */
 	public void addRows(int l1,int l2,K k, Ring<K> r) {
-		setRow(l1, getRow(l1).plus(getRow(l2).times(k, r),r));
+		for (int j = 0; j < dimCols(); j++) {
+			values[index(l1, j)] = r.sum(get(l1, j), r.prod(k, get(l2, j)));
+		}
 	}
 	
 	/**
@@ -452,7 +981,9 @@ public class Matrix<K> {
 	 * @param r
 	 */
 	public void scalingRow(int l, K k, Ring<K> r) {
-		setRow(l, getRow(l).times(k, r));
+		for (int j = 0; j < dimCols(); j++) {
+			values[index(l, j)] = r.prod(k, get(l, j));
+		}
 	}
 	
 	
@@ -464,9 +995,7 @@ public class Matrix<K> {
 	 * @param j
 	 */
 	public void swapCols(int c1, int c2) {
-		Vector<K> row1 = getRow(c1);
-		setRow(c1, getRow(c2));
-		setRow(c2, row1);
+		transposedView().swapRows(c1, c2);
 	}
 	
 	/**
@@ -479,7 +1008,7 @@ public class Matrix<K> {
 	 * @param r
 	 */
 	public void addCols(int c1,int c2,K k, Ring<K> r) {
-		setRow(c1, getRow(c2).times(k, r));
+		transposedView().addRows(c1, c2, k, r);
 	}
 	
 	
@@ -492,7 +1021,7 @@ public class Matrix<K> {
 	 * @param r
 	 */
 	public void scalingCols(int c, K k, Ring<K> r) {
-		setRow(c, getRow(c).times(k, r));
+		transposedView().scalingRow(c, k, r);
 	}
 	
 	
@@ -508,16 +1037,8 @@ public class Matrix<K> {
 			throw new NotMatchingDimensionsException("there is not the same number of rows in the two matrices");
 		}
 		Matrix<K> m = new Matrix<>(dimRows(),dimCols()+x.dimCols());
-		for (int i = 0; i < dimRows(); i++) {
-			
-			for (int j = 0; j < dimCols(); j++) {
-				m.set(i, j, get(i, j));
-			}
-	
-			for (int j = 0; j < x.dimCols(); j++) {
-				m.set(i,dimCols()+j, x.get(i, j));
-			}
-		}
+		m.subMatrix(0, 0, dimRows(), dimCols()).assign(this);
+		m.subMatrix(0, dimCols(), dimRows(), x.dimCols()).assign(x);
 		return m;
 	}
 	
@@ -530,39 +1051,36 @@ public class Matrix<K> {
 	 * @return
 	 */
 	public Matrix<K> augmCol(Matrix<K> x){
-		
-		return transpose().augmRow(x.transpose()).transpose();
+		if(dimCols() != x.dimCols()) {
+			throw new NotMatchingDimensionsException("there is not the same number of columns in the two matrices");
+		}
+		Matrix<K> m = new Matrix<>(dimRows()+x.dimRows(),dimCols());
+		m.subMatrix(0, 0, dimRows(), dimCols()).assign(this);
+		m.subMatrix(dimRows(), 0, x.dimRows(), dimCols()).assign(x);
+		return m;
 	}
 	
 	
 	/**
 	 * Returns the two matrices of dim (dimRows,i) and (dimRows,dimCols-i)
 	 * Usually for the purpose of extracting the matrices from an augmented matrix after
-	 * having performing elementary rows operations on the augmented matrix
+	 * having performing elementary rows operations on the augmented matrix <br>
+	 * The two matrices are views on this matrix (no copy)
 	 * @param split : the last row of the first matrix
 	 * @return
 	 */
 
 	public List<Matrix<K>> splitRows(int split){
-		Matrix<K> m1 = new Matrix<>(dimRows(), split);
-		Matrix<K> m2 = new Matrix<>(dimRows(),dimCols()-split);
-		
-		for (int i = 0; i < m1.dimRows(); i++) {
-			for (int j = 0; j < m1.dimCols(); j++) {
-				m1.set(i, j, get(i, j));
-			}
-		}
-		for (int i = 0; i < m2.dimRows(); i++) {
-			for (int j = 0; j < m2.dimCols(); j++) {
-				m2.set(i, j, get(i,split+j));
-			}
-		}
-		return List.of(m1,m2);
+		return List.of(subMatrix(0, 0, dimRows(), split),
+					   subMatrix(0, split, dimRows(), dimCols()-split));
 	}
 	
+	/**
+	 * Returns the two views of dim (i,dimCols) and (dimRows-i,dimCols)
+	 */
 	public List<Matrix<K>> splitCols(int split){
-		List<Matrix<K>> splitted = transpose().splitRows(split);
-		return List.of(splitted.get(0).transpose(), splitted.get(1).transpose());
+		return List.of(subMatrix(0, 0, split, dimCols()),
+					   subMatrix(split, 0, dimRows()-split, dimCols()));
 	}
 
 	
@@ -570,106 +1088,40 @@ public class Matrix<K> {
 	 * A row echelon form of a matrix is the matrix got only by elementary operations
 	 * which, at each rows, the first not null element from the left of the row is after
 	 * the first not null element of the row above <br>
-	 * Complexity : O(n²) (= n+2n²)
+	 * Complexity : O(n^3), on one copy of this matrix (see rowEchelonFormInPlace)
 	 * @return the matrix in one of its row echelon form
 	 */
  	public Matrix<K> toRowEchelonForm(Field<K> f, BiPredicate<K, K> equals){
-
 		Matrix<K> echelon = clone();
-		
-		int lastRow = dimRows()-1;
-		
-		//first, we put all null rows (full of zero) at the end of the matrix
-		for (int i = 0; i <= lastRow; i++) {
-			if(getRow(i).isNull(f, equals)) {
-				echelon.swapRows(i, lastRow);
-				lastRow--; // we will no longer change  the rows after this one because they are all full of zero by construction
-			}
-		}
-		
-		int numPivot = 0;
-		
-		for (int numCol = 0; numCol < dimCols(); numCol++) {
-			
-			if (equals.test(echelon.get(numPivot, numCol), f.zero())) {
-				int rowSwap = numPivot+1;
-				
-				if(rowSwap>lastRow)
-					continue;
-				
-				boolean isEchelonned = false;
-				
-				while (equals.test(echelon.get(rowSwap, numCol), f.zero())) {
-					rowSwap++;
-					if(rowSwap>lastRow) {
-						isEchelonned = true;
-						break;
-					}
-				}
-				if(isEchelonned)
-					continue;
-				
-				echelon.swapRows(numPivot, rowSwap);				
-			}
-			K pivot = echelon.get(numPivot, numCol);
-			
-			for (int i = numPivot+1; i <= lastRow; i++) {
-				
-				if(!equals.test(echelon.get(i, numCol), f.zero())) {					
-					echelon.addRows(i, numPivot, f.sumInv(f.div(echelon.get(i, numCol), pivot)), f);		
-				}
-			}
-			numPivot++;
-			if(numPivot>lastRow) {
-				return echelon;
-			}		
-		}
-		
+		echelon.rowEchelonFormInPlace(f, equals);
 		return echelon;
 	}
-	
+ 	
+ 	/**
+ 	 * Puts this matrix in one of its row echelon form, in place (see GaussElimination):
+ 	 * the pivot of each column is its first non null element
+ 	 * @return the number of pivots, which is the rank
+ 	 */
+ 	public int rowEchelonFormInPlace(Field<K> f, BiPredicate<K, K> equals) {
+ 		return GaussElimination.reduce(this, dimCols(), f, null, equals, false, new int[dimRows()]);
+ 	}
 	
 	
 	public Matrix<K> toReducedRowEchelonForm(Field<K> f,Function<K, Double> abs, BiPredicate<K, K> equals){
 		Matrix<K> reduced = clone();
-		
-		int numPivot = -1;
-		for (int j = 0; j < dimCols() && numPivot<dimRows()-1; j++) {
-			
-			//searching of the maximum in this column : 
-			int rowMax = numPivot+1;
-			double max = abs.apply(reduced.get(rowMax, j));
-			for (int i = numPivot+1; i < dimRows(); i++) {
-				double absij = abs.apply(reduced.get(i, j));
-				if(absij>max){
-					rowMax = i;
-					max = absij;
-				}
-			}
-
-			K pivot = reduced.get(rowMax, j);
-			
-			if(!equals.test(pivot, f.zero())) {
-				numPivot++;
-				
-				reduced.scalingRow(rowMax,f.prodInv(pivot), f);
-				
-				if(rowMax != numPivot) {
-					reduced.swapRows(rowMax, numPivot);
-				}
-				for (int i = 0; i < dimRows(); i++) {
-					if(i != numPivot) {
-						reduced.addRows(i, numPivot, f.sumInv(reduced.get(i, j)), f);
-					}
-				}
-				
-			}
-			
-		}
-		
+		reduced.reducedRowEchelonFormInPlace(f, abs, equals);
 		return reduced;
 	}
 	
+	/**
+	 * Puts this matrix in its reduced row echelon form, in place (see GaussElimination):
+	 * the pivot of each column is its element of biggest absolute value
+	 * @return the number of pivots, which is the rank
+	 */
+	public int reducedRowEchelonFormInPlace(Field<K> f,Function<K, Double> abs, BiPredicate<K, K> equals) {
+		return GaussElimination.reduce(this, dimCols(), f, abs, equals, true, new int[dimRows()]);
+	}
+	
 	
 
 	
@@ -688,72 +1140,53 @@ public class Matrix<K> {
 		if(!isSquare()) {
 			throw new NotSquareMatrixException("inversion of a matrix");
 		}
+		int n = dimRows();
 		
-		Matrix<K> augmMatrix = augmRow(id(f, dimRows()));
-		
-		Matrix<K> reduced = augmMatrix.toReducedRowEchelonForm(f, abs, equals);
-
-		List<Matrix<K>> results = reduced.splitRows(dimRows());
+		//the only working buffer: (this|I), reduced in place
+		Matrix<K> augmMatrix = augmRow(id(f, n));
 		
-		if(!results.get(0).equals(id(f, dimRows()), equals)) {
+		if(GaussElimination.reduce(augmMatrix, n, f, abs, equals, true, new int[n]) != n) {
 			throw new NotInversibleMatrixException();
 		}
-		return results.get(1);
+		//a compact copy of the right part, so that the buffer isn't kept alive by a view
+		return augmMatrix.subMatrix(0, n, n, n).clone();
 		
 	}
 	
 	
 	
+	/**
+	 * @return the LU decomposition with partial pivoting of this matrix, which can be reused
+	 * to get its determinant, its rank, its inverse or to solve linear systems
+	 */
+	public LUDecomposition<K> lu(Field<K> f, Function<K, Double> abs, BiPredicate<K, K> equals){
+		return new LUDecomposition<K>(this, f, abs, equals);
+	}
+	
 	public int rank(Field<K> f,BiPredicate<K, K> equals) {
-		Matrix<K> echelon = toRowEchelonForm(f, equals);
-		
-		int rank = dimRows();
-		
-		for (int i = dimRows()-1; i >= 0; i--) {
-			if(echelon.getRow(i).isNull(f, equals)) {
-				rank--;
-			}
-			else {
-				return rank;
-			}
-		}
-		
-		return rank;
+		return clone().rowEchelonFormInPlace(f, equals);
 	}
 	
+	/**
+	 * @return the rank factorization of this matrix, from which the rank, the kernel and the
+	 * image are all read after a single elimination
+	 */
+	public RankDecomposition<K> rankDecomposition(Field<K> f, Function<K, Double> abs, BiPredicate<K, K> equals){
+		return new RankDecomposition<K>(this, f, abs, equals);
+	}
+	
+	/**
+	 * A basis of the kernel (see RankDecomposition)
+	 */
 	public List<Vector<K>> ker(Field<K> f,Function<K, Double> abs,BiPredicate<K, K> equals){
-		
-		List<Vector<K>> kerBasis = new ArrayList<Vector<K>>();
-		
-		Matrix<K> augmented = augmCol(id(f, dimCols()));
-		
-		Matrix<K> augmReduced = augmented.transpose()
-										 .toReducedRowEchelonForm(f, abs, equals)
-										 .transpose();
-		
-		List<Matrix<K>> results = augmReduced.splitCols(dimRows());
-		
-		for (int j = 0; j < dimCols(); j++) {
-			if(results.get(0).getCol(j).isNull(f, equals)) {
-				kerBasis.add(results.get(1).getCol(j));
-			}
-		}
-		
-		return kerBasis;
+		return rankDecomposition(f, abs, equals).ker();
 	}
 	
 	/**
-	 * TODO
-	 * @param f
-	 * @param abs
-	 * @param equals
-	 * @return
+	 * A basis of the image: the pivot columns of this matrix (see RankDecomposition)
 	 */
 	public List<Vector<K>> im(Field<K> f, Function<K, Double> abs, BiPredicate<K, K> equals){
-		
-		List<Vector<K>> imBasis = new ArrayList<Vector<K>>();
-		
-		return imBasis;
+		return rankDecomposition(f, abs, equals).im();
 	}
 	
 	
@@ -825,13 +1258,16 @@ public class Matrix<K> {
 	}
 	
 	
+	/**
+	 * @return a copy of this matrix, stored in row-major order
+	 */
 	public Matrix<K> clone(){
-		Matrix<K> clone = new Matrix<>(dims());
-		for (int i = 0; i < dimRows(); i++) {
-			for (int j = 0; j < dimCols(); j++) {
-				clone.set(i, j, get(i, j));
-			}
-		}
+		return clone(Layout.ROW_MAJOR);
+	}
+	
+	public Matrix<K> clone(Layout layout){
+		Matrix<K> clone = new Matrix<>(dimRows(), dimCols(), layout);
+		clone.assign(this);
 		return clone;
 	}
 	
@@ -922,12 +1358,7 @@ public class Matrix<K> {
 			throw new NotSameDimensionsException(dims(), matrix.dims());
 		}
 		Matrix<K> hadMatrix = new Matrix<>(dims());
-		
-		for (int i = 0; i < dimRows(); i++) {
-			for (int j = 0; j < dimCols(); j++) {
-				hadMatrix.set(i, j, r.prod(get(i, j), matrix.get(i, j)));
-			}
-		}
+		hadamardProdInto(matrix, hadMatrix, r);
 		return hadMatrix;	
 	}
 		
@@ -967,6 +1398,37 @@ public class Matrix<K> {
 		
 	}
 	
+	public static class NotPositiveDefiniteMatrixException extends RuntimeException{
+		private static final long serialVersionUID = 2874163541390147102L;
+		
+		public NotPositiveDefiniteMatrixException() {
+			super("This matrix is not symmetric positive-definite");
+		}
+		
+	}
+	
+	public static class NotSymmetricMatrixException extends RuntimeException{
+		private static final long serialVersionUID = -6083402795472158363L;
+		
+		public NotSymmetricMatrixException() {
+			super("This matrix is not symmetric");
+		}
+		
+	}
+	
+	/**
+	 * Thrown when the destination of an operation overlaps one of its operands in a way
+	 * which would overwrite elements before they are read
+	 */
+	public static class AliasedMatricesException extends RuntimeException{
+		private static final long serialVersionUID = 6310548937213920573L;
+		
+		public AliasedMatricesException(String arg0) {
+			super(arg0);
+		}
+		
+	}
+	
 	public static class NotSquareMatrixException extends RuntimeException{
 		private static final long serialVersionUID = 4194140256598407548L;
 		
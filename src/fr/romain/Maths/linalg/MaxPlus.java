@@ -0,0 +1,40 @@
+package fr.romain.Maths.linalg;
+
+import fr.romain.Maths.linalg.Matrix.NotMultipliableMatricesException;
+import fr.romain.Maths.linalg.algstruct.Ring;
+
+/**
+ * This class gathers the kernels on primitive doubles for the max-plus dioid
+ * (Ring.realsDioideMax): the sum is max, the product is +, zero is -infinity and one is 0. <br>
+ * As max(a+b) = -min((-a)+(-b)), the product goes through the kernel of MinPlus on the opposite
+ * matrices. The dynamics x(k+1) = A x(k) of a timed event graph are in TimedEventGraph.
+ */
+public class MaxPlus {
+
+	/**
+	 * @return true if r is the max-plus dioid on which the kernels of this class apply
+	 */
+	public static boolean isMaxPlus(Ring<?> r) {
+		return r == Ring.realsDioideMax();
+	}
+
+	/**
+	 * @return the product a x b on the max-plus dioid
+	 */
+	public static DenseMatR prod(DenseMatR a, DenseMatR b) {
+		if(a.dimCols() != b.dimRows()) {
+			throw new NotMultipliableMatricesException(a.dims(), b.dims());
+		}
+		DenseMatR c = new DenseMatR(a.dimRows(), b.dimCols());
+		double[] values = c.getValues();
+		MinPlus.prod(a.dot(-1).getValues(), b.dot(-1).getValues(), values, a.dimRows(), a.dimCols(), b.dimCols());
+		for (int k = 0; k < values.length; k++) {
+			values[k] = -values[k];
+		}
+		return c;
+	}
+
+	public static MatR prod(Matrix<Double> a, Matrix<Double> b) {
+		return prod(DenseMatR.of(a), DenseMatR.of(b)).toMatR();
+	}
+}
@@ -0,0 +1,189 @@
+package fr.romain.Maths.linalg;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import fr.romain.Maths.linalg.Matrix.NotMultipliableMatricesException;
+import fr.romain.Maths.linalg.Matrix.NotSquareMatrixException;
+import fr.romain.Maths.linalg.algstruct.Ring;
+
+/**
+ * This class gathers the kernels on primitive doubles for the min-plus dioid
+ * (Ring.realsDioideMin): the sum is min, the product is +, zero is +infinity and one is 0. <br>
+ * The product of two matrices on this dioid is the distance product: (AB)(i,j) is the length
+ * of the shortest path from i to j going through one edge of A then one edge of B.
+ * Its kernel is tiled like the one of Gemm and skips the +infinity elements of A (no edge). <br>
+ * The closure A* = I + A + A^2 + ... gives the lengths of the shortest paths between all the
+ * pairs of nodes. It is computed by a blocked Floyd-Warshall algorithm whose tiles are
+ * updated in parallel.
+ */
+public class MinPlus {
+
+	/**
+	 * The size of the tiles of the Floyd-Warshall algorithm: three tiles of 64x64 doubles stay in L2
+	 */
+	static final int TILE = 64;
+
+	/**
+	 * @return true if r is the min-plus dioid on which the kernels of this class apply
+	 */
+	public static boolean isMinPlus(Ring<?> r) {
+		return r == Ring.realsDioideMin();
+	}
+
+	/**
+	 * @return the distance product a x b on the min-plus dioid
+	 */
+	public static DenseMatR prod(DenseMatR a, DenseMatR b) {
+		if(a.dimCols() != b.dimRows()) {
+			throw new NotMultipliableMatricesException(a.dims(), b.dims());
+		}
+		DenseMatR c = new DenseMatR(a.dimRows(), b.dimCols());
+		prod(a.getValues(), b.getValues(), c.getValues(), a.dimRows(), a.dimCols(), b.dimCols());
+		return c;
+	}
+
+	public static MatR prod(Matrix<Double> a, Matrix<Double> b) {
+		return prod(DenseMatR.of(a), DenseMatR.of(b)).toMatR();
+	}
+
+	/**
+	 * Computes c = a x b on the min-plus dioid where the three matrices are stored row after row:
+	 * a is (n,m), b is (m,p) and c is (n,p) (its previous elements are overwritten).
+	 * The rows of c are computed in parallel if the product is big enough
+	 */
+	static void prod(double[] a, double[] b, double[] c, int n, int m, int p) {
+		Arrays.fill(c, 0, n*p, Double.POSITIVE_INFINITY);
+		int panel = Math.max(1, (int) (Gemm.GRAIN/Math.max((long)m*p, 1)));
+		ForkJoinPool pool = Gemm.getPool();
+		RangeTask.forEach(pool, Gemm.isParallel(n, m, p, pool), (n+panel-1)/panel, (long)panel*m*p,
+				k->multiply(a, b, c, m, p, k*panel, Math.min(n, (k+1)*panel)));
+	}
+
+	/**
+	 * c = min(c, a x b) on the rows [i0,i1[ of c, tiled as in Gemm
+	 */
+	private static void multiply(double[] a, double[] b, double[] c, int m, int p, int i0, int i1) {
+		for (int kk = 0; kk < m; kk += Gemm.DBLOCK_K) {
+			int kEnd = Math.min(kk+Gemm.DBLOCK_K, m);
+
+			for (int jj = 0; jj < p; jj += Gemm.DBLOCK_J) {
+				int jEnd = Math.min(jj+Gemm.DBLOCK_J, p);
+
+				for (int i = i0; i < i1; i++) {
+					int rowA = i*m;
+					int rowC = i*p;
+
+					for (int k = kk; k < kEnd; k++) {
+						double aik = a[rowA+k];
+						if(aik == Double.POSITIVE_INFINITY) {
+							continue;
+						}
+						int rowB = k*p;
+						for (int j = jj; j < jEnd; j++) {
+							double path = aik+b[rowB+j];
+							if(path < c[rowC+j]) {
+								c[rowC+j] = path;
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+
+	public static DenseMatR closure(DenseMatR a) {
+		return closure(a, Gemm.getPool());
+	}
+
+	/**
+	 * The closure A* = I + A + A^2 + ... on the min-plus dioid: A*(i,j) is the length of the
+	 * shortest path from i to j in the graph whose edges have the lengths A(i,j)
+	 * (+infinity if there is no path). <br>
+	 * It is computed by a blocked Floyd-Warshall algorithm: for each diagonal tile (k,k), the tile
+	 * is closed, then the tiles of the row k and of the column k are updated from it (in parallel),
+	 * then all the other tiles (i,j) from the tiles (i,k) and (k,j) (in parallel).
+	 * @param pool the pool on which the tiles are updated
+	 * @throws IllegalArgumentException if the graph has a cycle of negative length
+	 * (the closure doesn't exist)
+	 */
+	public static DenseMatR closure(DenseMatR a, ForkJoinPool pool) {
+		if(!a.isSquare()) {
+			throw new NotSquareMatrixException("closure");
+		}
+		int n = a.dimRows();
+		double[] d = a.getValues().clone();
+		for (int i = 0; i < n; i++) {
+			d[i*n+i] = Math.min(d[i*n+i], 0.);
+		}
+
+		int tiles = (n+TILE-1)/TILE;
+		boolean parallel = (long)n*n*n >= Gemm.getParallelThreshold();
+		long tileWork = (long)TILE*TILE*TILE;
+
+		for (int kt = 0; kt < tiles; kt++) {
+			final int k = kt;
+			update(d, n, k, k, k);
+
+			//the row k and the column k, except their common tile
+			RangeTask.forEach(pool, parallel, 2*(tiles-1), tileWork, t->{
+				int other = t/2 < k ? t/2 : t/2+1;
+				if(t%2 == 0) {
+					update(d, n, k, other, k);
+				}
+				else {
+					update(d, n, other, k, k);
+				}
+			});
+
+			//all the other tiles
+			RangeTask.forEach(pool, parallel, (tiles-1)*(tiles-1), tileWork, t->{
+				int it = t/(tiles-1);
+				int jt = t%(tiles-1);
+				update(d, n, it < k ? it : it+1, jt < k ? jt : jt+1, k);
+			});
+		}
+
+		for (int i = 0; i < n; i++) {
+			if(d[i*n+i] < 0) {
+				throw new IllegalArgumentException("The graph has a cycle of negative length through "+i);
+			}
+		}
+		return new DenseMatR(n, n, d);
+	}
+
+	/**
+	 * The closure of a matrix over Ring.realsDioideMin (see closure(DenseMatR))
+	 */
+	public static MatR closure(Matrix<Double> a) {
+		return closure(DenseMatR.of(a)).toMatR();
+	}
+
+	/**
+	 * d(i,j) = min(d(i,j), d(i,k)+d(k,j)) on the tile (it,jt), for each k of the tile kt
+	 * (in increasing order, which is needed when the tile (it,jt) is in the row or the column kt)
+	 */
+	private static void update(double[] d, int n, int it, int jt, int kt) {
+		int iEnd = Math.min(n, (it+1)*TILE);
+		int jEnd = Math.min(n, (jt+1)*TILE);
+		int kEnd = Math.min(n, (kt+1)*TILE);
+
+		for (int k = kt*TILE; k < kEnd; k++) {
+			int rowK = k*n;
+			for (int i = it*TILE; i < iEnd; i++) {
+				int rowI = i*n;
+				double dik = d[rowI+k];
+				if(dik == Double.POSITIVE_INFINITY) {
+					continue;
+				}
+				for (int j = jt*TILE; j < jEnd; j++) {
+					double path = dik+d[rowK+j];
+					if(path < d[rowI+j]) {
+						d[rowI+j] = path;
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,277 @@
+package fr.romain.Maths.linalg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleBiFunction;
+
+import fr.romain.Maths.linalg.Matrix.NotMatchingDimensionsException;
+import fr.romain.Maths.linalg.Matrix.NotSameDimensionsException;
+
+/**
+ * This class gathers the batch operations of the euclidean spaces: Gram matrices, matrices of
+ * the distances between all the pairs of a set and distances from one element to many. <br>
+ * The pairs are computed by tiles of TILE x TILE elements, so that the elements of the two
+ * tiles stay in cache while all their pairs are done, and the tiles are computed in parallel
+ * on a ForkJoinPool (the pool of Gemm by default). Gram and distance matrices are symmetric:
+ * only the tiles on and above the diagonal are computed, and each value is written twice.
+ * <br><br>
+ * On real vectors (or matrices) packed as the rows of a DenseMatR, no boxed element is read:
+ * the scalar products are dot products on the primitive rows, and the distances come from
+ * ||a-b||^2 = ||a||^2 + ||b||^2 - 2a.b, with the squared norms computed once for each row.
+ * This formula loses precision on points much closer to each other than to the origin
+ * (the negative rounding errors are clamped to zero).
+ */
+public final class Pairwise {
+
+	/**
+	 * The number of elements on each side of a tile
+	 */
+	static final int TILE = 64;
+
+	private Pairwise() {}
+
+	/**
+	 * The value of the pair (i,j) of a batch
+	 */
+	@FunctionalInterface
+	private interface PairFunction {
+		double apply(int i, int j);
+	}
+
+
+	//######################### on any euclidean space ###########################
+
+	/**
+	 * @return the Gram matrix G(i,j) = scalarProd(ei, ej) of the given elements
+	 */
+	public static<E> DenseMatR gram(List<E> elements, ToDoubleBiFunction<E, E> scalarProd, ForkJoinPool pool) {
+		List<E> list = randomAccess(elements);
+		int n = list.size();
+		DenseMatR gram = new DenseMatR(n, n);
+		symmetric(n, gram.getValues(), true, (i, j)->scalarProd.applyAsDouble(list.get(i), list.get(j)),
+				  pool, n > TILE && pool.getParallelism() > 1, TILE*TILE);
+		return gram;
+	}
+
+	/**
+	 * @param squaredDistance the square of the distance (see Euclidean.squaredDistance)
+	 * @return the matrix D(i,j) = distance(ei, ej) of the given elements (zero on the diagonal)
+	 */
+	public static<E> DenseMatR distances(List<E> elements, ToDoubleBiFunction<E, E> squaredDistance, ForkJoinPool pool) {
+		List<E> list = randomAccess(elements);
+		int n = list.size();
+		DenseMatR distances = new DenseMatR(n, n);
+		symmetric(n, distances.getValues(), false, (i, j)->Math.sqrt(squaredDistance.applyAsDouble(list.get(i), list.get(j))),
+				  pool, n > TILE && pool.getParallelism() > 1, TILE*TILE);
+		return distances;
+	}
+
+	/**
+	 * @return the distances from e to each of the given elements
+	 */
+	public static<E> double[] distances(E e, List<E> elements, ToDoubleBiFunction<E, E> squaredDistance, ForkJoinPool pool) {
+		List<E> list = randomAccess(elements);
+		double[] distances = new double[list.size()];
+		RangeTask.forEach(pool, list.size() > TILE && pool.getParallelism() > 1, list.size(), TILE, i->{
+			distances[i] = Math.sqrt(squaredDistance.applyAsDouble(e, list.get(i)));
+		});
+		return distances;
+	}
+
+
+	//######################### on real vectors packed in rows ###########################
+
+	/**
+	 * @return the matrix whose rows are the given vectors, which need the same dimension
+	 */
+	public static DenseMatR rows(List<? extends Vector<Double>> vectors) {
+		int d = vectors.isEmpty() ? 0 : vectors.get(0).dim();
+		DenseMatR rows = new DenseMatR(vectors.size(), d);
+		double[] values = rows.getValues();
+		int i = 0;
+		for (Vector<Double> v : vectors) {
+			if(v.dim() != d) {
+				throw new NotMatchingDimensionsException("the vector "+i+" is of dimension "+v.dim()+" instead of "+d);
+			}
+			for (int k = 0; k < d; k++) {
+				values[i*d+k] = v.get(k);
+			}
+			i++;
+		}
+		return rows;
+	}
+
+	/**
+	 * @return the matrix whose row i is the matrix i flattened row after row: the dot product of two
+	 * rows is the scalar product Tr(tAxB) of the two matrices. They need the same dimensions
+	 */
+	public static DenseMatR flatRows(List<? extends Matrix<Double>> matrices) {
+		if(matrices.isEmpty()) {
+			return new DenseMatR(0, 0);
+		}
+		int[] dims = matrices.get(0).dims();
+		int d = dims[0]*dims[1];
+		DenseMatR rows = new DenseMatR(matrices.size(), d);
+		int i = 0;
+		for (Matrix<Double> m : matrices) {
+			if(!m.hasDim(dims)) {
+				throw new NotSameDimensionsException(dims, m.dims());
+			}
+			Transpose.unbox(m.storage(), m.index(0, 0), m.rowStride(), m.colStride(),
+							rows.getValues(), i*d, dims[1], 1, dims[0], dims[1]);
+			i++;
+		}
+		return rows;
+	}
+
+	public static DenseMatR gram(DenseMatR rows) {
+		return gram(rows, Gemm.getPool());
+	}
+
+	/**
+	 * @return the Gram matrix G = X x tX of the rows of X (the dot products of all the pairs of rows)
+	 */
+	public static DenseMatR gram(DenseMatR rows, ForkJoinPool pool) {
+		int n = rows.dimRows();
+		int d = rows.dimCols();
+		double[] x = rows.getValues();
+		DenseMatR gram = new DenseMatR(n, n);
+		symmetric(n, gram.getValues(), true, (i, j)->Simd.dot(x, i*d, x, j*d, d),
+				  pool, isParallel(n, n, d, pool), (long)TILE*TILE*d);
+		return gram;
+	}
+
+	public static DenseMatR distances(DenseMatR rows) {
+		return distances(rows, Gemm.getPool());
+	}
+
+	/**
+	 * @return the matrix of the distances between all the pairs of rows of X, with the
+	 * squared norms of the rows computed once
+	 */
+	public static DenseMatR distances(DenseMatR rows, ForkJoinPool pool) {
+		int n = rows.dimRows();
+		int d = rows.dimCols();
+		double[] x = rows.getValues();
+		double[] norms = squaredNorms(x, n, d);
+		DenseMatR distances = new DenseMatR(n, n);
+		symmetric(n, distances.getValues(), false, (i, j)->fromDot(norms[i], norms[j], Simd.dot(x, i*d, x, j*d, d)),
+				  pool, isParallel(n, n, d, pool), (long)TILE*TILE*d);
+		return distances;
+	}
+
+	public static DenseMatR distances(DenseMatR queries, DenseMatR rows) {
+		return distances(queries, rows, Gemm.getPool());
+	}
+
+	/**
+	 * @return the (q,n) matrix of the distances from each row of queries to each row of rows
+	 */
+	public static DenseMatR distances(DenseMatR queries, DenseMatR rows, ForkJoinPool pool) {
+		if(queries.dimCols() != rows.dimCols()) {
+			throw new NotMatchingDimensionsException("the rows are of dimension "+queries.dimCols()+" and "+rows.dimCols());
+		}
+		int q = queries.dimRows();
+		int n = rows.dimRows();
+		int d = rows.dimCols();
+		double[] a = queries.getValues();
+		double[] x = rows.getValues();
+		double[] normsA = squaredNorms(a, q, d);
+		double[] normsX = squaredNorms(x, n, d);
+		DenseMatR distances = new DenseMatR(q, n);
+		double[] out = distances.getValues();
+
+		int tilesQ = (q+TILE-1)/TILE;
+		int tilesN = (n+TILE-1)/TILE;
+		RangeTask.forEach(pool, isParallel(q, n, d, pool), tilesQ*tilesN, (long)TILE*TILE*d, t->{
+			int i0 = (t/tilesN)*TILE;
+			int j0 = (t%tilesN)*TILE;
+			int i1 = Math.min(i0+TILE, q);
+			int j1 = Math.min(j0+TILE, n);
+			for (int i = i0; i < i1; i++) {
+				for (int j = j0; j < j1; j++) {
+					out[i*n+j] = fromDot(normsA[i], normsX[j], Simd.dot(a, i*d, x, j*d, d));
+				}
+			}
+		});
+		return distances;
+	}
+
+	/**
+	 * @return the distances from the vector v to each row of rows. With a single vector, each
+	 * distance is computed directly from the differences (one pass on the rows anyway)
+	 */
+	public static double[] distances(double[] v, DenseMatR rows) {
+		if(v.length != rows.dimCols()) {
+			throw new NotMatchingDimensionsException("the vector is of dimension "+v.length+" and the rows of "+rows.dimCols());
+		}
+		int n = rows.dimRows();
+		int d = rows.dimCols();
+		double[] x = rows.getValues();
+		double[] distances = new double[n];
+		ForkJoinPool pool = Gemm.getPool();
+		RangeTask.forEach(pool, isParallel(n, 1, d, pool), n, d, i->{
+			distances[i] = Math.sqrt(Simd.squaredDistance(v, 0, x, i*d, d));
+		});
+		return distances;
+	}
+
+
+	//######################### below: the tiling ###########################
+
+	/**
+	 * Fills the symmetric (n,n) matrix out with f on the tiles (bi,bj) where bi <= bj, each one
+	 * being a task. The diagonal is left at zero if !diagonal
+	 * @param work the number of operations of a tile
+	 */
+	private static void symmetric(int n, double[] out, boolean diagonal, PairFunction f, ForkJoinPool pool,
+								  boolean parallel, long work) {
+		int tiles = (n+TILE-1)/TILE;
+		RangeTask.forEach(pool, parallel, tiles*(tiles+1)/2, work, t->{
+			//the t-th tile above the diagonal, row of tiles after row of tiles
+			int bi = 0;
+			int rest = t;
+			while(rest >= tiles-bi) {
+				rest -= tiles-bi;
+				bi++;
+			}
+			int bj = bi+rest;
+			int i0 = bi*TILE;
+			int i1 = Math.min(i0+TILE, n);
+			int j1 = Math.min((bj+1)*TILE, n);
+			for (int i = i0; i < i1; i++) {
+				int j0 = bi == bj ? (diagonal ? i : i+1) : bj*TILE;
+				for (int j = j0; j < j1; j++) {
+					double value = f.apply(i, j);
+					out[i*n+j] = value;
+					out[j*n+i] = value;
+				}
+			}
+		});
+	}
+
+	private static boolean isParallel(int n, int p, int d, ForkJoinPool pool) {
+		return (long)n*p*d >= Gemm.getParallelThreshold() && pool.getParallelism() > 1;
+	}
+
+	private static double[] squaredNorms(double[] x, int n, int d) {
+		double[] norms = new double[n];
+		for (int i = 0; i < n; i++) {
+			norms[i] = Simd.dot(x, i*d, x, i*d, d);
+		}
+		return norms;
+	}
+
+	/**
+	 * @return sqrt(||a||^2 + ||b||^2 - 2a.b), clamped to zero against the rounding errors
+	 */
+	private static double fromDot(double normA, double normB, double dot) {
+		return Math.sqrt(Math.max(0., normA+normB-2*dot));
+	}
+
+	private static<E> List<E> randomAccess(List<E> elements) {
+		return elements instanceof RandomAccess ? elements : new ArrayList<E>(elements);
+	}
+}
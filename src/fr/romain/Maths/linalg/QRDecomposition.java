@@ -0,0 +1,357 @@
+package fr.romain.Maths.linalg;
+
+import fr.romain.Maths.linalg.Matrix.NotInversibleMatrixException;
+import fr.romain.Maths.linalg.Matrix.NotMatchingDimensionsException;
+import fr.romain.Maths.utils.Reals;
+
+/**
+ * This class represents the QR decomposition of a real matrix A (n,m) with n >= m,
+ * computed with Householder reflections: A = QR where Q (n,n) is orthogonal and R (n,m) is upper
+ * triangular. <br>
+ * Q is never formed: it is kept as the product of the m reflections H(j) = I - tau(j).v(j).tv(j),
+ * whose vectors are stored under the diagonal of R, in the same array. Q or tQ are then applied
+ * to any matrix one reflection after the other. <br>
+ * The main use is the linear least squares: the x which minimizes ||Ax - b|| is the solution of
+ * Rx = (tQb) restricted to its first m rows. Unlike the normal equation, this never forms tA.A,
+ * whose condition number is the square of the one of A.
+ * <br><br>
+ * The factorization is blocked: the reflections are computed on panels of BLOCK columns, then
+ * the whole panel is applied at once to the columns on its right in the compact WY form
+ * I - V.T.tV (T upper triangular (BLOCK,BLOCK)). Most of the work is then in products of
+ * matrices which go along the rows of A, instead of one pass on A for each reflection.
+ */
+public class QRDecomposition {
+
+	static final int BLOCK = 32;
+
+	/**
+	 * R on and above the diagonal, the vectors v(j) under it (v(j) has a 1 on the diagonal
+	 * which is not stored), row after row
+	 */
+	private final double[] qr;
+	private final double[] tau;
+	private final int n;
+	private final int m;
+
+
+	/**
+	 * The decomposition of a copy of a
+	 * @throws NotMatchingDimensionsException if a has less rows than columns
+	 */
+	public QRDecomposition(DenseMatR a) {
+		this(a.dimRows(), a.dimCols(), a.getValues().clone());
+	}
+
+	/**
+	 * The decomposition is done in place in values, which is then owned by this object
+	 */
+	QRDecomposition(int n, int m, double[] values) {
+		if(n < m) {
+			throw new NotMatchingDimensionsException("A QR decomposition needs at least as many rows as columns: "+n+" < "+m);
+		}
+		this.n = n;
+		this.m = m;
+		this.qr = values;
+		this.tau = new double[m];
+
+		double[] t = new double[BLOCK*BLOCK];
+		double[] w = new double[BLOCK*Math.max(m, 1)];
+
+		for (int j0 = 0; j0 < m; j0 += BLOCK) {
+			int b = Math.min(BLOCK, m-j0);
+			panel(j0, b);
+			if(j0+b < m) {
+				buildT(j0, b, t);
+				updateTrailing(j0, b, t, w);
+			}
+		}
+	}
+
+	/**
+	 * Unblocked factorization of the columns [j0, j0+b[: each reflection is applied to the
+	 * next columns of the panel only
+	 */
+	private void panel(int j0, int b) {
+		double[] w = new double[b];
+		for (int j = j0; j < j0+b; j++) {
+			reflector(j);
+			double tauj = tau[j];
+			if(tauj == 0) {
+				continue;
+			}
+			int end = j0+b;
+			//w = tv.A(j:, j+1:end)
+			for (int c = j+1; c < end; c++) {
+				w[c-j0] = qr[j*m+c];
+			}
+			for (int i = j+1; i < n; i++) {
+				double vi = qr[i*m+j];
+				if(vi == 0) {
+					continue;
+				}
+				for (int c = j+1; c < end; c++) {
+					w[c-j0] += vi*qr[i*m+c];
+				}
+			}
+			//A(j:, j+1:end) -= tau.v.w
+			for (int c = j+1; c < end; c++) {
+				qr[j*m+c] -= tauj*w[c-j0];
+			}
+			for (int i = j+1; i < n; i++) {
+				double vi = tauj*qr[i*m+j];
+				if(vi == 0) {
+					continue;
+				}
+				for (int c = j+1; c < end; c++) {
+					qr[i*m+c] -= vi*w[c-j0];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the reflection which cancels the column j under the diagonal:
+	 * R(j,j) = beta, v(j) = x/(x0-beta) with a 1 on the diagonal, tau(j) = (beta-x0)/beta
+	 */
+	private void reflector(int j) {
+		double x0 = qr[j*m+j];
+		double norm2 = 0;
+		for (int i = j+1; i < n; i++) {
+			double xi = qr[i*m+j];
+			norm2 += xi*xi;
+		}
+		if(norm2 == 0) {
+			tau[j] = 0;
+			return;
+		}
+		double beta = -Math.copySign(Math.sqrt(x0*x0+norm2), x0);
+		tau[j] = (beta-x0)/beta;
+		double scale = 1/(x0-beta);
+		for (int i = j+1; i < n; i++) {
+			qr[i*m+j] *= scale;
+		}
+		qr[j*m+j] = beta;
+	}
+
+	/**
+	 * Builds T (b,b), upper triangular, such that H(j0)...H(j0+b-1) = I - V.T.tV:
+	 * T(p,p) = tau(p) and T(0:p,p) = -tau(p).T(0:p,0:p).tV(:,0:p).v(p)
+	 */
+	private void buildT(int j0, int b, double[] t) {
+		for (int p = 0; p < b; p++) {
+			int jp = j0+p;
+			double taup = tau[jp];
+			//t(0:p,p) = tV(:,0:p).v(p), v(p) is null above jp and 1 on jp
+			for (int q = 0; q < p; q++) {
+				t[q*BLOCK+p] = qr[jp*m+j0+q];
+			}
+			for (int i = jp+1; i < n; i++) {
+				double vi = qr[i*m+jp];
+				if(vi == 0) {
+					continue;
+				}
+				for (int q = 0; q < p; q++) {
+					t[q*BLOCK+p] += qr[i*m+j0+q]*vi;
+				}
+			}
+			//t(0:p,p) = -tau(p).T(0:p,0:p).t(0:p,p), T(0:p,0:p) is upper triangular
+			for (int q = 0; q < p; q++) {
+				double sum = 0;
+				for (int r = q; r < p; r++) {
+					sum += t[q*BLOCK+r]*t[r*BLOCK+p];
+				}
+				t[q*BLOCK+p] = -taup*sum;
+			}
+			t[p*BLOCK+p] = taup;
+		}
+	}
+
+	/**
+	 * Applies t(I - V.T.tV) = I - V.tT.tV to the columns on the right of the panel:
+	 * W = tV.C, W = tT.W, C -= V.W
+	 */
+	private void updateTrailing(int j0, int b, double[] t, double[] w) {
+		int c0 = j0+b;
+		int k = m-c0;
+
+		for (int p = 0; p < b; p++) {
+			System.arraycopy(qr, (j0+p)*m+c0, w, p*k, k);
+		}
+		for (int i = j0+1; i < n; i++) {
+			int rowI = i*m;
+			int pEnd = Math.min(b, i-j0);
+			for (int p = 0; p < pEnd; p++) {
+				double vip = qr[rowI+j0+p];
+				if(vip == 0) {
+					continue;
+				}
+				for (int c = 0; c < k; c++) {
+					w[p*k+c] += vip*qr[rowI+c0+c];
+				}
+			}
+		}
+
+		//W = tT.W, tT is lower triangular: from the last row to the first one
+		for (int p = b-1; p >= 0; p--) {
+			double tpp = t[p*BLOCK+p];
+			for (int c = 0; c < k; c++) {
+				w[p*k+c] *= tpp;
+			}
+			for (int q = 0; q < p; q++) {
+				double tqp = t[q*BLOCK+p];
+				if(tqp == 0) {
+					continue;
+				}
+				for (int c = 0; c < k; c++) {
+					w[p*k+c] += tqp*w[q*k+c];
+				}
+			}
+		}
+
+		for (int i = j0; i < n; i++) {
+			int rowI = i*m;
+			int pEnd = Math.min(b, i-j0+1);
+			for (int p = 0; p < pEnd; p++) {
+				double vip = i == j0+p ? 1 : qr[rowI+j0+p];
+				if(vip == 0) {
+					continue;
+				}
+				for (int c = 0; c < k; c++) {
+					qr[rowI+c0+c] -= vip*w[p*k+c];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Applies H(j) to x (n,k) in place
+	 */
+	private void reflect(int j, double[] x, int k) {
+		double tauj = tau[j];
+		if(tauj == 0) {
+			return;
+		}
+		double[] w = new double[k];
+		System.arraycopy(x, j*k, w, 0, k);
+		for (int i = j+1; i < n; i++) {
+			double vi = qr[i*m+j];
+			for (int c = 0; c < k; c++) {
+				w[c] += vi*x[i*k+c];
+			}
+		}
+		for (int c = 0; c < k; c++) {
+			x[j*k+c] -= tauj*w[c];
+		}
+		for (int i = j+1; i < n; i++) {
+			double vi = tauj*qr[i*m+j];
+			for (int c = 0; c < k; c++) {
+				x[i*k+c] -= vi*w[c];
+			}
+		}
+	}
+
+	private void checkRows(DenseMatR b) {
+		if(b.dimRows() != n) {
+			throw new NotMatchingDimensionsException(b.dimRows()+" != "+n);
+		}
+	}
+
+	/**
+	 * @return tQ.b, computed one reflection after the other without forming Q
+	 */
+	public DenseMatR applyQt(DenseMatR b) {
+		checkRows(b);
+		double[] x = b.getValues().clone();
+		for (int j = 0; j < m; j++) {
+			reflect(j, x, b.dimCols());
+		}
+		return new DenseMatR(n, b.dimCols(), x);
+	}
+
+	/**
+	 * @return Q.b, computed one reflection after the other without forming Q
+	 */
+	public DenseMatR applyQ(DenseMatR b) {
+		checkRows(b);
+		double[] x = b.getValues().clone();
+		for (int j = m-1; j >= 0; j--) {
+			reflect(j, x, b.dimCols());
+		}
+		return new DenseMatR(n, b.dimCols(), x);
+	}
+
+	/**
+	 * @return true if no element of the diagonal of R is null
+	 */
+	public boolean isFullRank() {
+		for (int j = 0; j < m; j++) {
+			if(Reals.isNull(qr[j*m+j])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Solves the linear least squares problem: min ||AX - B|| for each column of B
+	 * @param b a matrix (n,k)
+	 * @return the matrix X (m,k)
+	 * @throws NotInversibleMatrixException if A is not of full rank (the solution is not unique)
+	 */
+	public DenseMatR solve(DenseMatR b) {
+		if(!isFullRank()) {
+			throw new NotInversibleMatrixException("The matrix is not of full rank");
+		}
+		int k = b.dimCols();
+		double[] x = applyQt(b).getValues();
+
+		//back substitution on the first m rows: RX = tQB
+		for (int i = m-1; i >= 0; i--) {
+			int rowI = i*k;
+			for (int j = i+1; j < m; j++) {
+				double rij = qr[i*m+j];
+				if(rij == 0) {
+					continue;
+				}
+				for (int c = 0; c < k; c++) {
+					x[rowI+c] -= rij*x[j*k+c];
+				}
+			}
+			double rii = qr[i*m+i];
+			for (int c = 0; c < k; c++) {
+				x[rowI+c] /= rii;
+			}
+		}
+		double[] solution = new double[m*k];
+		System.arraycopy(x, 0, solution, 0, m*k);
+		return new DenseMatR(m, k, solution);
+	}
+
+	public VectR solve(Vector<Double> b) {
+		return VectR.of(solve(DenseMatR.of(b.toColMat())).getCol(0));
+	}
+
+	/**
+	 * @return the upper triangular factor R, reduced to its first m rows (m,m)
+	 */
+	public DenseMatR getR() {
+		DenseMatR r = new DenseMatR(m, m);
+		for (int i = 0; i < m; i++) {
+			for (int j = i; j < m; j++) {
+				r.set(i, j, qr[i*m+j]);
+			}
+		}
+		return r;
+	}
+
+	/**
+	 * @return the first m columns of Q (n,m), so that A = QR with the reduced R of getR
+	 */
+	public DenseMatR getQ() {
+		DenseMatR id = new DenseMatR(n, m);
+		for (int j = 0; j < m; j++) {
+			id.set(j, j, 1.);
+		}
+		return applyQ(id);
+	}
+}
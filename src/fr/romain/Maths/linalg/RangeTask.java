@@ -0,0 +1,52 @@
+package fr.romain.Maths.linalg;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs an action on each index of a range, split in two halves while it has more than grain
+ * indices. The actions on different indices have to be independent
+ */
+class RangeTask extends RecursiveAction {
+	private static final long serialVersionUID = -4405338371856470207L;
+
+	private final IntConsumer action;
+	private final int from;
+	private final int to;
+	private final int grain;
+
+	RangeTask(IntConsumer action, int from, int to, int grain) {
+		this.action = action;
+		this.from = from;
+		this.to = to;
+		this.grain = grain;
+	}
+
+	/**
+	 * Runs action on [0,size[, split on the pool if parallel
+	 * @param work the number of operations of each action
+	 */
+	static void forEach(ForkJoinPool pool, boolean parallel, int size, long work, IntConsumer action) {
+		if(!parallel || size < 2) {
+			for (int k = 0; k < size; k++) {
+				action.accept(k);
+			}
+			return;
+		}
+		int grain = (int) Math.max(1, Gemm.GRAIN/Math.max(work, 1)/4);
+		pool.invoke(new RangeTask(action, 0, size, grain));
+	}
+
+	@Override
+	protected void compute() {
+		if(to-from <= grain) {
+			for (int k = from; k < to; k++) {
+				action.accept(k);
+			}
+			return;
+		}
+		int mid = (from+to)>>>1;
+		invokeAll(new RangeTask(action, from, mid, grain), new RangeTask(action, mid, to, grain));
+	}
+}
@@ -0,0 +1,134 @@
+package fr.romain.Maths.linalg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import fr.romain.Maths.linalg.algstruct.Field;
+
+/**
+ * This class represents the rank factorization of a matrix A (n,m), read on its reduced row
+ * echelon form R: <br>
+ * A = CF where C (n,r) is made of the pivot columns of A and F (r,m) of the non null rows of R
+ * (r is the rank). <br>
+ * The reduction (with partial pivoting, see GaussElimination) is done once at the construction,
+ * then the rank, a basis of the kernel and a basis of the image all come from it: <br>
+ * - the image of A is spanned by its pivot columns (the columns of C) <br>
+ * - the kernel has one vector for each column j without pivot: one on j and minus the column j
+ * of F on the pivot columns.
+ *
+ * @param <K> the type of elements in the matrix
+ */
+public class RankDecomposition<K> {
+
+	private final Field<K> f;
+
+	/**
+	 * The reduced row echelon form of A
+	 */
+	private final Matrix<K> reduced;
+
+	/**
+	 * The pivot columns of A, copied at the construction
+	 */
+	private final Matrix<K> c;
+
+	/**
+	 * pivotCols[p] is the column of the p-th pivot
+	 */
+	private final int[] pivotCols;
+	private final int rank;
+
+
+	public RankDecomposition(Matrix<K> a, Field<K> f, Function<K, Double> abs, BiPredicate<K, K> equals) {
+		this.f = f;
+		reduced = a.clone();
+		int[] pivots = new int[a.dimRows()];
+		rank = GaussElimination.reduce(reduced, a.dimCols(), f, abs, equals, true, pivots);
+		pivotCols = new int[rank];
+		System.arraycopy(pivots, 0, pivotCols, 0, rank);
+
+		c = new Matrix<K>(a.dimRows(), rank);
+		for (int p = 0; p < rank; p++) {
+			for (int i = 0; i < a.dimRows(); i++) {
+				c.set(i, p, a.get(i, pivotCols[p]));
+			}
+		}
+	}
+
+	public int rank() {
+		return rank;
+	}
+
+	/**
+	 * @return the number of columns minus the rank
+	 */
+	public int nullity() {
+		return reduced.dimCols()-rank;
+	}
+
+	/**
+	 * @return a basis of the kernel {x, Ax = 0} (empty if A is injective)
+	 */
+	public List<Vector<K>> ker(){
+		int m = reduced.dimCols();
+		boolean[] isPivot = new boolean[m];
+		for (int col : pivotCols) {
+			isPivot[col] = true;
+		}
+
+		List<Vector<K>> kerBasis = new ArrayList<Vector<K>>();
+		for (int free = 0; free < m; free++) {
+			if(isPivot[free]) {
+				continue;
+			}
+			Vector<K> root = Vector.zero(m, f);
+			root.set(free, f.one());
+			for (int p = 0; p < rank; p++) {
+				root.set(pivotCols[p], f.sumInv(reduced.get(p, free)));
+			}
+			kerBasis.add(root);
+		}
+		return kerBasis;
+	}
+
+	/**
+	 * @return a basis of the image {Ax}: the pivot columns of A
+	 */
+	public List<Vector<K>> im(){
+		List<Vector<K>> imBasis = new ArrayList<Vector<K>>();
+		for (int p = 0; p < rank; p++) {
+			imBasis.add(c.getCol(p));
+		}
+		return imBasis;
+	}
+
+	/**
+	 * @return the factor C (n,r): the pivot columns of A
+	 */
+	public Matrix<K> getC() {
+		return c.clone();
+	}
+
+	/**
+	 * @return the factor F (r,m): the non null rows of the reduced row echelon form
+	 */
+	public Matrix<K> getF() {
+		return reduced.subMatrix(0, 0, rank, reduced.dimCols()).clone();
+	}
+
+	/**
+	 * @return the reduced row echelon form of A
+	 */
+	public Matrix<K> getReduced() {
+		return reduced.clone();
+	}
+
+	/**
+	 * @return the columns of the pivots, in increasing order
+	 */
+	public int[] getPivotCols() {
+		return pivotCols.clone();
+	}
+}
@@ -0,0 +1,200 @@
+package fr.romain.Maths.linalg;
+
+/**
+ * This class gathers the loops on arrays of primitive doubles which are the core of the real
+ * kernels: axpy (the micro-kernel of Gemm), dot, element-wise operations, reductions and the
+ * logistic function. <br>
+ * If the module jdk.incubator.vector is in the boot layer (java --add-modules jdk.incubator.vector)
+ * and the source folder src-vector has been compiled, they run on the SIMD lanes of the processor
+ * through the Vector API (see VectorKernels), otherwise they are plain scalar loops. <br>
+ * The backend can also be turned off with the system property fr.romain.Maths.simd=false
+ * or with setEnabled(false).
+ */
+public final class Simd {
+
+	/**
+	 * The vectorized loops, null if they can't be used
+	 */
+	private static final Kernels VECTOR = load();
+	private static final boolean AVAILABLE = VECTOR != null;
+	private static volatile boolean enabled = AVAILABLE;
+
+	private Simd() {}
+
+	/**
+	 * VectorKernels is loaded by reflection: it may not have been compiled (src-vector) and
+	 * it can't be linked without the module
+	 */
+	private static Kernels load() {
+		if(!Boolean.parseBoolean(System.getProperty("fr.romain.Maths.simd", "true"))) {
+			return null;
+		}
+		if(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+			return null;
+		}
+		try {
+			Kernels kernels = (Kernels) Class.forName("fr.romain.Maths.linalg.VectorKernels")
+											 .getDeclaredConstructor().newInstance();
+			return kernels.lanes() > 1 ? kernels : null;
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return true if the Vector API can be used in this JVM
+	 */
+	public static boolean isAvailable() {
+		return AVAILABLE;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Turns on or off the SIMD backend (the scalar loops give the same results up to the rounding)
+	 * @throws IllegalStateException if it is turned on while the Vector API isn't available
+	 */
+	public static void setEnabled(boolean enabled) {
+		if(enabled && !AVAILABLE) {
+			throw new IllegalStateException("The module jdk.incubator.vector is not available");
+		}
+		Simd.enabled = enabled;
+	}
+
+
+	/**
+	 * y[yOff..yOff+len[ += alpha * x[xOff..xOff+len[
+	 */
+	public static void axpy(double alpha, double[] x, int xOff, double[] y, int yOff, int len) {
+		if(enabled) {
+			VECTOR.axpy(alpha, x, xOff, y, yOff, len);
+			return;
+		}
+		for (int k = 0; k < len; k++) {
+			y[yOff+k] += alpha*x[xOff+k];
+		}
+	}
+
+	public static void axpy(double alpha, double[] x, double[] y, int len) {
+		axpy(alpha, x, 0, y, 0, len);
+	}
+
+	/**
+	 * @return the sum of the products a[aOff+k]*b[bOff+k] for k in [0,len[
+	 */
+	public static double dot(double[] a, int aOff, double[] b, int bOff, int len) {
+		if(enabled) {
+			return VECTOR.dot(a, aOff, b, bOff, len);
+		}
+		double dot = 0;
+		for (int k = 0; k < len; k++) {
+			dot += a[aOff+k]*b[bOff+k];
+		}
+		return dot;
+	}
+
+	public static double dot(double[] a, double[] b, int len) {
+		return dot(a, 0, b, 0, len);
+	}
+
+	/**
+	 * out = a + b on the first len elements (out may be a or b)
+	 */
+	public static void add(double[] a, double[] b, double[] out, int len) {
+		if(enabled) {
+			VECTOR.add(a, b, out, len);
+			return;
+		}
+		for (int k = 0; k < len; k++) {
+			out[k] = a[k]+b[k];
+		}
+	}
+
+	/**
+	 * out = a - b on the first len elements (out may be a or b)
+	 */
+	public static void sub(double[] a, double[] b, double[] out, int len) {
+		if(enabled) {
+			VECTOR.sub(a, b, out, len);
+			return;
+		}
+		for (int k = 0; k < len; k++) {
+			out[k] = a[k]-b[k];
+		}
+	}
+
+	/**
+	 * out = a * b element-wise (the hadamard product) on the first len elements (out may be a or b)
+	 */
+	public static void mul(double[] a, double[] b, double[] out, int len) {
+		if(enabled) {
+			VECTOR.mul(a, b, out, len);
+			return;
+		}
+		for (int k = 0; k < len; k++) {
+			out[k] = a[k]*b[k];
+		}
+	}
+
+	/**
+	 * out = alpha * a on the first len elements (out may be a)
+	 */
+	public static void scale(double alpha, double[] a, double[] out, int len) {
+		if(enabled) {
+			VECTOR.scale(alpha, a, out, len);
+			return;
+		}
+		for (int k = 0; k < len; k++) {
+			out[k] = alpha*a[k];
+		}
+	}
+
+	public static double sum(double[] a, int len) {
+		if(enabled) {
+			return VECTOR.sum(a, len);
+		}
+		double sum = 0;
+		for (int k = 0; k < len; k++) {
+			sum += a[k];
+		}
+		return sum;
+	}
+
+	/**
+	 * @return the sum of the squares of the first len elements
+	 */
+	public static double sumSquares(double[] a, int len) {
+		return dot(a, a, len);
+	}
+
+	/**
+	 * @return the sum of the squares (a[aOff+k]-b[bOff+k])^2 for k in [0,len[, without
+	 * storing the differences
+	 */
+	public static double squaredDistance(double[] a, int aOff, double[] b, int bOff, int len) {
+		if(enabled) {
+			return VECTOR.squaredDistance(a, aOff, b, bOff, len);
+		}
+		double dist = 0;
+		for (int k = 0; k < len; k++) {
+			double d = a[aOff+k]-b[bOff+k];
+			dist += d*d;
+		}
+		return dist;
+	}
+
+	/**
+	 * out = 1/(1+exp(-a)) element-wise on the first len elements (out may be a)
+	 */
+	public static void logistic(double[] a, double[] out, int len) {
+		if(enabled) {
+			VECTOR.logistic(a, out, len);
+			return;
+		}
+		for (int k = 0; k < len; k++) {
+			out[k] = 1./(1+Math.exp(-a[k]));
+		}
+	}
+}
@@ -0,0 +1,544 @@
+package fr.romain.Maths.linalg;
+
+import java.util.Arrays;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import fr.romain.Maths.linalg.Matrix.NotMatchingDimensionsException;
+import fr.romain.Maths.linalg.Matrix.NotMultipliableMatricesException;
+import fr.romain.Maths.linalg.Matrix.NotSameDimensionsException;
+import fr.romain.Maths.linalg.algstruct.Ring;
+
+/**
+ * This class represents sparse matrices over any ring: only the non null elements are stored,
+ * so that the operations never go through the zeros. <br>
+ * The elements are compressed line after line: in CSR (Compressed Sparse Row) the lines are
+ * the rows, in CSC (Compressed Sparse Column) they are the columns. For each line, ptr gives
+ * the range of its elements in idx (their indices in the line, in increasing order) and
+ * values. <br>
+ * A sparse matrix is immutable: the transpose of a CSR matrix is the CSC matrix on the same
+ * arrays, without any copy.
+ * <br><br>
+ * As for Matrix, the ring is given to each operation. An element is null if it equals
+ * r.zero() (or for the given predicate): such an element is never stored.
+ *
+ * @param <K> the type of elements in the matrix
+ */
+public class SparseMatrix<K> {
+
+	public enum Format {CSR, CSC}
+
+	private final Format format;
+	private final int n;
+	private final int m;
+	private final int[] ptr;
+	private final int[] idx;
+	private final Object[] values;
+
+
+	private SparseMatrix(Format format, int n, int m, int[] ptr, int[] idx, Object[] values) {
+		this.format = format;
+		this.n = n;
+		this.m = m;
+		this.ptr = ptr;
+		this.idx = idx;
+		this.values = values;
+	}
+
+	/**
+	 * @return the sparse matrix (n,m) in CSR whose non null elements are given by triplets:
+	 * values[k] is at (rows[k], cols[k]). The values given several times at the same place are summed
+	 */
+	public static<K> SparseMatrix<K> of(int n, int m, int[] rows, int[] cols, K[] values, Ring<K> r){
+		return of(n, m, rows, cols, values, r, Format.CSR);
+	}
+
+	public static<K> SparseMatrix<K> of(int n, int m, int[] rows, int[] cols, K[] values, Ring<K> r, Format format){
+		if(rows.length != cols.length || rows.length != values.length) {
+			throw new NotMatchingDimensionsException("There are "+rows.length+" rows, "+cols.length+" columns and "+values.length+" values");
+		}
+		int[] majors = format == Format.CSR ? rows : cols;
+		int[] minors = format == Format.CSR ? cols : rows;
+		int major = format == Format.CSR ? n : m;
+		int minor = format == Format.CSR ? m : n;
+		for (int k = 0; k < rows.length; k++) {
+			if(rows[k] < 0 || rows[k] >= n || cols[k] < 0 || cols[k] >= m) {
+				throw new NotMatchingDimensionsException("("+rows[k]+","+cols[k]+") is out of a matrix ("+n+","+m+")");
+			}
+		}
+
+		//two stable counting sorts: by minor index then by major index
+		int[] byMinor = countingSort(minors, minor, identity(rows.length));
+		int[] sorted = countingSort(majors, major, byMinor);
+
+		Builder<K> builder = new Builder<K>(format, n, m, rows.length, r, Object::equals);
+		int k = 0;
+		for (int line = 0; line < major; line++) {
+			while (k < sorted.length && majors[sorted[k]] == line) {
+				int e = sorted[k];
+				K sum = values[e];
+				k++;
+				while (k < sorted.length && majors[sorted[k]] == line && minors[sorted[k]] == minors[e]) {
+					sum = r.sum(sum, values[sorted[k]]);
+					k++;
+				}
+				builder.add(minors[e], sum);
+			}
+			builder.endLine();
+		}
+		return builder.build();
+	}
+
+	private static int[] identity(int size) {
+		int[] identity = new int[size];
+		for (int k = 0; k < size; k++) {
+			identity[k] = k;
+		}
+		return identity;
+	}
+
+	/**
+	 * @return the permutation of order sorted by keys (keys in [0,size[), in a stable way
+	 */
+	private static int[] countingSort(int[] keys, int size, int[] order) {
+		int[] start = new int[size+1];
+		for (int e : order) {
+			start[keys[e]+1]++;
+		}
+		for (int key = 0; key < size; key++) {
+			start[key+1] += start[key];
+		}
+		int[] sorted = new int[order.length];
+		for (int e : order) {
+			sorted[start[keys[e]]++] = e;
+		}
+		return sorted;
+	}
+
+	/**
+	 * @return the sparse matrix in CSR of the non null elements of matrix
+	 */
+	public static<K> SparseMatrix<K> of(Matrix<K> matrix, Ring<K> r){
+		return of(matrix, r, Object::equals);
+	}
+
+	/**
+	 * @param equals used to test if an element is null
+	 */
+	public static<K> SparseMatrix<K> of(Matrix<K> matrix, Ring<K> r, BiPredicate<K, K> equals){
+		Builder<K> builder = new Builder<K>(Format.CSR, matrix.dimRows(), matrix.dimCols(), 16, r, equals);
+		for (int i = 0; i < matrix.dimRows(); i++) {
+			for (int j = 0; j < matrix.dimCols(); j++) {
+				builder.add(j, matrix.get(i, j));
+			}
+			builder.endLine();
+		}
+		return builder.build();
+	}
+
+	public static<K> SparseMatrix<K> zeros(int n, int m){
+		return new SparseMatrix<K>(Format.CSR, n, m, new int[n+1], new int[0], new Object[0]);
+	}
+
+	public Matrix<K> toMatrix(Ring<K> r){
+		Matrix<K> matrix = Matrix.zeros(r, n, m);
+		for (int line = 0; line < majorDim(); line++) {
+			for (int k = ptr[line]; k < ptr[line+1]; k++) {
+				matrix.set(row(line, k), col(line, k), value(k));
+			}
+		}
+		return matrix;
+	}
+
+	public int dimRows() {
+		return n;
+	}
+
+	public int dimCols() {
+		return m;
+	}
+
+	public int[] dims() {
+		return new int[] {n, m};
+	}
+
+	public Format format() {
+		return format;
+	}
+
+	/**
+	 * @return the number of stored (non null) elements
+	 */
+	public int nnz() {
+		return ptr[majorDim()];
+	}
+
+	/**
+	 * O(log(nnz of the line)): a binary search in the line of the element
+	 */
+	public K get(int i, int j, Ring<K> r) {
+		int line = format == Format.CSR ? i : j;
+		int pos = Arrays.binarySearch(idx, ptr[line], ptr[line+1], format == Format.CSR ? j : i);
+		return pos >= 0 ? value(pos) : r.zero();
+	}
+
+	@SuppressWarnings("unchecked")
+	private K value(int k) {
+		return (K) values[k];
+	}
+
+	private int majorDim() {
+		return format == Format.CSR ? n : m;
+	}
+
+	private int minorDim() {
+		return format == Format.CSR ? m : n;
+	}
+
+	private int row(int line, int k) {
+		return format == Format.CSR ? line : idx[k];
+	}
+
+	private int col(int line, int k) {
+		return format == Format.CSR ? idx[k] : line;
+	}
+
+	/**
+	 * @return the transpose, on the same arrays (a CSR matrix becomes a CSC one and conversely)
+	 */
+	public SparseMatrix<K> transpose() {
+		return new SparseMatrix<K>(format == Format.CSR ? Format.CSC : Format.CSR, m, n, ptr, idx, values);
+	}
+
+	/**
+	 * @return this matrix in the given format (this if it is already in it)
+	 */
+	public SparseMatrix<K> toFormat(Format format) {
+		if(format == this.format) {
+			return this;
+		}
+		int minor = minorDim();
+		int[] newPtr = new int[minor+1];
+		for (int k = 0; k < nnz(); k++) {
+			newPtr[idx[k]+1]++;
+		}
+		for (int line = 0; line < minor; line++) {
+			newPtr[line+1] += newPtr[line];
+		}
+		int[] next = Arrays.copyOf(newPtr, minor);
+		int[] newIdx = new int[nnz()];
+		Object[] newValues = new Object[nnz()];
+		for (int line = 0; line < majorDim(); line++) {
+			for (int k = ptr[line]; k < ptr[line+1]; k++) {
+				int pos = next[idx[k]]++;
+				newIdx[pos] = line;
+				newValues[pos] = values[k];
+			}
+		}
+		return new SparseMatrix<K>(format, n, m, newPtr, newIdx, newValues);
+	}
+
+	public SparseMatrix<K> toCSR() {
+		return toFormat(Format.CSR);
+	}
+
+	public SparseMatrix<K> toCSC() {
+		return toFormat(Format.CSC);
+	}
+
+
+	/**
+	 * The product this x matrix: each stored element a(i,k) adds a(i,k).matrix(k) to the row i
+	 * of the result, the null elements are never multiplied
+	 */
+	public Matrix<K> prod(Matrix<K> matrix, Ring<K> r){
+		if(m != matrix.dimRows()) {
+			throw new NotMultipliableMatricesException(dims(), matrix.dims());
+		}
+		int p = matrix.dimCols();
+		Matrix<K> prod = Matrix.zeros(r, n, p);
+		for (int line = 0; line < majorDim(); line++) {
+			for (int k = ptr[line]; k < ptr[line+1]; k++) {
+				int i = row(line, k);
+				int l = col(line, k);
+				K a = value(k);
+				for (int j = 0; j < p; j++) {
+					prod.set(i, j, r.sum(prod.get(i, j), r.prod(a, matrix.get(l, j))));
+				}
+			}
+		}
+		return prod;
+	}
+
+	/**
+	 * The product matrix x this, through the stored elements only
+	 */
+	public Matrix<K> leftProd(Matrix<K> matrix, Ring<K> r){
+		if(matrix.dimCols() != n) {
+			throw new NotMultipliableMatricesException(matrix.dims(), dims());
+		}
+		int p = matrix.dimRows();
+		Matrix<K> prod = Matrix.zeros(r, p, m);
+		for (int line = 0; line < majorDim(); line++) {
+			for (int k = ptr[line]; k < ptr[line+1]; k++) {
+				int l = row(line, k);
+				int j = col(line, k);
+				K b = value(k);
+				for (int i = 0; i < p; i++) {
+					prod.set(i, j, r.sum(prod.get(i, j), r.prod(matrix.get(i, l), b)));
+				}
+			}
+		}
+		return prod;
+	}
+
+	/**
+	 * The product this x v where v is a column vector: O(nnz)
+	 */
+	public Vector<K> prod(Vector<K> v, Ring<K> r){
+		if(m != v.dim()) {
+			throw new NotMultipliableMatricesException(dims(), new int[] {v.dim(), 1});
+		}
+		Vector<K> prod = Vector.zero(n, r);
+		for (int line = 0; line < majorDim(); line++) {
+			for (int k = ptr[line]; k < ptr[line+1]; k++) {
+				int i = row(line, k);
+				prod.set(i, r.sum(prod.get(i), r.prod(value(k), v.get(col(line, k)))));
+			}
+		}
+		return prod;
+	}
+
+	/**
+	 * The product this x matrix of two sparse matrices, in CSR (Gustavson's algorithm):
+	 * the row i of the result is the sum of the rows k of matrix for the stored a(i,k),
+	 * accumulated in a dense row which only keeps track of the columns it has reached
+	 */
+	public SparseMatrix<K> prod(SparseMatrix<K> matrix, Ring<K> r){
+		if(m != matrix.n) {
+			throw new NotMultipliableMatricesException(dims(), matrix.dims());
+		}
+		SparseMatrix<K> a = toCSR();
+		SparseMatrix<K> b = matrix.toCSR();
+		int p = b.m;
+
+		Object[] acc = new Object[p];
+		int[] marker = new int[p];
+		Arrays.fill(marker, -1);
+		int[] cols = new int[p];
+
+		Builder<K> builder = new Builder<K>(Format.CSR, n, p, a.nnz()+b.nnz(), r, Object::equals);
+		for (int i = 0; i < n; i++) {
+			int count = 0;
+			for (int ka = a.ptr[i]; ka < a.ptr[i+1]; ka++) {
+				K aik = a.value(ka);
+				int k = a.idx[ka];
+				for (int kb = b.ptr[k]; kb < b.ptr[k+1]; kb++) {
+					int j = b.idx[kb];
+					K prod = r.prod(aik, b.value(kb));
+					if(marker[j] != i) {
+						marker[j] = i;
+						acc[j] = prod;
+						cols[count++] = j;
+					}
+					else {
+						@SuppressWarnings("unchecked")
+						K sum = r.sum((K) acc[j], prod);
+						acc[j] = sum;
+					}
+				}
+			}
+			Arrays.sort(cols, 0, count);
+			for (int c = 0; c < count; c++) {
+				@SuppressWarnings("unchecked")
+				K value = (K) acc[cols[c]];
+				builder.add(cols[c], value);
+				acc[cols[c]] = null;
+			}
+			builder.endLine();
+		}
+		return builder.build();
+	}
+
+	/**
+	 * The sum of two sparse matrices, in the format of this one: the lines are merged
+	 */
+	public SparseMatrix<K> plus(SparseMatrix<K> matrix, Ring<K> r){
+		return merge(matrix, r, true);
+	}
+
+	/**
+	 * The element-wise product of two sparse matrices, in the format of this one:
+	 * only the elements stored in both are computed
+	 */
+	public SparseMatrix<K> hadamardProd(SparseMatrix<K> matrix, Ring<K> r){
+		return merge(matrix, r, false);
+	}
+
+	private SparseMatrix<K> merge(SparseMatrix<K> matrix, Ring<K> r, boolean sum){
+		if(n != matrix.n || m != matrix.m) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		SparseMatrix<K> b = matrix.toFormat(format);
+		Builder<K> builder = new Builder<K>(format, n, m, sum ? nnz()+b.nnz() : Math.min(nnz(), b.nnz()), r, Object::equals);
+		for (int line = 0; line < majorDim(); line++) {
+			int ka = ptr[line];
+			int kb = b.ptr[line];
+			while (ka < ptr[line+1] || kb < b.ptr[line+1]) {
+				int ja = ka < ptr[line+1] ? idx[ka] : Integer.MAX_VALUE;
+				int jb = kb < b.ptr[line+1] ? b.idx[kb] : Integer.MAX_VALUE;
+				if(ja == jb) {
+					builder.add(ja, sum ? r.sum(value(ka), b.value(kb)) : r.prod(value(ka), b.value(kb)));
+					ka++;
+					kb++;
+				}
+				else if(ja < jb) {
+					if(sum) {
+						builder.add(ja, value(ka));
+					}
+					ka++;
+				}
+				else {
+					if(sum) {
+						builder.add(jb, b.value(kb));
+					}
+					kb++;
+				}
+			}
+			builder.endLine();
+		}
+		return builder.build();
+	}
+
+	/**
+	 * The element-wise product with a dense matrix, through the stored elements only
+	 */
+	public SparseMatrix<K> hadamardProd(Matrix<K> matrix, Ring<K> r){
+		if(!matrix.hasDim(dims())) {
+			throw new NotSameDimensionsException(dims(), matrix.dims());
+		}
+		return map(r, (line, k)->r.prod(value(k), matrix.get(row(line, k), col(line, k))));
+	}
+
+	/**
+	 * The product by a scalar
+	 */
+	public SparseMatrix<K> times(K k, Ring<K> r){
+		return map(r, (line, pos)->r.prod(k, value(pos)));
+	}
+
+	private SparseMatrix<K> map(Ring<K> r, LineFunction<K> f){
+		Builder<K> builder = new Builder<K>(format, n, m, nnz(), r, Object::equals);
+		for (int line = 0; line < majorDim(); line++) {
+			for (int k = ptr[line]; k < ptr[line+1]; k++) {
+				builder.add(idx[k], f.apply(line, k));
+			}
+			builder.endLine();
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Applies f to each stored element, which gives a sparse matrix of the same structure
+	 * (f should send zero to zero, so that the null elements don't change)
+	 */
+	public<L> SparseMatrix<L> elmtWise(Function<K, L> f){
+		Object[] mapped = new Object[nnz()];
+		for (int k = 0; k < mapped.length; k++) {
+			mapped[k] = f.apply(value(k));
+		}
+		return new SparseMatrix<L>(format, n, m, ptr, idx, mapped);
+	}
+
+
+	/**
+	 * Two sparse matrices are equal if they store the same elements at the same places,
+	 * whatever their formats
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(!(obj instanceof SparseMatrix)) {
+			return false;
+		}
+		SparseMatrix<?> other = ((SparseMatrix<?>) obj).toFormat(format);
+		return n == other.n && m == other.m
+				&& Arrays.equals(ptr, other.ptr)
+				&& Arrays.equals(Arrays.copyOf(idx, nnz()), Arrays.copyOf(other.idx, other.nnz()))
+				&& Arrays.equals(Arrays.copyOf(values, nnz()), Arrays.copyOf(other.values, other.nnz()));
+	}
+
+	@Override
+	public int hashCode() {
+		SparseMatrix<K> csr = toCSR();
+		return 31*Arrays.hashCode(csr.ptr)+Arrays.hashCode(Arrays.copyOf(csr.values, nnz()));
+	}
+
+	/**
+	 * @return the stored elements, one "(i,j) value" per line
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("("+n+","+m+") "+format+", "+nnz()+" elements");
+		SparseMatrix<K> csr = toCSR();
+		for (int i = 0; i < n; i++) {
+			for (int k = csr.ptr[i]; k < csr.ptr[i+1]; k++) {
+				s.append("\n("+i+","+csr.idx[k]+") "+csr.values[k]);
+			}
+		}
+		return s.toString();
+	}
+
+
+	@FunctionalInterface
+	private interface LineFunction<K> {
+		K apply(int line, int k);
+	}
+
+	/**
+	 * Builds the arrays of a sparse matrix line after line, without the null elements
+	 */
+	private static class Builder<K> {
+		private final Format format;
+		private final int n;
+		private final int m;
+		private final Ring<K> r;
+		private final BiPredicate<K, K> equals;
+		private final int[] ptr;
+		private int[] idx;
+		private Object[] values;
+		private int line = 0;
+		private int size = 0;
+
+		Builder(Format format, int n, int m, int capacity, Ring<K> r, BiPredicate<K, K> equals) {
+			this.format = format;
+			this.n = n;
+			this.m = m;
+			this.r = r;
+			this.equals = equals;
+			this.ptr = new int[(format == Format.CSR ? n : m)+1];
+			this.idx = new int[Math.max(capacity, 1)];
+			this.values = new Object[Math.max(capacity, 1)];
+		}
+
+		void add(int index, K value) {
+			if(equals.test(value, r.zero())) {
+				return;
+			}
+			if(size == idx.length) {
+				idx = Arrays.copyOf(idx, 2*size);
+				values = Arrays.copyOf(values, 2*size);
+			}
+			idx[size] = index;
+			values[size] = value;
+			size++;
+		}
+
+		void endLine() {
+			ptr[++line] = size;
+		}
+
+		SparseMatrix<K> build() {
+			return new SparseMatrix<K>(format, n, m, ptr, idx, values);
+		}
+	}
+}
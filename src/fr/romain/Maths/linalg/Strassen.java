@@ -0,0 +1,156 @@
+package fr.romain.Maths.linalg;
+
+import fr.romain.Maths.linalg.algstruct.Ring;
+
+/**
+ * This class computes the product of two square matrices with the Strassen-Winograd
+ * algorithm: 7 products of half size instead of 8 and 15 additions, applied recursively. <br>
+ * It only uses sum, sumInv and prod of the ring (never its commutativity), so it works over any
+ * Ring<K> which has an inverse for the sum (not on dioids). It is worth it when the product
+ * of two elements is expensive, like on a generic Matrix<Complex> or on matrices of matrices.
+ * MatC doesn't call it: its products are four real products on primitive planes (see
+ * DenseMatC.prod), which don't create any Complex and cost less than saving one product in
+ * eight on boxed elements. <br>
+ * Below the cutoff size the classical kernel of Gemm is used. Odd sizes are handled by peeling:
+ * the last row and column are removed for the recursive call and added back with
+ * matrix-vector products.
+ */
+public class Strassen {
+
+	private static int cutoff = 128;
+
+	/**
+	 * @param cutoff the size under which the classical product is used
+	 */
+	public static void setCutoff(int cutoff) {
+		if(cutoff < 1) {
+			throw new IllegalArgumentException("The cutoff has to be at least 1");
+		}
+		Strassen.cutoff = cutoff;
+	}
+
+	public static int getCutoff() {
+		return cutoff;
+	}
+
+	public static<K> Matrix<K> prod(Matrix<K> a, Matrix<K> b, Ring<K> r){
+		return prod(a, b, r, cutoff);
+	}
+
+	/**
+	 * @param cutoff the size under which the classical product is used
+	 * @return the product a x b of two square matrices of the same size
+	 */
+	public static<K> Matrix<K> prod(Matrix<K> a, Matrix<K> b, Ring<K> r, int cutoff){
+		if(!a.isSquare() || !b.isSquare()) {
+			throw new Matrix.NotSquareMatrixException("Strassen product");
+		}
+		if(!a.canBeProdTo(b)) {
+			throw new Matrix.NotMultipliableMatricesException(a.dims(), b.dims());
+		}
+		return recProd(a, b, r, Math.max(cutoff, 1));
+	}
+
+	private static<K> Matrix<K> recProd(Matrix<K> a, Matrix<K> b, Ring<K> r, int cutoff){
+		int n = a.dimRows();
+		if(n <= cutoff || n < 2) {
+			return Gemm.prod(a, b, r);
+		}
+		if(n%2 == 1) {
+			return peeledProd(a, b, r, cutoff);
+		}
+
+		int h = n/2;
+		Matrix<K> a11 = a.subMatrix(0, 0, h, h);
+		Matrix<K> a12 = a.subMatrix(0, h, h, h);
+		Matrix<K> a21 = a.subMatrix(h, 0, h, h);
+		Matrix<K> a22 = a.subMatrix(h, h, h, h);
+		Matrix<K> b11 = b.subMatrix(0, 0, h, h);
+		Matrix<K> b12 = b.subMatrix(0, h, h, h);
+		Matrix<K> b21 = b.subMatrix(h, 0, h, h);
+		Matrix<K> b22 = b.subMatrix(h, h, h, h);
+
+		Matrix<K> s1 = sum(a21, a22, r);
+		Matrix<K> s2 = minus(s1, a11, r);
+		Matrix<K> s3 = minus(a11, a21, r);
+		Matrix<K> s4 = minus(a12, s2, r);
+		Matrix<K> t1 = minus(b12, b11, r);
+		Matrix<K> t2 = minus(b22, t1, r);
+		Matrix<K> t3 = minus(b22, b12, r);
+		Matrix<K> t4 = minus(t2, b21, r);
+
+		Matrix<K> p1 = recProd(a11, b11, r, cutoff);
+		Matrix<K> p2 = recProd(a12, b21, r, cutoff);
+		Matrix<K> p3 = recProd(s4, b22, r, cutoff);
+		Matrix<K> p4 = recProd(a22, t4, r, cutoff);
+		Matrix<K> p5 = recProd(s1, t1, r, cutoff);
+		Matrix<K> p6 = recProd(s2, t2, r, cutoff);
+		Matrix<K> p7 = recProd(s3, t3, r, cutoff);
+
+		Matrix<K> c = new Matrix<K>(n, n);
+		Matrix<K> c11 = c.subMatrix(0, 0, h, h);
+		Matrix<K> c12 = c.subMatrix(0, h, h, h);
+		Matrix<K> c21 = c.subMatrix(h, 0, h, h);
+		Matrix<K> c22 = c.subMatrix(h, h, h, h);
+
+		//u2 = p1+p6, u3 = u2+p7, u4 = u2+p5
+		Matrix<K> u2 = sum(p1, p6, r);
+		Matrix<K> u3 = sum(u2, p7, r);
+		Matrix<K> u4 = sum(u2, p5, r);
+
+		sumInto(p1, p2, c11, r);
+		sumInto(u4, p3, c12, r);
+		minusInto(u3, p4, c21, r);
+		sumInto(u3, p5, c22, r);
+		return c;
+	}
+
+	/**
+	 * Product of two matrices of odd size n: the recursive product is done on the
+	 * (n-1)x(n-1) upper left blocks and the last row and column are added back
+	 */
+	private static<K> Matrix<K> peeledProd(Matrix<K> a, Matrix<K> b, Ring<K> r, int cutoff){
+		int n = a.dimRows();
+		int e = n-1;
+
+		Matrix<K> c = Matrix.zeros(r, n, n);
+		c.subMatrix(0, 0, e, e).assign(recProd(a.subMatrix(0, 0, e, e), b.subMatrix(0, 0, e, e), r, cutoff));
+
+		//the last column of a times the last row of b, on the whole matrix
+		Gemm.multiply(a.col(e), b.row(e), c, r, 0, n, 0, n);
+		//the first e columns of a times the last column of b
+		Gemm.multiply(a.subMatrix(0, 0, n, e), b.subMatrix(0, e, e, 1), c.col(e), r, 0, n, 0, 1);
+		//the last row of a times the first e columns of b
+		Gemm.multiply(a.subMatrix(e, 0, 1, e), b.subMatrix(0, 0, e, e), c.subMatrix(e, 0, 1, e), r, 0, 1, 0, e);
+		return c;
+	}
+
+	private static<K> Matrix<K> sum(Matrix<K> m1, Matrix<K> m2, Ring<K> r){
+		Matrix<K> sum = new Matrix<K>(m1.dims());
+		sumInto(m1, m2, sum, r);
+		return sum;
+	}
+
+	private static<K> Matrix<K> minus(Matrix<K> m1, Matrix<K> m2, Ring<K> r){
+		Matrix<K> minus = new Matrix<K>(m1.dims());
+		minusInto(m1, m2, minus, r);
+		return minus;
+	}
+
+	private static<K> void sumInto(Matrix<K> m1, Matrix<K> m2, Matrix<K> dest, Ring<K> r) {
+		for (int i = 0; i < dest.dimRows(); i++) {
+			for (int j = 0; j < dest.dimCols(); j++) {
+				dest.set(i, j, r.sum(m1.get(i, j), m2.get(i, j)));
+			}
+		}
+	}
+
+	private static<K> void minusInto(Matrix<K> m1, Matrix<K> m2, Matrix<K> dest, Ring<K> r) {
+		for (int i = 0; i < dest.dimRows(); i++) {
+			for (int j = 0; j < dest.dimCols(); j++) {
+				dest.set(i, j, r.minus(m1.get(i, j), m2.get(i, j)));
+			}
+		}
+	}
+
+}
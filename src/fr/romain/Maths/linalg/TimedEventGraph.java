@@ -0,0 +1,405 @@
+package fr.romain.Maths.linalg;
+
+import java.util.Arrays;
+
+import fr.romain.Maths.linalg.Matrix.NotMatchingDimensionsException;
+import fr.romain.Maths.linalg.Matrix.NotSquareMatrixException;
+
+/**
+ * This class simulates a timed event graph (a Petri net where each place has one input and one
+ * output transition) with the max-plus algebra: x(k+1) = A x(k), that is <br>
+ * x_i(k+1) = max_j (A(i,j) + x_j(k)) <br>
+ * where x_i(k) is the date of the k-th firing of the transition i and A(i,j) the delay of the
+ * arc from j to i (-infinity if there is no arc).
+ * <br><br>
+ * Only the arcs are stored (row after row, like a CSR matrix) and the state is kept in two
+ * arrays of doubles which are swapped at each step: the stepping loop doesn't allocate anything
+ * and costs O(number of arcs). <br>
+ * The asymptotic behaviour is given by the cycle time, lim x_i(k)/k: the maximum mean weight of
+ * the cycles upstream of i (the max-plus eigenvalue when A is irreducible). It is computed by
+ * the algorithm of Karp, O(n.arcs) operations and O(n^2) memory, or by the policy iteration of
+ * Howard, usually a few passes of O(arcs) each, which is the one for large sparse graphs.
+ */
+public class TimedEventGraph {
+
+	private static final double EPS = 1e-9;
+	private static final double NONE = Double.NEGATIVE_INFINITY;
+
+	private final int n;
+	private final int[] ptr;
+	private final int[] cols;
+	private final double[] delays;
+
+	private double[] x;
+	private double[] next;
+	private long k = 0;
+
+
+	/**
+	 * @param a the matrix of the delays, -infinity where there is no arc
+	 */
+	public TimedEventGraph(DenseMatR a) {
+		if(!a.isSquare()) {
+			throw new NotSquareMatrixException("timed event graph");
+		}
+		n = a.dimRows();
+		ptr = new int[n+1];
+		int arcs = 0;
+		for (double delay : a.getValues()) {
+			if(delay != NONE) {
+				arcs++;
+			}
+		}
+		cols = new int[arcs];
+		delays = new double[arcs];
+		int pos = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < n; j++) {
+				double delay = a.get(i, j);
+				if(delay != NONE) {
+					cols[pos] = j;
+					delays[pos++] = delay;
+				}
+			}
+			ptr[i+1] = pos;
+		}
+		x = new double[n];
+		next = new double[n];
+	}
+
+	public TimedEventGraph(Matrix<Double> a) {
+		this(DenseMatR.of(a));
+	}
+
+	/**
+	 * A graph of n transitions given by its arcs: the arc k goes from the transition from[k]
+	 * to the transition to[k] with the delay delays[k] (if there are several arcs between
+	 * two transitions, only the longest delay matters)
+	 */
+	public TimedEventGraph(int n, int[] to, int[] from, double[] delays) {
+		if(to.length != from.length || to.length != delays.length) {
+			throw new NotMatchingDimensionsException("There are "+to.length+" targets, "+from.length+" sources and "+delays.length+" delays");
+		}
+		this.n = n;
+		ptr = new int[n+1];
+		for (int t : to) {
+			ptr[t+1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			ptr[i+1] += ptr[i];
+		}
+		cols = new int[to.length];
+		this.delays = new double[to.length];
+		int[] pos = Arrays.copyOf(ptr, n);
+		for (int a = 0; a < to.length; a++) {
+			int p = pos[to[a]]++;
+			cols[p] = from[a];
+			this.delays[p] = delays[a];
+		}
+		x = new double[n];
+		next = new double[n];
+	}
+
+	public int size() {
+		return n;
+	}
+
+	/**
+	 * @return the number of steps done since the last setState
+	 */
+	public long steps() {
+		return k;
+	}
+
+	/**
+	 * Sets x(0)
+	 */
+	public void setState(double... x0) {
+		if(x0.length != n) {
+			throw new NotMatchingDimensionsException(x0.length+" != "+n);
+		}
+		System.arraycopy(x0, 0, x, 0, n);
+		k = 0;
+	}
+
+	/**
+	 * @return a copy of x(k)
+	 */
+	public double[] getState() {
+		return x.clone();
+	}
+
+	public double get(int i) {
+		return x[i];
+	}
+
+	/**
+	 * x(k+1) = A x(k), without any allocation
+	 */
+	public void step() {
+		for (int i = 0; i < n; i++) {
+			double max = NONE;
+			for (int a = ptr[i]; a < ptr[i+1]; a++) {
+				double date = delays[a]+x[cols[a]];
+				if(date > max) {
+					max = date;
+				}
+			}
+			next[i] = max;
+		}
+		double[] tmp = x;
+		x = next;
+		next = tmp;
+		k++;
+	}
+
+	/**
+	 * Does count steps
+	 */
+	public void run(long count) {
+		for (long step = 0; step < count; step++) {
+			step();
+		}
+	}
+
+
+	/**
+	 * The maximum mean weight of the cycles of the graph, by the algorithm of Karp: <br>
+	 * with D(k) = A^k 0 (the heaviest paths of length k), it is
+	 * max_i min_k (D(n)_i - D(k)_i)/(n-k) <br>
+	 * It needs O(n^2) memory, see howard() for big graphs
+	 * @return the maximum cycle mean, -infinity if the graph has no cycle
+	 */
+	public double cycleMean() {
+		double[] d = new double[(n+1)*n];
+		for (int step = 1; step <= n; step++) {
+			int prev = (step-1)*n;
+			int cur = step*n;
+			for (int i = 0; i < n; i++) {
+				double max = NONE;
+				for (int a = ptr[i]; a < ptr[i+1]; a++) {
+					double w = delays[a]+d[prev+cols[a]];
+					if(w > max) {
+						max = w;
+					}
+				}
+				d[cur+i] = max;
+			}
+		}
+
+		double lambda = NONE;
+		for (int i = 0; i < n; i++) {
+			double dn = d[n*n+i];
+			if(dn == NONE) {
+				continue;
+			}
+			double min = Double.POSITIVE_INFINITY;
+			for (int step = 0; step < n; step++) {
+				double dk = d[step*n+i];
+				if(dk != NONE) {
+					min = Math.min(min, (dn-dk)/(n-step));
+				}
+			}
+			lambda = Math.max(lambda, min);
+		}
+		return lambda;
+	}
+
+	/**
+	 * Computes the cycle time of each transition with the policy iteration of Howard. <br>
+	 * A policy chooses one input arc for each transition. For a policy, the graph of the chosen
+	 * arcs is made of cycles with trees going to them, which gives the cycle time chi and
+	 * a bias v of each transition. Then the policy is improved: first toward the inputs of
+	 * bigger cycle time, then, with the same cycle time, toward the ones which maximize
+	 * A(i,j) + v_j. It stops when nothing can be improved: then, for each transition,
+	 * chi_i = max_j chi_j and chi_i + v_i = max_j (A(i,j) + v_j) on the arcs j->i with chi_j = chi_i.
+	 * @throws IllegalArgumentException if a transition has no input arc
+	 */
+	public Spectrum howard() {
+		int[] policy = new int[n];
+		double[] policyDelays = new double[n];
+		for (int i = 0; i < n; i++) {
+			if(ptr[i] == ptr[i+1]) {
+				throw new IllegalArgumentException("The transition "+i+" has no input arc");
+			}
+			int best = ptr[i];
+			for (int a = ptr[i]+1; a < ptr[i+1]; a++) {
+				if(delays[a] > delays[best]) {
+					best = a;
+				}
+			}
+			policy[i] = cols[best];
+			policyDelays[i] = delays[best];
+		}
+
+		double[] chi = new double[n];
+		double[] v = new double[n];
+		int[] stamp = new int[n];
+		int[] stack = new int[n];
+		boolean[] done = new boolean[n];
+		int iterations = 0;
+
+		while (true) {
+			iterations++;
+			valueDetermination(policy, policyDelays, chi, v, stamp, stack, done);
+
+			//first kind of improvement: toward a bigger cycle time
+			boolean improved = false;
+			for (int i = 0; i < n; i++) {
+				int best = -1;
+				double bestChi = chi[i];
+				for (int a = ptr[i]; a < ptr[i+1]; a++) {
+					if(chi[cols[a]] > bestChi+EPS) {
+						best = a;
+						bestChi = chi[cols[a]];
+					}
+				}
+				if(best >= 0) {
+					policy[i] = cols[best];
+					policyDelays[i] = delays[best];
+					improved = true;
+				}
+			}
+			if(improved) {
+				continue;
+			}
+
+			//second kind: same cycle time, bigger A(i,j) + v_j
+			for (int i = 0; i < n; i++) {
+				int best = -1;
+				double bestValue = policyDelays[i]+v[policy[i]];
+				for (int a = ptr[i]; a < ptr[i+1]; a++) {
+					int j = cols[a];
+					if(Math.abs(chi[j]-chi[i]) <= EPS && delays[a]+v[j] > bestValue+EPS) {
+						best = a;
+						bestValue = delays[a]+v[j];
+					}
+				}
+				if(best >= 0) {
+					policy[i] = cols[best];
+					policyDelays[i] = delays[best];
+					improved = true;
+				}
+			}
+			if(!improved) {
+				return new Spectrum(chi, v, policy, iterations);
+			}
+		}
+	}
+
+	/**
+	 * Computes chi and v for the policy: on each cycle of the policy, chi is its mean weight and
+	 * the bias of one of its transitions keeps its previous value, then
+	 * chi_i = chi_policy(i) and v_i = A(i,policy(i)) - chi_i + v_policy(i) everywhere else
+	 */
+	private void valueDetermination(int[] policy, double[] policyDelays, double[] chi, double[] v,
+									int[] stamp, int[] stack, boolean[] done) {
+		Arrays.fill(stamp, -1);
+		Arrays.fill(done, false);
+
+		for (int s = 0; s < n; s++) {
+			if(done[s]) {
+				continue;
+			}
+			int i = s;
+			while (!done[i] && stamp[i] != s) {
+				stamp[i] = s;
+				i = policy[i];
+			}
+			if(!done[i]) {
+				//i is on a new cycle
+				double weight = 0;
+				int length = 0;
+				int j = i;
+				do {
+					weight += policyDelays[j];
+					length++;
+					j = policy[j];
+				} while (j != i);
+				double mean = weight/length;
+
+				int size = 0;
+				j = policy[i];
+				while (j != i) {
+					stack[size++] = j;
+					j = policy[j];
+				}
+				chi[i] = mean;
+				done[i] = true;
+				while (size > 0) {
+					int c = stack[--size];
+					chi[c] = mean;
+					v[c] = policyDelays[c]-mean+v[policy[c]];
+					done[c] = true;
+				}
+			}
+
+			//the tree from s down to the cycle
+			int size = 0;
+			for (int j = s; !done[j]; j = policy[j]) {
+				stack[size++] = j;
+			}
+			while (size > 0) {
+				int c = stack[--size];
+				chi[c] = chi[policy[c]];
+				v[c] = policyDelays[c]-chi[c]+v[policy[c]];
+				done[c] = true;
+			}
+		}
+	}
+
+
+	/**
+	 * The result of the policy iteration of Howard
+	 */
+	public static class Spectrum {
+		private final double[] cycleTimes;
+		private final double[] bias;
+		private final int[] policy;
+		private final int iterations;
+
+		Spectrum(double[] cycleTimes, double[] bias, int[] policy, int iterations) {
+			this.cycleTimes = cycleTimes;
+			this.bias = bias;
+			this.policy = policy;
+			this.iterations = iterations;
+		}
+
+		/**
+		 * @return lim x_i(k)/k for each transition i
+		 */
+		public double[] cycleTimes() {
+			return cycleTimes.clone();
+		}
+
+		/**
+		 * @return the bias v: when the cycle time is the same everywhere, it is a
+		 * max-plus eigenvector (A v = chi + v)
+		 */
+		public double[] bias() {
+			return bias.clone();
+		}
+
+		/**
+		 * @return for each transition, the input transition of the critical arc
+		 */
+		public int[] policy() {
+			return policy.clone();
+		}
+
+		public int iterations() {
+			return iterations;
+		}
+
+		/**
+		 * @return the biggest cycle time: the max-plus eigenvalue if the graph is strongly connected
+		 */
+		public double eigenvalue() {
+			double max = NONE;
+			for (double chi : cycleTimes) {
+				max = Math.max(max, chi);
+			}
+			return max;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package fr.romain.Maths.linalg;
+
+/**
+ * The kernels which copy the elements of a strided matrix into another one, whatever their
+ * strides: Matrix.assign (and so clone, transpose, augmCol, ...), DenseMatR.of and DenseMatR.t
+ * go through them. <br>
+ * A transposition is the copy where the strides of the source are swapped: one of the two
+ * matrices is then read, or written, down its columns, which misses the cache at each element
+ * with a naive double loop. The copy is cache-oblivious instead: the bigger dimension is split
+ * in two until a block is small enough for its rows in the source and in the destination to
+ * stay in L1 together, whatever the size of the cache lines.
+ */
+final class Transpose {
+
+	/**
+	 * The number of elements under which a block is not split anymore (32x32 doubles: 8 KB)
+	 */
+	static final int LEAF = 1024;
+
+	private Transpose() {}
+
+	/**
+	 * dst[dOff+i*dRs+j*dCs] = src[sOff+i*sRs+j*sCs] for i in [0, rows[ and j in [0, cols[
+	 */
+	static void copy(double[] src, int sOff, int sRs, int sCs, double[] dst, int dOff, int dRs, int dCs,
+					 int rows, int cols) {
+		if(rows*cols <= LEAF) {
+			for (int i = 0; i < rows; i++) {
+				int s = sOff+i*sRs;
+				int d = dOff+i*dRs;
+				for (int j = 0; j < cols; j++) {
+					dst[d+j*dCs] = src[s+j*sCs];
+				}
+			}
+		}
+		else if(rows >= cols) {
+			int half = rows/2;
+			copy(src, sOff, sRs, sCs, dst, dOff, dRs, dCs, half, cols);
+			copy(src, sOff+half*sRs, sRs, sCs, dst, dOff+half*dRs, dRs, dCs, rows-half, cols);
+		}
+		else {
+			int half = cols/2;
+			copy(src, sOff, sRs, sCs, dst, dOff, dRs, dCs, rows, half);
+			copy(src, sOff+half*sCs, sRs, sCs, dst, dOff+half*dCs, dRs, dCs, rows, cols-half);
+		}
+	}
+
+	/**
+	 * The same copy on references (generic matrices)
+	 */
+	static void copy(Object[] src, int sOff, int sRs, int sCs, Object[] dst, int dOff, int dRs, int dCs,
+					 int rows, int cols) {
+		if(rows*cols <= LEAF) {
+			for (int i = 0; i < rows; i++) {
+				int s = sOff+i*sRs;
+				int d = dOff+i*dRs;
+				for (int j = 0; j < cols; j++) {
+					dst[d+j*dCs] = src[s+j*sCs];
+				}
+			}
+		}
+		else if(rows >= cols) {
+			int half = rows/2;
+			copy(src, sOff, sRs, sCs, dst, dOff, dRs, dCs, half, cols);
+			copy(src, sOff+half*sRs, sRs, sCs, dst, dOff+half*dRs, dRs, dCs, rows-half, cols);
+		}
+		else {
+			int half = cols/2;
+			copy(src, sOff, sRs, sCs, dst, dOff, dRs, dCs, rows, half);
+			copy(src, sOff+half*sCs, sRs, sCs, dst, dOff+half*dCs, dRs, dCs, rows, cols-half);
+		}
+	}
+
+	/**
+	 * The same copy from boxed doubles (a MatR or any of its views) to primitive doubles
+	 */
+	static void unbox(Object[] src, int sOff, int sRs, int sCs, double[] dst, int dOff, int dRs, int dCs,
+					  int rows, int cols) {
+		if(rows*cols <= LEAF) {
+			for (int i = 0; i < rows; i++) {
+				int s = sOff+i*sRs;
+				int d = dOff+i*dRs;
+				for (int j = 0; j < cols; j++) {
+					dst[d+j*dCs] = (Double) src[s+j*sCs];
+				}
+			}
+		}
+		else if(rows >= cols) {
+			int half = rows/2;
+			unbox(src, sOff, sRs, sCs, dst, dOff, dRs, dCs, half, cols);
+			unbox(src, sOff+half*sRs, sRs, sCs, dst, dOff+half*dRs, dRs, dCs, rows-half, cols);
+		}
+		else {
+			int half = cols/2;
+			unbox(src, sOff, sRs, sCs, dst, dOff, dRs, dCs, rows, half);
+			unbox(src, sOff+half*sCs, sRs, sCs, dst, dOff+half*dCs, dRs, dCs, rows, cols-half);
+		}
+	}
+}
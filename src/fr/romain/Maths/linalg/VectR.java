@@ -8,27 +8,83 @@ public class VectR extends Vector<Double>{
 	private final Field<Double> f = Field.realsField();
 	
 	public VectR(int n) {
-		super(n);
+		super(new Double[n]);
 	}
 
 	public VectR(Double... values) {
 		super(values);
 	}
 	
+	public static VectR of(Vector<Double> v) {
+		VectR vect = new VectR(v.dim());
+		for (int i = 0; i < v.dim(); i++) {
+			vect.set(i, v.get(i));
+		}
+		return vect;
+	}
+	
 	public VectR plus(VectR v) {
-		return (VectR) plus(v, f);
+		VectR sum = new VectR(dim());
+		plusInto(v, sum, f);
+		return sum;
 	}
 	
 	public VectR minus(VectR v) {
-		return (VectR) minus(v, f);
+		VectR diff = new VectR(dim());
+		minusInto(v, diff, f);
+		return diff;
 	}
 	
 	public VectR dot(double k) {
-		return (VectR) times(k, f);
+		VectR times = new VectR(dim());
+		timesInto(k, times, f);
+		return times;
+	}
+	
+	public void plusInto(VectR v, VectR dest) {
+		plusInto(v, dest, f);
+	}
+	
+	public void minusInto(VectR v, VectR dest) {
+		minusInto(v, dest, f);
+	}
+	
+	public void plusInPlace(VectR v) {
+		plusInto(v, this, f);
+	}
+	
+	public void minusInPlace(VectR v) {
+		minusInto(v, this, f);
+	}
+	
+	public void scaleInPlace(double k) {
+		timesInto(k, this, f);
+	}
+	
+	/**
+	 * this = this + alpha.x
+	 */
+	public void axpy(double alpha, VectR x) {
+		axpy(alpha, x, f);
 	}
 	
 	public double norm2() {
-		return Reals.norm2(getValues());
+		double sum = 0;
+		for (Double x : getValues()) {
+			sum += x*x;
+		}
+		return Math.sqrt(sum);
+	}
+	
+	/**
+	 * @return ||this - v||^2, in one pass without creating the difference
+	 */
+	public double squaredDistance(VectR v) {
+		return squaredDistance(v, f);
+	}
+	
+	public double distance(VectR v) {
+		return Math.sqrt(squaredDistance(v));
 	}
 	
 	public double max() {
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.BiPredicate;
 
+import fr.romain.Maths.linalg.algstruct.Accumulator;
 import fr.romain.Maths.linalg.algstruct.Ring;
 
 public class Vector<K>{
@@ -53,37 +54,90 @@ public class Vector<K>{
 	}
 	
 	public Vector<K> plus(Vector<K> v, Ring<K> r) throws IllegalArgumentException{
-		if (dim()!=v.dim())
-			throw new IllegalArgumentException("the two vectors doesn't have the same dimensions. The sum is thus impossible");
-		
 		Vector<K> sum = new Vector<K>(dim());
-		for (int i = 0; i < sum.dim(); i++) {
-			sum.set(i, r.sum(get(i), v.get(i)));
-		}
-		
+		plusInto(v, sum, r);
 		return sum;
 	}
 	
-	/**
-	 * It is due to -1*a=-a and a-b := a+(-b)
-	 * @param v
-	 * @param r
-	 * @return
-	 */
 	public Vector<K> minus(Vector<K> v,Ring<K> r){
-		return plus(v.times(r.sumInv(r.one()), r), r);
+		Vector<K> diff = new Vector<K>(dim());
+		minusInto(v, diff, r);
+		return diff;
 	}
 	
 	public Vector<K> times(K k, Ring<K> r){
 		Vector<K> times = new Vector<K>(dim());
-		for (int i = 0; i < times.dim(); i++) {
-			times.set(i, r.prod(k, get(i)));
-		}
+		timesInto(k, times, r);
 		return times;
 	}
 	
+	private void checkDim(Vector<K> v, String operation) {
+		if (dim()!=v.dim())
+			throw new IllegalArgumentException("the two vectors doesn't have the same dimensions. The "+operation+" is thus impossible");
+	}
+	
+	/**
+	 * dest = this + v. dest may be this or v: each element is read before being written at the same place
+	 */
+	public void plusInto(Vector<K> v, Vector<K> dest, Ring<K> r) throws IllegalArgumentException{
+		checkDim(v, "sum");
+		checkDim(dest, "sum");
+		for (int i = 0; i < dim(); i++) {
+			dest.values[i] = r.sum(get(i), v.get(i));
+		}
+	}
+	
+	/**
+	 * dest = this - v. dest may be this or v
+	 */
+	public void minusInto(Vector<K> v, Vector<K> dest, Ring<K> r) throws IllegalArgumentException{
+		checkDim(v, "difference");
+		checkDim(dest, "difference");
+		for (int i = 0; i < dim(); i++) {
+			dest.values[i] = r.minus(get(i), v.get(i));
+		}
+	}
+	
+	/**
+	 * dest = k.this, dest may be this
+	 */
+	public void timesInto(K k, Vector<K> dest, Ring<K> r) throws IllegalArgumentException{
+		checkDim(dest, "product");
+		for (int i = 0; i < dim(); i++) {
+			dest.values[i] = r.prod(k, get(i));
+		}
+	}
+	
+	public void plusInPlace(Vector<K> v, Ring<K> r) {
+		plusInto(v, this, r);
+	}
+	
+	public void minusInPlace(Vector<K> v, Ring<K> r) {
+		minusInto(v, this, r);
+	}
+	
+	public void scaleInPlace(K k, Ring<K> r) {
+		timesInto(k, this, r);
+	}
+	
+	/**
+	 * this = this + alpha.x, without any intermediate vector
+	 */
+	public void axpy(K alpha, Vector<K> x, Ring<K> r) throws IllegalArgumentException{
+		checkDim(x, "sum");
+		for (int i = 0; i < dim(); i++) {
+			values[i] = r.sum(get(i), r.prod(alpha, x.get(i)));
+		}
+	}
+	
 	public boolean isNull(Ring<K> r, BiPredicate<K, K> equals) {
-		return equals(zero(dim(), r), equals);
+		K zero = r.zero();
+		for (int i = 0; i < dim(); i++) {
+			if(!equals.test(get(i), zero)) {
+				return false;
+			}
+		}
+		return true;
 	}
 	
 	public static<K> Vector<K> zero(int dim,Ring<K> r){
@@ -98,12 +152,25 @@ public class Vector<K>{
 		if(dim()!=v.dim())
 			throw new IllegalArgumentException("the two vectors doesn't have the same dimensions. The scalar product is thus impossible");
 		
-		K scalarProd = r.zero();
+		Accumulator<K> scalarProd = r.accumulator();
 		for (int i = 0; i < dim(); i++) {
-			scalarProd = r.sum(scalarProd, r.prod(get(i), v.get(i)));
+			scalarProd.addProd(get(i), v.get(i));
 		}
 		
-		return scalarProd;
+		return scalarProd.get();
+	}
+	
+	/**
+	 * @return the scalar product of this - v by itself, without creating the difference
+	 */
+	public K squaredDistance(Vector<K> v,Ring<K> r) throws IllegalArgumentException{
+		checkDim(v, "distance");
+		Accumulator<K> dist = r.accumulator();
+		for (int i = 0; i < dim(); i++) {
+			K d = r.minus(get(i), v.get(i));
+			dist.addProd(d, d);
+		}
+		return dist.get();
 	}
 	
 	/**
@@ -125,7 +192,7 @@ public class Vector<K>{
 	public static<K> K determinant(Ring<K> r,Vector<K>... vectors) throws IllegalArgumentException{
 		if(vectors.length!=vectors[0].dim())
 			throw new IllegalArgumentException("It must be as much vectors as the dimension");
-		return Matrix.byRows(vectors).recDet(r);
+		return Matrix.byRows(vectors).det(r);
 	}
 	
 	public static<K> Vector<K> oneAt(int i,int dim,Ring<K> r){
@@ -0,0 +1,64 @@
+package fr.romain.Maths.linalg.algstruct;
+
+/**
+ * This interface represents a running sum on a ring, like the sums of products of the
+ * product of matrices or of the scalar product. <br>
+ * The default one (see of) just chains the sum and the product of the ring, but a ring whose
+ * elements are immutable objects can give one which accumulates in place and creates only the
+ * final element (see Ring.complexRing).
+ *
+ * @param <K>
+ */
+public interface Accumulator<K> {
+
+	/**
+	 * sum = sum + e
+	 */
+	void add(K e);
+
+	/**
+	 * sum = sum + e1 x e2
+	 */
+	void addProd(K e1, K e2);
+
+	/**
+	 * @return the current sum
+	 */
+	K get();
+
+	/**
+	 * sum = zero
+	 */
+	void reset();
+
+
+	/**
+	 * @return an accumulator which uses the sum and the product of r, starting from zero
+	 */
+	public static<K> Accumulator<K> of(Ring<K> r){
+		return new Accumulator<K>() {
+
+			private K sum = r.zero();
+
+			@Override
+			public void add(K e) {
+				sum = r.sum(sum, e);
+			}
+
+			@Override
+			public void addProd(K e1, K e2) {
+				sum = r.sum(sum, r.prod(e1, e2));
+			}
+
+			@Override
+			public K get() {
+				return sum;
+			}
+
+			@Override
+			public void reset() {
+				sum = r.zero();
+			}
+		};
+	}
+}
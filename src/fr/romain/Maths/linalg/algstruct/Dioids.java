@@ -0,0 +1,18 @@
+package fr.romain.Maths.linalg.algstruct;
+
+/**
+ * The dioids on reals and the booleans, built only once: an operation can then recognize them (by reference)
+ * and use a kernel on primitive doubles instead of the lambdas of the ring
+ */
+final class Dioids {
+
+	static final Ring<Double> REALS_MAX = Ring.of(Math::max, Double::sum, Double.NEGATIVE_INFINITY, 0., null);
+
+	static final Ring<Double> REALS_MIN = Ring.of(Math::min, Double::sum, Double.POSITIVE_INFINITY, 0., null);
+
+	static final Ring<Boolean> BOOLS = Ring.of((e1,e2)->e1||e2, (e1,e2)->e1&&e2, false, true, e->false);
+
+	static final Field<Boolean> BOOLS_FIELD = Field.of(BOOLS, e->true);
+
+	private Dioids() {}
+}
@@ -3,7 +3,10 @@ package fr.romain.Maths.linalg.algstruct;
 import java.util.List;
 import java.util.function.BiFunction;
 
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.Gemm;
 import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.Pairwise;
 import fr.romain.Maths.linalg.Vector;
 import fr.romain.Maths.utils.Complex;
 import fr.romain.Maths.utils.Reals;
@@ -21,20 +24,46 @@ public interface Euclidean<E> extends VectorSpace<Double, E> {
 	 */
 	double scalarProd(E e1, E e2);
 	
+	/**
+	 * @return scalarProd(e,e), the square of the norm (without its square root)
+	 */
+	default double squaredNorm(E e) {
+		return scalarProd(e, e);
+	}
+	
 	default double norm(E e) {
-		return Math.sqrt(scalarProd(e, e));
+		return Math.sqrt(squaredNorm(e));
+	}
+	
+	/**
+	 * By default the difference e1 - e2 is created, the spaces of matrices and of vectors
+	 * below compute it in one pass instead
+	 * @return the square of the distance
+	 */
+	default double squaredDistance(E e1, E e2) {
+		return squaredNorm(minus(e1, e2));
 	}
 	 
 	default double distance(E e1, E e2) {
-		return norm(minus(e1, e2));
+		return Math.sqrt(squaredDistance(e1, e2));
 	}
 	
+	/**
+	 * The two norms are taken under a single square root
+	 */
 	default double cos(E e1, E e2) {
-		return scalarProd(e1, e2)/(norm(e1)*norm(e2));
+		return scalarProd(e1, e2)/Math.sqrt(squaredNorm(e1)*squaredNorm(e2));
 	}
 	
+	/**
+	 * @return sqrt(1 - cos^2), in [0,1] (the angle between two vectors isn't oriented)
+	 */
 	default double sin(E e1,E e2) {
-		return Math.sqrt(1-cos(e1, e2));
+		return sin(cos(e1, e2));
+	}
+	
+	private static double sin(double cos) {
+		return Math.sqrt(Math.max(0., 1-cos*cos));
 	}
 	
 	default boolean areOrthogonal(E e1,E e2) {
@@ -50,15 +79,51 @@ public interface Euclidean<E> extends VectorSpace<Double, E> {
 	 * @param e1
 	 * @param e2
 	 * @return the rotation matrix defined by the angle between the two vectors
+	 * (the cosine is computed once, and the sine from it)
 	 */
 	default Matrix<Double> rotationMatrix(E e1,E e2) {
+		double cos = cos(e1, e2);
+		double sin = sin(cos);
 		
-		return new Matrix<Double>(new Double[][] {{cos(e1,e2),-sin(e1,e2)},
-												  {sin(e1,e2),cos(e1,e2)}});
+		return new Matrix<Double>(new Double[][] {{cos,-sin},
+												  {sin,cos}});
 		
 	}
 	
+	/**
+	 * @return the Gram matrix G(i,j) = scalarProd(ei, ej) of the elements, computed by tiles in
+	 * parallel on the pool of Gemm, only on and above the diagonal (see Pairwise)
+	 */
+	default DenseMatR gram(List<E> elements) {
+		return Pairwise.gram(elements, this::scalarProd, Gemm.getPool());
+	}
+	
+	/**
+	 * @return the matrix D(i,j) = distance(ei, ej) of the elements, computed like gram
+	 */
+	default DenseMatR pairwiseDistances(List<E> elements) {
+		return Pairwise.distances(elements, this::squaredDistance, Gemm.getPool());
+	}
+	
+	/**
+	 * @return the distances from e to each of the elements
+	 */
+	default double[] distances(E e, List<E> elements) {
+		return Pairwise.distances(e, elements, this::squaredDistance, Gemm.getPool());
+	}
+	
 	public static<E> Euclidean<E> of(VectorSpace<Double, E> vs, BiFunction<E, E, Double> scalarProd, Field<Double> f){
+		return of(vs, scalarProd, (e1, e2)->{
+			E diff = vs.minus(e1, e2);
+			return scalarProd.apply(diff, diff);
+		}, f);
+	}
+	
+	/**
+	 * @param squaredDistance computes the square of the distance, usually without creating the difference
+	 */
+	public static<E> Euclidean<E> of(VectorSpace<Double, E> vs, BiFunction<E, E, Double> scalarProd,
+									 BiFunction<E, E, Double> squaredDistance, Field<Double> f){
 		return new Euclidean<E>() {
 
 			@Override
@@ -81,6 +146,11 @@ public interface Euclidean<E> extends VectorSpace<Double, E> {
 				return scalarProd.apply(e1, e2);
 			}
 
+			@Override
+			public double squaredDistance(E e1, E e2) {
+				return squaredDistance.apply(e1, e2);
+			}
+
 			@Override
 			public Field<Double> field() {
 				return f;
@@ -94,16 +164,30 @@ public interface Euclidean<E> extends VectorSpace<Double, E> {
 	}
 	
 	
+	/**
+	 * The scalar product Tr(tAxB) and the distance are reductions in one pass on the elements
+	 * (see Matrix.scalarProd and Matrix.squaredDistance): no product nor difference is created. <br>
+	 * The batch operations flatten the matrices in the rows of one DenseMatR (see RealEuclidean)
+	 */
 	public static Euclidean<Matrix<Double>> matricesEuclidean(int dimLines, int dimCols){
-		return of(VectorSpace.matricesVS(dimLines, dimCols, Field.realsField()), 
-				 (m1,m2)->m1.scalarProd(m2, Field.realsField()),
-				 Field.realsField());
+		Field<Double> reals = Field.realsField();
+		return new RealEuclidean<Matrix<Double>>(of(VectorSpace.matricesVS(dimLines, dimCols, reals), 
+													(m1,m2)->m1.scalarProd(m2, reals),
+													(m1,m2)->m1.squaredDistance(m2, reals),
+													reals),
+												 Pairwise::flatRows);
 	}
 	
+	/**
+	 * The batch operations pack the vectors in the rows of one DenseMatR (see RealEuclidean)
+	 */
 	public static Euclidean<Vector<Double>> vectorsEuclidean(int dim){
-		return of(VectorSpace.vectorsVS(dim, Field.realsField()),
-				  (v1,v2)->v1.scalarProd(v2,Field.realsField()), 
-				  Field.realsField());
+		Field<Double> reals = Field.realsField();
+		return new RealEuclidean<Vector<Double>>(of(VectorSpace.vectorsVS(dim, reals),
+													(v1,v2)->v1.scalarProd(v2, reals), 
+													(v1,v2)->v1.squaredDistance(v2, reals),
+													reals),
+												 Pairwise::rows);
 	}
 	
 	
@@ -12,7 +12,7 @@ import fr.romain.Maths.utils.Complex;
  *
  * @param <K>
  */
-public interface Field<K> extends Ring<K> {
+public interface Field<K> extends IntegralDomain<K> {
 
 	/**
 	 * It has to verify:
@@ -32,7 +32,31 @@ public interface Field<K> extends Ring<K> {
 		return prod(k1, prodInv(k2));
 	}
 	
+	/**
+	 * In a field, any non null element divides any other one
+	 */
+	@Override
+	default K exactDiv(K a, K b) {
+		return div(a, b);
+	}
+	
+	/**
+	 * An absolute value on K, used to choose the pivots of the eliminations (partial pivoting,
+	 * see LUDecomposition): the pivot of a column is its element of biggest absolute value.
+	 * @return null if K has none (exact fields): the pivot is then the first non null element
+	 */
+	default Function<K, Double> abs() {
+		return null;
+	}
+	
 	public static<K> Field<K> of(Ring<K> r,Function<K, K> prodInv){
+		return of(r, prodInv, null);
+	}
+	
+	/**
+	 * @param abs the absolute value used to choose the pivots (see abs())
+	 */
+	public static<K> Field<K> of(Ring<K> r,Function<K, K> prodInv, Function<K, Double> abs){
 		return new Field<K>() {
 
 			@Override
@@ -60,24 +84,37 @@ public interface Field<K> extends Ring<K> {
 				return r.sumInv(e);
 			}
 
+			@Override
+			public Accumulator<K> accumulator() {
+				return r.accumulator();
+			}
+
 			@Override
 			public K prodInv(K k) {
 				return prodInv.apply(k);
 			}
+
+			@Override
+			public Function<K, Double> abs() {
+				return abs;
+			}
 		};
 	}
 	
 	
 	public static Field<Double> realsField(){
-		return of(Ring.realsRing(), x->1/x);
+		return of(Ring.realsRing(), x->1/x, Math::abs);
 	}
 	
 	public static Field<Complex> complexField(){
-		return of(Ring.complexRing(), z->z.inv());
+		return of(Ring.complexRing(), z->z.inv(), Complex::module);
 	}
 	
+	/**
+	 * Always the same instance, on which the matrices use the bitsets of BoolMatrix
+	 */
 	public static Field<Boolean> boolsField(){
-		return of(Ring.boolsRing(), e->true);
+		return Dioids.BOOLS_FIELD;
 	}
 	
 }
@@ -0,0 +1,77 @@
+package fr.romain.Maths.linalg.algstruct;
+
+import java.math.BigInteger;
+import java.util.function.BinaryOperator;
+
+/**
+ * This interface represents a commutative ring without zero divisors (an integral domain)
+ * on which we can divide a by b whenever b divides a. <br>
+ * It is all that the Bareiss algorithm needs to compute a determinant in O(n^3) without
+ * leaving K (no fraction): integers, polynomials, ... <br>
+ * Every field is an integral domain where the exact division is the usual division.
+ *
+ * @param <K>
+ */
+public interface IntegralDomain<K> extends Ring<K> {
+
+	/**
+	 * The exact division. It has to verify, when b divides a and b != zero(): <br>
+	 * prod(exactDiv(a,b),b) == a
+	 * @param a
+	 * @param b
+	 * @return the element q such that a = q*b
+	 */
+	K exactDiv(K a, K b);
+
+
+	public static<K> IntegralDomain<K> of(Ring<K> r, BinaryOperator<K> exactDiv){
+		return new IntegralDomain<K>() {
+
+			@Override
+			public K sum(K e1, K e2) {
+				return r.sum(e1, e2);
+			}
+
+			@Override
+			public K prod(K e1, K e2) {
+				return r.prod(e1, e2);
+			}
+
+			@Override
+			public K zero() {
+				return r.zero();
+			}
+
+			@Override
+			public K one() {
+				return r.one();
+			}
+
+			@Override
+			public K sumInv(K e) {
+				return r.sumInv(e);
+			}
+
+			@Override
+			public Accumulator<K> accumulator() {
+				return r.accumulator();
+			}
+
+			@Override
+			public K exactDiv(K a, K b) {
+				return exactDiv.apply(a, b);
+			}
+		};
+	}
+
+
+	public static IntegralDomain<Long> integersDomain(){
+		return of(Ring.of(Long::sum, (e1,e2)->e1*e2, 0L, 1L, e->-e), (a,b)->a/b);
+	}
+
+	public static IntegralDomain<BigInteger> bigIntegersDomain(){
+		return of(Ring.of(BigInteger::add, BigInteger::multiply, BigInteger.ZERO, BigInteger.ONE, BigInteger::negate),
+				  BigInteger::divide);
+	}
+
+}
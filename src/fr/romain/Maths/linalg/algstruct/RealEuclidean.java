@@ -0,0 +1,86 @@
+package fr.romain.Maths.linalg.algstruct;
+
+import java.util.List;
+import java.util.function.Function;
+
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.Pairwise;
+
+/**
+ * An euclidean space whose elements are made of real numbers (vectors, matrices): its batch
+ * operations pack the elements in the rows of one DenseMatR, once, then work on the primitive
+ * rows (see Pairwise) instead of calling the scalar product on each pair. <br>
+ * Everything else is delegated to the given euclidean space.
+ *
+ * @param <E> the type of the elements
+ */
+class RealEuclidean<E> implements Euclidean<E> {
+
+	private final Euclidean<E> e;
+
+	/**
+	 * Puts each element of a list in a row, so that the dot product of two rows is the scalar
+	 * product of the two elements
+	 */
+	private final Function<List<E>, DenseMatR> pack;
+
+
+	RealEuclidean(Euclidean<E> e, Function<List<E>, DenseMatR> pack) {
+		this.e = e;
+		this.pack = pack;
+	}
+
+	@Override
+	public E sum(E e1, E e2) {
+		return e.sum(e1, e2);
+	}
+
+	@Override
+	public E times(Double k, E e1) {
+		return e.times(k, e1);
+	}
+
+	@Override
+	public E zero() {
+		return e.zero();
+	}
+
+	@Override
+	public Field<Double> field() {
+		return e.field();
+	}
+
+	@Override
+	public List<E> getBasis() {
+		return e.getBasis();
+	}
+
+	@Override
+	public double scalarProd(E e1, E e2) {
+		return e.scalarProd(e1, e2);
+	}
+
+	@Override
+	public double squaredDistance(E e1, E e2) {
+		return e.squaredDistance(e1, e2);
+	}
+
+	@Override
+	public DenseMatR gram(List<E> elements) {
+		return Pairwise.gram(pack.apply(elements));
+	}
+
+	/**
+	 * No Gram matrix is built: the squared norms of the rows are computed once, then each pair
+	 * takes one dot product, ||a-b||^2 = ||a||^2 + ||b||^2 - 2a.b (see Pairwise.distances)
+	 */
+	@Override
+	public DenseMatR pairwiseDistances(List<E> elements) {
+		return Pairwise.distances(pack.apply(elements));
+	}
+
+	@Override
+	public double[] distances(E e1, List<E> elements) {
+		return Pairwise.distances(pack.apply(List.of(e1)).getValues(), pack.apply(elements));
+	}
+}
@@ -5,6 +5,7 @@ import java.util.function.Function;
 
 import fr.romain.Maths.linalg.Matrix;
 import fr.romain.Maths.utils.Complex;
+import fr.romain.Maths.utils.MutableComplex;
 
 /**
  * <p>
@@ -69,16 +70,32 @@ public interface Ring<K> {
 	
 
 	default K pow(K e,int k) {
-		if(k==0) {
+		return pow(e, (long) k);
+	}
+	
+	/**
+	 * Computes e^k by square-and-multiply: O(log k) products
+	 * @param k has to be positive
+	 */
+	default K pow(K e, long k) {
+		if(k < 0) {
+			throw new IllegalArgumentException("The exponent has to be positive");
+		}
+		if(k == 0) {
 			return one();
 		}
-		if(k==1)
-			return e;
-		if (k%2==0) {
-			return prod(pow(e,k/2),pow(e, k/2));
+		K pow = null;
+		K square = e;
+		while (true) {
+			if((k & 1) == 1) {
+				pow = pow == null ? square : prod(pow, square);
+			}
+			k >>= 1;
+			if(k == 0) {
+				return pow;
+			}
+			square = prod(square, square);
 		}
-		
-		return prod(prod(pow(e,(k-1)/2),pow(e, (k-1)/2)),e);
 	}
 	
 	
@@ -114,6 +131,14 @@ public interface Ring<K> {
 		return sum(e1, sumInv(e2));
 	}
 	
+	/**
+	 * @return a new accumulator starting from zero, for the loops which sum many products
+	 * (see Accumulator). By default it chains sum and prod
+	 */
+	default Accumulator<K> accumulator() {
+		return Accumulator.of(this);
+	}
+	
 		
 	public static<K> Ring<K> of(BinaryOperator<K> sum,BinaryOperator<K> prod, 
 								K zero, K one,Function<K, K> sumInv){
@@ -148,21 +173,135 @@ public interface Ring<K> {
 	
 
 	
+	/**
+	 * Its accumulator sums in a primitive double: a sum of n products boxes only the final double
+	 */
 	public static Ring<Double> realsRing(){
-		return of(Double::sum, (e1, e2)->e1*e2, 0.,1.,e->-1*e);
+		return new Ring<Double>() {
+
+			@Override
+			public Double sum(Double e1, Double e2) {
+				return e1+e2;
+			}
+
+			@Override
+			public Double prod(Double e1, Double e2) {
+				return e1*e2;
+			}
+
+			@Override
+			public Double zero() {
+				return 0.;
+			}
+
+			@Override
+			public Double one() {
+				return 1.;
+			}
+
+			@Override
+			public Double sumInv(Double e) {
+				return -e;
+			}
+
+			@Override
+			public Accumulator<Double> accumulator() {
+				return new Accumulator<Double>() {
+
+					private double sum = 0;
+
+					@Override
+					public void add(Double e) {
+						sum += e;
+					}
+
+					@Override
+					public void addProd(Double e1, Double e2) {
+						sum += e1*e2;
+					}
+
+					@Override
+					public Double get() {
+						return sum;
+					}
+
+					@Override
+					public void reset() {
+						sum = 0;
+					}
+				};
+			}
+		};
 	}
 	
+	/**
+	 * Its accumulator sums in place in a MutableComplex: a sum of n products creates one
+	 * Complex instead of 2n
+	 */
 	public static Ring<Complex> complexRing(){
-		return of((z1,z2)->z1.plus(z2),
-				  (z1,z2)->z1.prod(z2),
-				  Complex.zero,
-				  Complex.one,
-				  z->z.prod(Complex.of(-1)));
+		return new Ring<Complex>() {
+
+			@Override
+			public Complex sum(Complex z1, Complex z2) {
+				return z1.plus(z2);
+			}
+
+			@Override
+			public Complex prod(Complex z1, Complex z2) {
+				return z1.prod(z2);
+			}
+
+			@Override
+			public Complex zero() {
+				return Complex.zero;
+			}
+
+			@Override
+			public Complex one() {
+				return Complex.one;
+			}
+
+			@Override
+			public Complex sumInv(Complex z) {
+				return new Complex(-z.getReal(), -z.getIm());
+			}
+
+			@Override
+			public Accumulator<Complex> accumulator() {
+				MutableComplex sum = new MutableComplex();
+				return new Accumulator<Complex>() {
+
+					@Override
+					public void add(Complex z) {
+						sum.add(z);
+					}
+
+					@Override
+					public void addProd(Complex z1, Complex z2) {
+						sum.addProd(z1, z2);
+					}
+
+					@Override
+					public Complex get() {
+						return sum.toComplex();
+					}
+
+					@Override
+					public void reset() {
+						sum.reset();
+					}
+				};
+			}
+		};
 	}
 	
 	
+	/**
+	 * The booleans with OR and AND: always the same instance, on which the matrices use
+	 * the bitsets of BoolMatrix
+	 */
 	public static Ring<Boolean> boolsRing(){
-		return of((e1,e2)->e1||e2, (e1,e2)->e1&&e2, false, true,e->false);
+		return Dioids.BOOLS;
 	}
 	
 	/**
@@ -198,15 +337,20 @@ public interface Ring<K> {
 	 * Therefore, we put the sum inv on null <br>
 	 * It is only an half-ring and, particularly, a Dioïde. <br>
 	 * This structure is however really interessant because it is useful to
-	 * study Petri Networks
+	 * study Petri Networks (see TimedEventGraph) <br>
+	 * It is always the same instance, on which the products of matrices use the kernel of MaxPlus
 	 * @return
 	 */
 	public static Ring<Double> realsDioideMax(){
-		return of(Math::max, Double::sum, Double.NEGATIVE_INFINITY, 0.,null);
+		return Dioids.REALS_MAX;
 	}
 	
+	/**
+	 * The min-plus dioid: always the same instance, on which the products of matrices
+	 * use the kernel of MinPlus
+	 */
 	public static Ring<Double> realsDioideMin(){
-		return of(Math::min, Double::sum, Double.POSITIVE_INFINITY, 0.,null);
+		return Dioids.REALS_MIN;
 	}
 	
 }
@@ -164,7 +164,7 @@ public interface VectorSpace<K,E> {
 						   (k,e)->e.times(k,f), 
 						   Matrix.zeros(f,dimLines,dimCols),
 						   f,
-						   Matrix.canonicalBasis(f, dimLines*dimCols));
+						   Matrix.canonicalBasis(f, dimLines, dimCols));
 	}
 	
 	
@@ -2,6 +2,8 @@ package fr.romain.Maths.mlearn;
 
 import java.util.function.Function;
 
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.MatExpr;
 import fr.romain.Maths.linalg.MatR;
 import fr.romain.Maths.linalg.VectR;
 
@@ -21,30 +23,35 @@ public class Classification extends Regression {
 		super(designMatrix,outputs);
 	}
 	
+	/**
+	 * J(theta) = -(t(y) x log(g) + t(1-y) x log(1-g))/m where g = logistic(X x theta) <br>
+	 * Everything but the product X x theta, on the copy of X made once, is evaluated in a single pass (see MatExpr)
+	 */
 	@Override
 	public double costFunction(MatR theta) {	
-		MatR gOfXTheta = X.dot(theta).elmtWise(logisticFct);
+		MatExpr g = denseX.dot(theta.toDense()).logistic().lazy();
+		MatExpr outputs = denseY.lazy();
 		
-		MatR ones = MatR.ones(m,1);
-		
-		return y.dot(-1.).t().dot(gOfXTheta.elmtWise(Math::log))
-				.minus(
-				ones.minus(y).t().dot(ones.minus(gOfXTheta)))
-				.asScalar()/m;
+		return -outputs.hDot(g.log())
+				.plus(outputs.from(1.).hDot(g.from(1.).log()))
+				.sum()/m;
 	}
 	
 
+	/**
+	 * grad J = tX.(g - y)/m, computed on the copy of X made once by tDot (no transpose of X)
+	 */
 	@Override
 	public MatR gradJ(MatR theta) {
-		MatR gOfXTheta = X.dot(theta).elmtWise(logisticFct);
+		DenseMatR gOfXTheta = denseX.dot(theta.toDense()).logistic();
 		
-		return X.t().dot(gOfXTheta.minus(y)).dot(1./m);
+		return denseX.tDot(gOfXTheta.minus(denseY)).dot(1./m).toMatR();
 	}
 
 
 	@Override
 	public double predictOutput(VectR input) {
-		double proba = logisticFct.apply(theta.t().dot((MatR)input.toColMat()).asScalar());
+		double proba = logisticFct.apply(theta.tDot(MatR.of(input.toColMat())).asScalar());
 		
 		return proba >= 0.5 ? 1:0;
 	}
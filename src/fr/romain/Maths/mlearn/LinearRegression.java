@@ -1,5 +1,6 @@
 package fr.romain.Maths.mlearn;
 
+import fr.romain.Maths.linalg.DenseMatR;
 import fr.romain.Maths.linalg.MatR;
 import fr.romain.Maths.linalg.VectR;
 
@@ -14,32 +15,58 @@ public class LinearRegression extends Regression{
 		super(filename);
 	}
 	
+	/**
+	 * Solves the normal equation tX.X.theta = tX.y with the Cholesky decomposition
+	 * of tX.X: neither the inverse nor tX are formed
+	 */
 	public void normalEquation() {
-		MatR xT = X.t();
-		
-		theta = xT.dot(X).inv().dot(xT).dot(y);
+		normalEquation(true);
+	}
+	
+	/**
+	 * @param cholesky if false, theta = (tX.X)^-1.tX.y is computed with the explicit inverse
+	 * (when tX.X is inversible but too badly conditioned to be factorized)
+	 */
+	public void normalEquation(boolean cholesky) {
+		if(cholesky) {
+			theta = denseX.gram().cholesky().solve(denseX.tDot(denseY)).toMatR();
+		}
+		else {
+			MatR xT = X.t();
+			theta = xT.dot(X).inv().dot(xT).dot(y);
+		}
 	}
 
+	/**
+	 * Finds the theta which minimizes ||X.theta - y|| with the QR decomposition of X:
+	 * tQ is applied to y one reflection after the other, so only one copy of X is made.
+	 * It is slower than the normal equation but much more accurate when X is badly conditioned
+	 */
+	public void leastSquares() {
+		theta = denseX.qr().solve(denseY).toMatR();
+	}
+
+	/**
+	 * grad J = tX.(X.theta - y)/m, on the copy of X made once, where tX is never formed (see DenseMatR.tDot)
+	 */
 	@Override
 	public MatR gradJ(MatR theta) {
-		MatR xT = X.t();
-		
 		double m = y.dimCols()*y.dimRows();
 		
-		return xT.dot(X.dot(theta).minus(X)).dot(1./m);
+		return denseX.tDot(denseX.dot(theta.toDense()).minus(denseY)).dot(1./m).toMatR();
 	}
 
 	@Override
 	public double costFunction(MatR theta) {
-		MatR term = X.dot(theta).minus(y);
+		DenseMatR term = denseX.dot(theta.toDense()).minus(denseY);
 		double m = y.dimCols()*y.dimRows();
 		
-		return term.t().dot(term).dot(1./(2*m)).asScalar();
+		return term.scalarProd(term)/(2*m);
 	}
 
 	@Override
 	public double predictOutput(VectR input) {
-		return theta.t().dot((MatR)input.toRowMat()).asScalar();
+		return theta.tDot(MatR.of(input.toColMat())).asScalar();
 	}
 	
 
@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
+import fr.romain.Maths.linalg.DenseMatR;
 import fr.romain.Maths.linalg.MatR;
 import fr.romain.Maths.linalg.VectR;
 
@@ -15,11 +16,20 @@ public abstract class Regression {
 	MatR X;
 	MatR y;
 	int m;
+	
+	/**
+	 * The primitive copies of X and y, on which the costs and the gradients are computed: they are
+	 * made once (see setData) instead of at each step of the gradient descent
+	 */
+	DenseMatR denseX;
+	DenseMatR denseY;
 
+	/**
+	 * The design matrix is copied once: it must not be changed afterwards
+	 */
 	public Regression(MatR designMatrix,MatR outputs) {
 		
-		X = designMatrix;
-		y = outputs;	
+		setData(designMatrix, outputs);
 		m = outputs.dimCols()*outputs.dimRows();
 	
 	}
@@ -51,6 +61,7 @@ public abstract class Regression {
 			}
 			
 			scan.close();
+			setData(X, y);
 			
 		} catch (FileNotFoundException e) {
 			e.printStackTrace();
@@ -65,7 +76,7 @@ public abstract class Regression {
 	 */
 	public void init(){
 		featureNormalize();
-		X = MatR.concat(MatR.ones(X.dimRows(),1),X);
+		setData(MatR.concat(MatR.ones(X.dimRows(),1),X), y);
 	}
 	
 	public void featureNormalize() {
@@ -75,13 +86,26 @@ public abstract class Regression {
 		//a vector of 1/(max-min) for each features (each columns)
 		final VectR valuesLength = X.colsMax().minus(X.colsMin()).elmtWiseInv();
 		
-		X.forEachCols((col)->{
-			col = col.minus(means).elmtWiseProd(valuesLength);
-			return col;
+		//each column is normalized in place, through a view on it
+		X.forEachColsView((j, col)->{
+			double mean = means.get(j);
+			double length = valuesLength.get(j);
+			col.forEachElmt(x->(x-mean)*length);
 		});
+		denseX = X.toDense();
 		
 	}
 	
+	/**
+	 * Sets X and y, and their primitive copies. Every change of X or y has to go through it
+	 */
+	void setData(MatR designMatrix, MatR outputs) {
+		X = designMatrix;
+		y = outputs;
+		denseX = designMatrix.toDense();
+		denseY = outputs.toDense();
+	}
+	
 	public void gradientDescent(double alpha) {
 		
 		theta = MatR.zeros(m,1);
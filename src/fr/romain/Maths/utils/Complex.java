@@ -58,18 +58,24 @@ public class Complex {
 		if (equals(zero))
 			throw new IllegalArgumentException("Division by zero error");
 		
-		double squareMod = module()*module();
+		double squareMod = real*real+im*im;
 		
 		return new Complex(real/squareMod,-im/squareMod);
 	}
 	
 
 	public Complex div(Complex z) {
-		return prod(z.inv());
+		if (z.equals(zero))
+			throw new IllegalArgumentException("Division by zero error");
+		
+		double squareMod = z.real*z.real+z.im*z.im;
+		
+		return new Complex((real*z.real+im*z.im)/squareMod, 
+						   (im*z.real-real*z.im)/squareMod);
 	}
 	
 	public double module() {
-		return Reals.norm2(real, im);
+		return Math.sqrt(real*real+im*im);
 	}
 	
 	public double cos() {
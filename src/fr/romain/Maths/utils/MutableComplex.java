@@ -0,0 +1,131 @@
+package fr.romain.Maths.utils;
+
+/**
+ * A complex number which is modified in place: it is the accumulator of the loops on complex
+ * numbers (sums of products, ...), where each operation of Complex would create a new object. <br>
+ * Every operation returns this, so that they can be chained: acc.addProd(a, b).scale(2)
+ */
+public class MutableComplex {
+
+	private double real;
+	private double im;
+
+
+	public MutableComplex() {
+		this(0, 0);
+	}
+
+	public MutableComplex(double real, double im) {
+		this.real = real;
+		this.im = im;
+	}
+
+	public MutableComplex(Complex z) {
+		this(z.real, z.im);
+	}
+
+	public double getReal() {
+		return real;
+	}
+
+	public double getIm() {
+		return im;
+	}
+
+	public MutableComplex set(double real, double im) {
+		this.real = real;
+		this.im = im;
+		return this;
+	}
+
+	public MutableComplex set(Complex z) {
+		return set(z.real, z.im);
+	}
+
+	public MutableComplex reset() {
+		return set(0, 0);
+	}
+
+	public MutableComplex add(Complex z) {
+		real += z.real;
+		im += z.im;
+		return this;
+	}
+
+	public MutableComplex add(MutableComplex z) {
+		real += z.real;
+		im += z.im;
+		return this;
+	}
+
+	public MutableComplex add(double real, double im) {
+		this.real += real;
+		this.im += im;
+		return this;
+	}
+
+	/**
+	 * this += z1 x z2
+	 */
+	public MutableComplex addProd(Complex z1, Complex z2) {
+		real += z1.real*z2.real-z1.im*z2.im;
+		im += z1.real*z2.im+z1.im*z2.real;
+		return this;
+	}
+
+	/**
+	 * this = this x z
+	 */
+	public MutableComplex mul(Complex z) {
+		double tmp = real*z.real-im*z.im;
+		im = real*z.im+im*z.real;
+		real = tmp;
+		return this;
+	}
+
+	public MutableComplex scale(double k) {
+		real *= k;
+		im *= k;
+		return this;
+	}
+
+	public MutableComplex negate() {
+		real = -real;
+		im = -im;
+		return this;
+	}
+
+	public MutableComplex conjugate() {
+		im = -im;
+		return this;
+	}
+
+	/**
+	 * this = 1/this, null on the same values as Complex.inv (both parts null, not the square of the module)
+	 */
+	public MutableComplex reciprocal() throws IllegalArgumentException{
+		if(Reals.isNull(real) && Reals.isNull(im)) {
+			throw new IllegalArgumentException("Division by zero error");
+		}
+		double squareMod = real*real+im*im;
+		real /= squareMod;
+		im = -im/squareMod;
+		return this;
+	}
+
+	public double module() {
+		return Math.sqrt(real*real+im*im);
+	}
+
+	/**
+	 * @return a new Complex with the current value
+	 */
+	public Complex toComplex() {
+		return new Complex(real, im);
+	}
+
+	@Override
+	public String toString() {
+		return toComplex().toString();
+	}
+}
@@ -0,0 +1,101 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.BoolMatrix;
+import fr.romain.Maths.linalg.Gemm;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.linalg.algstruct.Ring;
+
+class BoolMatrixTests {
+
+	/**
+	 * The booleans as an other instance, on which BoolMatrix is not used
+	 */
+	public final static Ring<Boolean> generic = Ring.of((e1,e2)->e1||e2, (e1,e2)->e1&&e2, false, true, e->false);
+
+	static Matrix<Boolean> random(int n, int m, double density, long seed) {
+		return Randoms.matrix(n, m, seed, random->random.nextDouble() < density);
+	}
+
+	@Test
+	void conversionTest() {
+		Matrix<Boolean> matrix = random(13, 70, 0.5, 1);
+		BoolMatrix bool = BoolMatrix.of(matrix);
+		assertEquals(matrix, bool.toMatrix());
+		assertEquals(count(matrix), bool.cardinality());
+		bool.set(3, 65, !bool.get(3, 65));
+		assertFalse(matrix.equals(bool.toMatrix()));
+		assertTrue(BoolMatrix.isBoolean(Ring.boolsRing()));
+		assertTrue(BoolMatrix.isBoolean(Field.boolsField()));
+		assertFalse(BoolMatrix.isBoolean(generic));
+	}
+
+	static long count(Matrix<Boolean> matrix) {
+		long count = 0;
+		for (int i = 0; i < matrix.dimRows(); i++) {
+			for (int j = 0; j < matrix.dimCols(); j++) {
+				if(matrix.get(i, j)) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Test
+	void prodTest() {
+		Matrix<Boolean> a = random(70, 131, 0.05, 2);
+		Matrix<Boolean> b = random(131, 75, 0.05, 3);
+		Matrix<Boolean> expected = Gemm.prod(a, b, generic);
+		assertEquals(expected, BoolMatrix.of(a).prod(BoolMatrix.of(b)).toMatrix());
+		assertEquals(expected, a.prod(b, Ring.boolsRing()));
+		assertEquals(expected, a.prod(b, Field.boolsField()));
+
+		//several blocks of columns
+		Matrix<Boolean> c = random(9, 20, 0.3, 4);
+		Matrix<Boolean> d = random(20, 2100, 0.1, 5);
+		assertEquals(Gemm.prod(c, d, generic), c.prod(d, Ring.boolsRing()));
+
+		assertThrows(Matrix.NotMultipliableMatricesException.class, ()->BoolMatrix.of(a).prod(BoolMatrix.of(a)));
+	}
+
+	@Test
+	void powTest() {
+		Matrix<Boolean> a = random(40, 40, 0.03, 6);
+		Matrix<Boolean> expected = a.prod(a, generic).prod(a, generic).prod(a, generic).prod(a, generic);
+		assertEquals(expected, a.pow(5, Ring.boolsRing()));
+		assertEquals(BoolMatrix.id(40), BoolMatrix.of(a).pow(0));
+	}
+
+	@Test
+	void closureTest() {
+		for (long seed = 0; seed < 4; seed++) {
+			Matrix<Boolean> graph = random(150, 150, 0.008, seed);
+			Matrix<Boolean> star = graph.closure(generic);
+			BoolMatrix bool = BoolMatrix.of(graph);
+			assertEquals(star, bool.closure().toMatrix());
+			assertEquals(star, graph.closure(Ring.boolsRing()));
+			assertEquals(bool.prod(bool.closure()), bool.transitiveClosure());
+		}
+
+		//a cycle 0->1->2->0 and 3->0: 3 reaches all, nothing reaches 3 but itself
+		BoolMatrix graph = new BoolMatrix(4, 4);
+		graph.set(0, 1, true);
+		graph.set(1, 2, true);
+		graph.set(2, 0, true);
+		graph.set(3, 0, true);
+		BoolMatrix plus = graph.transitiveClosure();
+		assertTrue(plus.get(0, 0));
+		assertFalse(plus.get(3, 3));
+		assertTrue(graph.closure().get(3, 3));
+		assertEquals(12, plus.cardinality());
+	}
+}
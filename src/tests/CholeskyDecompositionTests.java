@@ -0,0 +1,77 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.CholeskyDecomposition;
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.VectR;
+import fr.romain.Maths.linalg.Vector;
+import fr.romain.Maths.utils.Reals;
+
+class CholeskyDecompositionTests {
+
+	public static DenseMatR spd = new DenseMatR(new double[][] {{4.,12.,-16.},
+																{12.,37.,-43.},
+																{-16.,-43.,98.}});
+
+	/**
+	 * tX.X + I is symmetric positive-definite
+	 */
+	static DenseMatR randomSpd(int n) {
+		return DenseMatRTests.random(2*n, n).gram().plus(DenseMatR.id(n));
+	}
+
+	@Test
+	void factorTest() {
+		DenseMatR l = spd.cholesky().getL();
+		assertEquals(new DenseMatR(new double[][] {{2.,0.,0.},
+												   {6.,1.,0.},
+												   {-8.,5.,3.}}), l);
+		assertEquals(spd, l.dot(l.t()));
+
+		DenseMatR big = randomSpd(30);
+		DenseMatR bigL = big.cholesky().getL();
+		assertEquals(big, bigL.dot(bigL.t()));
+	}
+
+	@Test
+	void solveTest() {
+		CholeskyDecomposition cholesky = spd.cholesky();
+
+		VectR x = cholesky.solve(new Vector<Double>(1.,2.,3.));
+		assertEquals(DenseMatR.of(new Vector<Double>(1.,2.,3.).toColMat()), spd.dot(DenseMatR.of(x.toColMat())));
+
+		DenseMatR big = randomSpd(25);
+		DenseMatR b = randomSpd(25).dot(DenseMatR.ones(25, 3));
+		assertEquals(b, big.dot(big.cholesky().solve(b)));
+		assertEquals(DenseMatR.id(25), big.dot(big.cholesky().inverse()));
+
+		DenseMatR y = cholesky.forwardSubstitution(DenseMatR.ones(3, 1));
+		assertEquals(DenseMatR.ones(3, 1), cholesky.getL().dot(y));
+		assertEquals(cholesky.solve(DenseMatR.ones(3, 1)), cholesky.backSubstitution(y));
+
+		assertThrows(Matrix.NotMatchingDimensionsException.class, ()->cholesky.solve(DenseMatR.ones(2, 1)));
+	}
+
+	@Test
+	void detTest() {
+		assertTrue(Reals.equals(36., spd.cholesky().det()));
+		DenseMatR big = randomSpd(10);
+		assertTrue(Math.abs(big.det()-big.cholesky().det()) < 1e-9*big.det());
+	}
+
+	@Test
+	void notPositiveDefiniteTest() {
+		assertThrows(Matrix.NotPositiveDefiniteMatrixException.class,
+				()->new DenseMatR(new double[][] {{1.,2.},{2.,1.}}).cholesky());
+		assertThrows(Matrix.NotPositiveDefiniteMatrixException.class,
+				()->new DenseMatR(new double[][] {{1.,1.},{1.,1.}}).cholesky());
+		assertThrows(Matrix.NotSquareMatrixException.class, ()->DenseMatR.ones(2, 3).cholesky());
+	}
+}
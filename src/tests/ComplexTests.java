@@ -1,10 +1,15 @@
 package tests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
 
+import fr.romain.Maths.linalg.Vector;
+import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.linalg.algstruct.Ring;
 import fr.romain.Maths.utils.Complex;
+import fr.romain.Maths.utils.MutableComplex;
 
 class ComplexTests {
 	
@@ -40,5 +45,37 @@ class ComplexTests {
 
 		assertEquals(Complex.of(-1), Complex.i.prod(Complex.i));
 	}
+	
+	@Test
+	void invTest() {
+		assertEquals(Complex.one, z1.prod(z1.inv()));
+		assertEquals(new Complex(0, -1), Complex.i.inv());
+		assertEquals(z1, z1.prod(z2).div(z2));
+		assertThrows(IllegalArgumentException.class, ()->z1.div(Complex.zero));
+	}
+	
+	@Test
+	void mutableTest() {
+		MutableComplex acc = new MutableComplex(z1);
+		acc.addProd(z1, z2).add(Complex.i);
+		assertEquals(z1.plus(z1.prod(z2)).plus(Complex.i), acc.toComplex());
+		
+		acc.set(z2).mul(z1).scale(2);
+		assertEquals(z2.prod(z1).prod(Complex.of(2)), acc.toComplex());
+		
+		acc.set(z1).reciprocal().conjugate();
+		assertEquals(z1.inv().conjugate(), acc.toComplex());
+		assertThrows(IllegalArgumentException.class, ()->acc.reset().reciprocal());
+		assertEquals(new Complex(1e-6, 0).inv(), new MutableComplex(1e-6, 0).reciprocal().toComplex());
+	}
+	
+	@Test
+	void accumulatorTest() {
+		Ring<Complex> r = Ring.complexRing();
+		Vector<Complex> v = new Vector<Complex>(z1, z2, Complex.i);
+		Complex expected = z1.prod(z1).plus(z2.prod(z2)).plus(Complex.of(-1));
+		assertEquals(expected, v.scalarProd(v, r));
+		assertEquals(expected, v.scalarProd(v, Field.complexField()));
+	}
 
 }
@@ -0,0 +1,113 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.DenseMatC;
+import fr.romain.Maths.linalg.MatC;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.utils.Complex;
+
+class DenseMatCTests {
+
+	public static DenseMatC A = new DenseMatC(new Complex[][] {{new Complex(1, 1), Complex.i},
+															   {new Complex(2, -1), new Complex(0, 3)}});
+
+	public static DenseMatC B = new DenseMatC(new Complex[][] {{new Complex(0, 2), Complex.one},
+															   {new Complex(-1, 1), new Complex(4, 0)}});
+
+	static DenseMatC random(int n, int m) {
+		return Randoms.denseMatC(n, m, n*31+m);
+	}
+
+	@Test
+	void conversionTest() {
+		MatC a = A.toMatC();
+		assertEquals(new Complex(2, -1), a.get(1, 0));
+		assertEquals(A, DenseMatC.of(a));
+		assertEquals(A, a.toDense());
+	}
+
+	@Test
+	void plusTest() {
+		DenseMatC expected = new DenseMatC(new Complex[][] {{new Complex(1, 3), new Complex(1, 1)},
+															{new Complex(1, 0), new Complex(4, 3)}});
+		assertEquals(expected, A.plus(B));
+		assertEquals(A, A.plus(B).minus(B));
+	}
+
+	@Test
+	void prodTest() {
+		Field<Complex> f = Field.complexField();
+		assertEquals(DenseMatC.of(A.toMatC().prod(B.toMatC(), f)), A.prod(B));
+
+		DenseMatC a = random(37, 20);
+		DenseMatC b = random(20, 45);
+		assertEquals(DenseMatC.of(a.toMatC().prod(b.toMatC(), f)), a.prod(b));
+		assertThrows(Matrix.NotMultipliableMatricesException.class, ()->a.prod(a));
+	}
+
+	@Test
+	void powTest() {
+		DenseMatC a = random(10, 10).times(0.2);
+		assertEquals(DenseMatC.id(10), a.pow(0));
+		assertEquals(a.prod(a).prod(a).prod(a).prod(a), a.pow(5));
+	}
+
+	@Test
+	void timesTest() {
+		DenseMatC expected = new DenseMatC(new Complex[][] {{new Complex(-1, 1), new Complex(-1, 0)},
+															{new Complex(1, 2), new Complex(-3, 0)}});
+		assertEquals(expected, A.times(Complex.i));
+	}
+
+	@Test
+	void traceTest() {
+		assertEquals(new Complex(1, 4), A.trace());
+	}
+
+	@Test
+	void transposeTest() {
+		assertEquals(new Complex(2, -1), A.t().get(0, 1));
+		assertEquals(new Complex(2, 1), A.h().get(0, 1));
+		assertEquals(A.t().conjugate(), A.h());
+		assertEquals(A.prod(B).h(), B.h().prod(A.h()));
+	}
+
+	@Test
+	void detTest() {
+		Field<Complex> f = Field.complexField();
+		assertEquals(A.toMatC().det(f), A.det());
+
+		DenseMatC a = random(12, 12);
+		//the determinant is huge: only the relative error is small
+		assertEquals(Complex.one, a.det().div(a.toMatC().det(f)));
+		assertEquals(Complex.zero, new DenseMatC(3, 3).det());
+
+		//tiny pivots aren't taken for zeros
+		MatC tiny = new MatC(new Complex[][] {{new Complex(2e-12, 0), new Complex(0, 1e-12)},
+											  {new Complex(0, 1e-12), new Complex(3e-12, 0)}});
+		Complex det = tiny.det();
+		assertTrue(Math.abs(det.getReal()/7e-24-1) < 1e-12);
+		assertEquals(0., det.getIm());
+	}
+
+	@Test
+	void invTest() {
+		assertEquals(DenseMatC.id(2), A.prod(A.inv()));
+
+		DenseMatC a = random(30, 30);
+		assertEquals(DenseMatC.id(30), a.prod(a.inv()));
+
+		DenseMatC singular = new DenseMatC(new Complex[][] {{Complex.i, Complex.one},
+															{Complex.one, new Complex(0, -1)}});
+		assertEquals(1, singular.rank());
+		assertThrows(Matrix.NotInversibleMatrixException.class, ()->singular.inv());
+		assertTrue(A.rank() == 2);
+	}
+}
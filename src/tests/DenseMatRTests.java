@@ -0,0 +1,166 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.Gemm;
+import fr.romain.Maths.linalg.MatR;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.Vector;
+import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.utils.Reals;
+
+class DenseMatRTests {
+
+	public static DenseMatR A = new DenseMatR(new double[][] {{2.,1.},
+															   {0.,-1.}});
+
+	public static DenseMatR m1 = new DenseMatR(new double[][] {{1.,2.,0.},
+															    {-1.,3.,4.}});
+
+	public static DenseMatR m2 = new DenseMatR(new double[][] {{1.,4.,-1.},
+																{-2.,0.,0.},
+																{-3.,1.,7.}});
+
+	static DenseMatR random(int n, int m) {
+		return Randoms.denseMatR(n, m, n*31+m);
+	}
+
+	@Test
+	void conversionTest() {
+		MatR matR = m1.toMatR();
+		assertEquals(-1., matR.get(1, 0));
+		assertEquals(m1, DenseMatR.of(matR));
+		assertEquals(m1, matR.toDense());
+	}
+
+	@Test
+	void plusMinusTest() {
+		DenseMatR plus = new DenseMatR(new double[][] {{4.,2.},{0.,-2.}});
+		assertEquals(plus, A.plus(A));
+		assertEquals(DenseMatR.zeros(2,2), A.minus(A));
+		assertThrows(Matrix.NotSameDimensionsException.class, ()->A.plus(m1));
+	}
+
+	@Test
+	void dotTest() {
+		DenseMatR expected = new DenseMatR(new double[][] {{-3.,4.,-1.},
+														   {-19.,0.,29.}});
+		assertEquals(expected, m1.dot(m2));
+		assertEquals(m2, m2.dot(DenseMatR.id(3)));
+		assertThrows(Matrix.NotMultipliableMatricesException.class, ()->m1.dot(A));
+
+		DenseMatR big1 = random(37, 53);
+		DenseMatR big2 = random(53, 29);
+		Matrix<Double> generic = big1.toMatR().prod(big2.toMatR(), Field.realsField());
+		assertEquals(DenseMatR.of(generic), big1.dot(big2));
+
+		//0 x NaN is NaN: the zeros of a aren't skipped
+		DenseMatR zeros = new DenseMatR(new double[][] {{0.,1.},{0.,0.}});
+		DenseMatR nan = new DenseMatR(new double[][] {{Double.NaN,1.},{1.,1.}});
+		assertTrue(Double.isNaN(zeros.dot(nan).get(0, 0)));
+		assertTrue(Double.isNaN(zeros.t().tDot(nan).get(0, 0)));
+	}
+
+	@Test
+	void parallelDotTest() {
+		DenseMatR big1 = random(300, 120);
+		DenseMatR big2 = random(120, 90);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		assertEquals(big1.dot(big2), big1.dot(big2, pool));
+		assertEquals(big1.t().dot(big1), big1.t().dot(big1, pool));
+
+		//tDot and gram split their panels of rows on the pool of Gemm
+		DenseMatR gram = big1.gram();
+		DenseMatR big3 = random(300, 50);
+		DenseMatR tDot = big1.tDot(big3);
+		ForkJoinPool previous = Gemm.getPool();
+		long threshold = Gemm.getParallelThreshold();
+		try {
+			Gemm.setPool(pool);
+			Gemm.setParallelThreshold(0);
+			assertEquals(gram, big1.gram());
+			assertEquals(tDot, big1.tDot(big3));
+		} finally {
+			Gemm.setPool(previous);
+			Gemm.setParallelThreshold(threshold);
+		}
+		pool.shutdown();
+	}
+
+	@Test
+	void tDotTest() {
+		assertEquals(m1.t().dot(m1), m1.gram());
+		assertEquals(m1.t().dot(A), m1.tDot(A));
+		assertThrows(Matrix.NotMultipliableMatricesException.class, ()->m1.tDot(m2));
+
+		DenseMatR big1 = random(300, 40);
+		DenseMatR big2 = random(300, 7);
+		assertEquals(big1.t().dot(big1), big1.gram());
+		assertEquals(big1.t().dot(big2), big1.tDot(big2));
+	}
+
+	@Test
+	void powTest() {
+		assertEquals(DenseMatR.id(3), m2.pow(0));
+		assertEquals(m2, m2.pow(1));
+		assertEquals(m2.dot(m2).dot(m2).dot(m2).dot(m2), m2.pow(5));
+	}
+
+	@Test
+	void detTest() {
+		assertTrue(Reals.equals(-2., A.det()));
+		assertTrue(Reals.equals(58., m2.det()));
+		assertTrue(Reals.equals(0., new DenseMatR(new double[][] {{1.,1.},{1.,1.}}).det()));
+		assertThrows(Matrix.NotSquareMatrixException.class, ()->m1.det());
+
+		//tiny pivots aren't taken for zeros
+		MatR tiny = new MatR(new Double[][] {{2e-12,1e-12},{1e-12,3e-12}});
+		assertTrue(Math.abs(tiny.det()/5e-24-1) < 1e-12);
+	}
+
+	@Test
+	void invTest() {
+		assertEquals(DenseMatR.id(2), A.dot(A.inv()));
+		assertEquals(DenseMatR.id(3), m2.inv().dot(m2));
+
+		DenseMatR big = random(40, 40);
+		assertEquals(DenseMatR.id(40), big.dot(big.inv()));
+
+		DenseMatR notInversible = new DenseMatR(new double[][] {{1.,1.},{1.,1.}});
+		assertThrows(Matrix.NotInversibleMatrixException.class, ()->notInversible.inv());
+	}
+
+	@Test
+	void rankAndKerTest() {
+		DenseMatR m = new DenseMatR(new double[][] {{1.,5.,9.,0.,2.,1.,5.},
+													{0.,0.,4.,5.,0.,0.,8.},
+													{-1.,-8.,-6.,0.,0.,7.,9.}});
+		assertEquals(3, m.rank());
+		assertEquals(1, new DenseMatR(new double[][] {{1.,2.},{0.,0.},{0.,0.}}).rank());
+
+		List<Vector<Double>> ker = m.ker();
+		assertEquals(4, ker.size());
+		for (Vector<Double> root : ker) {
+			DenseMatR result = m.dot(DenseMatR.of(root.toColMat()));
+			assertEquals(DenseMatR.zeros(3,1), result);
+		}
+	}
+
+	@Test
+	void colsTest() {
+		assertEquals(1., m1.colsMax().get(0));
+		assertEquals(-1., m1.colsMin().get(0));
+		assertEquals(2.5, m1.colsMeans().get(1));
+		assertEquals(m1.t().t(), m1);
+		assertEquals(new DenseMatR(new double[][] {{1.,4.,0.},{1.,9.,16.}}), m1.elmtWise(x->x*x));
+	}
+
+}
@@ -0,0 +1,76 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.EigenDecomposition;
+import fr.romain.Maths.linalg.MatR;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.VectR;
+import fr.romain.Maths.utils.Reals;
+
+class EigenDecompositionTests {
+
+	static DenseMatR randomSymmetric(int n) {
+		return Randoms.symmetric(n, n);
+	}
+
+	static void assertDecomposes(DenseMatR a, EigenDecomposition eigen) {
+		DenseMatR v = eigen.getEigenvectors().toDense();
+		DenseMatR d = eigen.getD().toDense();
+		assertEquals(a.dot(v), v.dot(d));
+		assertEquals(DenseMatR.id(a.dimRows()), v.gram());
+		VectR values = eigen.getEigenvalues();
+		for (int i = 1; i < values.dim(); i++) {
+			assertTrue(values.get(i-1) >= values.get(i));
+		}
+	}
+
+	@Test
+	void smallTest() {
+		MatR a = new MatR(new Double[][] {{2.,1.},{1.,2.}});
+		EigenDecomposition eigen = a.eigen();
+		assertTrue(Reals.equals(3., eigen.getEigenvalues().get(0)));
+		assertTrue(Reals.equals(1., eigen.getEigenvalues().get(1)));
+		assertDecomposes(a.toDense(), eigen);
+
+		DenseMatR diagonal = new DenseMatR(new double[][] {{1.,0.,0.},{0.,5.,0.},{0.,0.,3.}});
+		assertEquals(new VectR(5.,3.,1.), diagonal.eigen().getEigenvalues());
+	}
+
+	@Test
+	void randomTest() {
+		for (int n : new int[] {7, 40, 51}) {
+			DenseMatR a = randomSymmetric(n);
+			EigenDecomposition eigen = a.eigen();
+			assertDecomposes(a, eigen);
+			double sum = 0;
+			for (int i = 0; i < n; i++) {
+				sum += eigen.getEigenvalues().get(i);
+			}
+			assertTrue(Reals.equals(a.trace(), sum));
+		}
+	}
+
+	@Test
+	void parallelTest() {
+		DenseMatR a = randomSymmetric(260);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		EigenDecomposition eigen = new EigenDecomposition(a, pool);
+		pool.shutdown();
+		assertDecomposes(a, eigen);
+		assertTrue(eigen.sweeps() < 20);
+	}
+
+	@Test
+	void notSymmetricTest() {
+		assertThrows(Matrix.NotSymmetricMatrixException.class, ()->new DenseMatR(new double[][] {{1.,2.},{0.,1.}}).eigen());
+		assertThrows(Matrix.NotSquareMatrixException.class, ()->DenseMatR.ones(2, 3).eigen());
+	}
+}
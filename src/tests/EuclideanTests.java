@@ -0,0 +1,143 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.MatR;
+import fr.romain.Maths.linalg.Pairwise;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.Matrix.NotMultipliableMatricesException;
+import fr.romain.Maths.linalg.VectR;
+import fr.romain.Maths.linalg.Vector;
+import fr.romain.Maths.linalg.algstruct.Euclidean;
+import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.utils.Complex;
+import fr.romain.Maths.utils.Reals;
+
+class EuclideanTests {
+
+	@Test
+	void reductionsTest() {
+		DenseMatR a = DenseMatRTests.random(7, 5);
+		DenseMatR b = DenseMatRTests.random(5, 7).t();
+		MatR ma = a.toMatR();
+		MatR mb = b.toMatR();
+
+		//the definitions with the products and the differences
+		double scalarProd = a.t().dot(b).trace();
+		double dist = a.minus(b).scalarProd(a.minus(b));
+		assertTrue(Reals.equals(scalarProd, ma.scalarProd(mb)));
+		assertTrue(Reals.equals(scalarProd, a.scalarProd(b)));
+		assertTrue(Reals.equals(dist, ma.squaredDistance(mb)));
+		assertTrue(Reals.equals(dist, a.squaredDistance(b)));
+		assertTrue(Reals.equals(Math.sqrt(a.scalarProd(a)), ma.norm()));
+		assertTrue(Reals.equals(ma.norm(), a.norm()));
+
+		//on views: the strides of a transposed view are followed
+		Matrix<Double> view = ma.transposedView();
+		assertTrue(Reals.equals(a.t().scalarProd(b.t()), view.scalarProd(mb.transposedView(), Field.realsField())));
+
+		DenseMatR c = DenseMatRTests.random(5, 7);
+		double trace = a.dot(c).trace();
+		assertTrue(Reals.equals(trace, ma.traceProd(c.toMatR())));
+		assertTrue(Reals.equals(trace, a.traceProd(c)));
+		assertThrows(NotMultipliableMatricesException.class, ()->a.traceProd(b));
+
+		VectR u = new VectR(1., 2., 2.);
+		VectR v = new VectR(3., 0., -2.);
+		assertEquals(4.+4.+16., u.squaredDistance(v));
+		assertTrue(Reals.equals(Math.sqrt(24), u.distance(v)));
+	}
+
+	@Test
+	void euclideanTest() {
+		Euclidean<Vector<Double>> e = Euclidean.vectorsEuclidean(2);
+		Vector<Double> x = new Vector<Double>(1., 0.);
+		Vector<Double> y = new Vector<Double>(1., 1.);
+		assertTrue(Reals.equals(Math.sqrt(2), e.norm(y)));
+		assertTrue(Reals.equals(1, e.distance(x, y)));
+		assertTrue(Reals.equals(Math.sqrt(2)/2, e.cos(x, y)));
+		//sin = sqrt(1-cos^2)
+		assertTrue(Reals.equals(Math.sqrt(2)/2, e.sin(x, y)));
+		assertTrue(Reals.equals(0, e.sin(x, x)));
+
+		Matrix<Double> rotation = e.rotationMatrix(x, new Vector<Double>(0.5, Math.sqrt(3)/2));
+		assertTrue(Reals.equals(0.5, rotation.get(0, 0)));
+		assertTrue(Reals.equals(Math.sqrt(3)/2, rotation.get(1, 0)));
+		assertTrue(Reals.equals(-Math.sqrt(3)/2, rotation.get(0, 1)));
+
+		Euclidean<Matrix<Double>> me = Euclidean.matricesEuclidean(7, 5);
+		MatR a = DenseMatRTests.random(7, 5).toMatR();
+		MatR b = DenseMatRTests.random(5, 7).t().toMatR();
+		assertTrue(Reals.equals(a.minus(b).norm(), me.distance(a, b)));
+		assertTrue(Reals.equals(a.scalarProd(b)/(a.norm()*b.norm()), me.cos(a, b)));
+	}
+
+	/**
+	 * The batch operations against the single calls, on more than one tile (see Pairwise.TILE)
+	 */
+	@Test
+	void batchTest() {
+		Random random = new Random(25);
+		List<Vector<Double>> vectors = new ArrayList<Vector<Double>>();
+		for (int i = 0; i < 150; i++) {
+			VectR v = new VectR(7);
+			for (int k = 0; k < 7; k++) {
+				v.set(k, random.nextDouble()*10-5);
+			}
+			vectors.add(v);
+		}
+		Euclidean<Vector<Double>> e = Euclidean.vectorsEuclidean(7);
+		DenseMatR gram = e.gram(vectors);
+		DenseMatR distances = e.pairwiseDistances(vectors);
+		double[] fromFirst = e.distances(vectors.get(0), vectors);
+		for (int i = 0; i < 150; i++) {
+			assertEquals(0., distances.get(i, i));
+			assertTrue(Reals.equals(e.distance(vectors.get(0), vectors.get(i)), fromFirst[i]));
+			for (int j = 0; j < 150; j++) {
+				assertTrue(Reals.equals(e.scalarProd(vectors.get(i), vectors.get(j)), gram.get(i, j)));
+				assertTrue(Reals.equals(e.distance(vectors.get(i), vectors.get(j)), distances.get(i, j)));
+			}
+		}
+
+		//the same tiles on a pool of 4 threads, and the distances from some rows to all of them
+		DenseMatR rows = Pairwise.rows(vectors);
+		assertEquals(gram, Pairwise.gram(rows, new ForkJoinPool(4)));
+		DenseMatR queries = Pairwise.rows(vectors.subList(10, 80));
+		DenseMatR cross = Pairwise.distances(queries, rows, new ForkJoinPool(4));
+		assertEquals(70, cross.dimRows());
+		assertTrue(Reals.equals(distances.get(15, 140), cross.get(5, 140)));
+
+		//the generic tiles, with a scalar product called on each pair
+		Euclidean<Complex> c = Euclidean.complexEuclidean();
+		List<Complex> complexes = new ArrayList<Complex>();
+		for (int i = 0; i < 100; i++) {
+			complexes.add(new Complex(random.nextDouble(), random.nextDouble()));
+		}
+		DenseMatR complexGram = c.gram(complexes);
+		DenseMatR complexDistances = c.pairwiseDistances(complexes);
+		for (int i = 0; i < 100; i++) {
+			for (int j = 0; j < 100; j++) {
+				assertEquals(c.scalarProd(complexes.get(i), complexes.get(j)), complexGram.get(i, j));
+				assertEquals(i == j ? 0. : c.distance(complexes.get(i), complexes.get(j)), complexDistances.get(i, j));
+			}
+		}
+
+		Euclidean<Matrix<Double>> me = Euclidean.matricesEuclidean(7, 5);
+		List<Matrix<Double>> matrices = List.of(DenseMatRTests.random(7, 5).toMatR(),
+												DenseMatRTests.random(5, 7).toMatR().transposedView(),
+												MatR.zeros(7, 5));
+		DenseMatR matricesGram = me.gram(matrices);
+		assertTrue(Reals.equals(me.scalarProd(matrices.get(0), matrices.get(1)), matricesGram.get(1, 0)));
+		assertTrue(Reals.equals(me.norm(matrices.get(1)), me.distances(matrices.get(2), matrices)[1]));
+	}
+}
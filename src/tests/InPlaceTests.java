@@ -0,0 +1,126 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.MatC;
+import fr.romain.Maths.linalg.MatR;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.VectR;
+import fr.romain.Maths.linalg.Vector;
+import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.utils.Complex;
+
+class InPlaceTests {
+
+	static MatR a() {
+		return new MatR(new Double[][] {{1., 2., 3.},
+										{-1., 0., 4.},
+										{2., 5., -3.}});
+	}
+
+	static MatR b() {
+		return new MatR(new Double[][] {{0.5, -2., 1.},
+										{3., 1., -1.},
+										{0., 2., 2.}});
+	}
+
+	@Test
+	void matRTest() {
+		MatR a = a();
+		MatR b = b();
+		MatR dest = new MatR(3, 3);
+		a.plusInto(b, dest);
+		assertEquals(a.plus(b), dest);
+		a.minusInto(b, dest);
+		assertEquals(a.minus(b), dest);
+		a.hDotInto(b, dest);
+		assertEquals(a.hDot(b), dest);
+		a.dotInto(b, dest);
+		assertEquals(a.dot(b), dest);
+
+		a.plusInPlace(b);
+		assertEquals(a().plus(b), a);
+		a.minusInPlace(b);
+		assertEquals(a(), a);
+		a.scaleInPlace(2.);
+		assertEquals(a().dot(2.), a);
+		a.axpy(-2., a());
+		assertEquals(MatR.zeros(3, 3), a);
+
+		//b into itself
+		b.minusInto(b, b);
+		assertEquals(MatR.zeros(3, 3), b);
+	}
+
+	@Test
+	void aliasingTest() {
+		MatR a = a();
+		assertThrows(Matrix.AliasedMatricesException.class, ()->a.dotInto(a(), a));
+		assertThrows(Matrix.AliasedMatricesException.class, ()->a.plusInPlace(a.transposedView()));
+		assertThrows(Matrix.NotSameDimensionsException.class, ()->a.plusInto(a(), new MatR(2, 3)));
+
+		//two disjoint views on the same storage
+		MatR row0 = a.row(0);
+		MatR row1 = a.row(1);
+		assertTrue(row0.sharesStorage(row1));
+		assertTrue(!row0.overlaps(row1));
+		row0.plusInPlace(row1);
+		assertEquals(new MatR(new Double[][] {{0., 2., 7.}}), a.row(0));
+	}
+
+	@Test
+	void matCTest() {
+		Field<Complex> f = Field.complexField();
+		MatC z = new MatC(new Complex[][] {{new Complex(1, 1), Complex.i},
+										   {Complex.one, new Complex(2, -1)}});
+		MatC expected = MatC.of(z.plus(z).times(Complex.i, f));
+		MatC dest = new MatC(2, 2);
+		z.plusInto(z, dest);
+		dest.scaleInPlace(Complex.i);
+		assertEquals(expected, dest);
+		z.prodInto(z, dest);
+		assertEquals(z.prod(z), dest);
+		dest.axpy(Complex.of(-1), z.prod(z));
+		assertEquals(MatC.zeros(2, 2), dest);
+	}
+
+	@Test
+	void denseTest() {
+		DenseMatR a = a().toDense();
+		DenseMatR b = b().toDense();
+		DenseMatR dest = new DenseMatR(3, 3);
+		a.dotInto(b, dest);
+		assertEquals(a.dot(b), dest);
+		a.hDotInto(b, dest);
+		assertEquals(a.hDot(b), dest);
+		dest.axpy(1., a);
+		dest.minusInPlace(a);
+		assertEquals(a.hDot(b), dest);
+		assertThrows(Matrix.AliasedMatricesException.class, ()->a.dotInto(b, a));
+	}
+
+	@Test
+	void vectorsTest() {
+		VectR u = new VectR(1., 2., 3.);
+		VectR v = new VectR(-1., 0., 5.);
+		VectR dest = new VectR(3);
+		u.plusInto(v, dest);
+		assertEquals(new VectR(0., 2., 8.), dest);
+		dest.minusInPlace(v);
+		assertEquals(u, dest);
+		dest.scaleInPlace(3.);
+		dest.axpy(-3., u);
+		assertEquals(new VectR(0., 0., 0.), dest);
+
+		Field<Complex> f = Field.complexField();
+		Vector<Complex> z = new Vector<Complex>(Complex.i, Complex.one);
+		Vector<Complex> w = z.minus(z.times(Complex.i, f), f);
+		assertEquals(new Vector<Complex>(new Complex(1, 1), new Complex(1, -1)), w);
+		assertThrows(IllegalArgumentException.class, ()->z.plusInPlace(new Vector<Complex>(Complex.i), f));
+	}
+}
@@ -0,0 +1,90 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.function.BiPredicate;
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.LUDecomposition;
+import fr.romain.Maths.linalg.MatC;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.Vector;
+import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.utils.Complex;
+import fr.romain.Maths.utils.Reals;
+
+class LUDecompositionTests {
+
+	public final static Field<Double> f = Field.realsField();
+	public final static BiPredicate<Double, Double> p = Reals::equals;
+
+	public static Matrix<Double> m2 = new Matrix<Double>(new Double[][] {{1.,4.,-1.},
+																		 {-2.,0.,0.},
+																		 {-3.,1.,7.}});
+
+	static LUDecomposition<Double> lu(Matrix<Double> m) {
+		return m.lu(f, Math::abs, p);
+	}
+
+	@Test
+	void factorsTest() {
+		for (Matrix<Double> m : List.of(m2, DenseMatRTests.random(12, 12).toMatR(), DenseMatRTests.random(5, 8).toMatR(), DenseMatRTests.random(8, 5).toMatR())) {
+			LUDecomposition<Double> lu = lu(m);
+			assertTrue(lu.getP().prod(m, f).equals(lu.getL().prod(lu.getU(), f), p));
+		}
+	}
+
+	@Test
+	void detTest() {
+		assertTrue(p.test(58., lu(m2).det()));
+
+		Matrix<Double> big = DenseMatRTests.random(12, 12).toMatR();
+		assertTrue(Math.abs(big.det(f, p) - lu(big).det()) < 1e-6*Math.abs(big.det(f, p)));
+
+		assertEquals(0., lu(Matrix.of(new Double[][] {{1.,2.},{2.,4.}})).det());
+		assertThrows(Matrix.NotSquareMatrixException.class, ()->lu(DenseMatRTests.random(2, 3).toMatR()).det());
+	}
+
+	@Test
+	void solveTest() {
+		LUDecomposition<Double> lu = lu(m2);
+
+		Vector<Double> b = new Vector<Double>(1.,2.,3.);
+		Vector<Double> x = lu.solve(b);
+		assertTrue(m2.prod(x.toColMat(), f).toVec().equals(b, p));
+
+		Matrix<Double> bs = DenseMatRTests.random(3, 4).toMatR();
+		assertTrue(m2.prod(lu.solve(bs), f).equals(bs, p));
+
+		assertTrue(m2.prod(lu.inverse(), f).equals(Matrix.id(f, 3), p));
+
+		LUDecomposition<Double> singular = lu(Matrix.of(new Double[][] {{1.,2.},{2.,4.}}));
+		assertFalse(singular.isInversible());
+		assertThrows(Matrix.NotInversibleMatrixException.class, ()->singular.inverse());
+	}
+
+	@Test
+	void rankTest() {
+		assertEquals(3, lu(m2).rank());
+		assertEquals(1, lu(Matrix.of(new Double[][] {{1.,2.},{0.,0.},{0.,0.}})).rank());
+		assertEquals(2, lu(Matrix.of(new Double[][] {{0.,1.,2.},{0.,2.,4.},{0.,0.,1.}})).rank());
+		assertEquals(3, lu(Matrix.of(new Double[][] {{1.,5.,9.,0.,2.,1.,5.},
+													 {0.,0.,4.,5.,0.,0.,8.},
+													 {-1.,-8.,-6.,0.,0.,7.,9.}})).rank());
+	}
+
+	@Test
+	void complexTest() {
+		MatC z = new MatC(new Complex[][] {{new Complex(1, 1), Complex.i},
+										   {Complex.one, new Complex(2, -1)}});
+		//det = (1+i)(2-i) - i = 3+i-i = 3
+		assertEquals(Complex.of(3), z.det());
+		assertEquals(2, z.rank());
+		assertEquals(MatC.id(2), z.prod(z.inv()));
+	}
+}
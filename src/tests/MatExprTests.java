@@ -0,0 +1,54 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.MatExpr;
+import fr.romain.Maths.linalg.MatR;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.utils.Reals;
+
+class MatExprTests {
+
+	static MatR a = new MatR(new Double[][] {{1., 2., 3.},
+											 {-1., 0., 4.}});
+
+	static DenseMatR b = new DenseMatR(new double[][] {{0.5, -2., 1.},
+													   {3., 1., -1.}});
+
+	@Test
+	void elmtWiseTest() {
+		MatR expected = a.minus(b.toMatR()).hDot(a).dot(2.);
+		assertEquals(expected, a.lazy().minus(b.lazy()).hDot(a.lazy()).dot(2.).toMatR());
+		assertEquals(expected.toDense(), a.lazy().minus(b.lazy()).hDot(a.lazy()).dot(2.).toDense());
+
+		assertEquals(MatR.ones(2, 3).minus(a), a.lazy().from(1.).toMatR());
+		assertEquals(a.elmtWise(x->x*x+1), a.lazy().elmtWise(x->x*x).plus(MatExpr.constant(1., 2, 3)).toMatR());
+		assertThrows(Matrix.NotSameDimensionsException.class, ()->a.lazy().plus(a.lazy().t()));
+	}
+
+	@Test
+	void transposeTest() {
+		assertEquals(a.t(), a.lazy().t().toMatR());
+		assertEquals(b.t(), b.lazy().t().toDense());
+		assertEquals(a.plus(b.toMatR()).t(), a.lazy().plus(b.lazy()).t().toMatR());
+		assertEquals(a.t(), a.lazy().t().t().t().toMatR());
+
+		//a view: the second column of a
+		MatR col = a.col(1);
+		assertEquals(col.t(), col.lazy().t().toMatR());
+	}
+
+	@Test
+	void reductionsTest() {
+		assertTrue(Reals.equals(9, a.lazy().sum()));
+		assertTrue(Reals.equals(a.scalarProd(b.toMatR()), a.lazy().scalarProd(b.lazy())));
+		assertTrue(Reals.equals(6, MatExpr.constant(1., 2, 3).sum()));
+		assertTrue(Reals.equals(4, a.subMatrix(1, 2, 1, 1).lazy().asScalar()));
+		assertThrows(Matrix.NotMatchingDimensionsException.class, ()->a.lazy().asScalar());
+	}
+}
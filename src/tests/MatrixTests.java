@@ -6,13 +6,19 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiPredicate;
 
 import org.junit.jupiter.api.Test;
 
+import fr.romain.Maths.linalg.Gemm;
 import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.Strassen;
 import fr.romain.Maths.linalg.Vector;
 import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.linalg.algstruct.IntegralDomain;
+import fr.romain.Maths.linalg.algstruct.Ring;
+import fr.romain.Maths.utils.Complex;
 import fr.romain.Maths.utils.Reals;
 
 class MatrixTests {
@@ -109,6 +115,70 @@ class MatrixTests {
 	}
 
 	
+	@Test
+	void parallelProdTest() {
+		Matrix<Double> a = Randoms.matrix(70, 45, 42, Random::nextDouble);
+		Matrix<Double> b = Randoms.matrix(45, 33, 43, Random::nextDouble);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		
+		assertTrue(a.prod(b, f, pool).equals(a.prod(b, f), p));
+		assertTrue(m1.prod(m2, f, pool).equals(m1.prod(m2, f), p));
+		assertTrue(a.row(3).prod(b, f, pool).equals(a.row(3).prod(b, f), p));
+		
+		pool.shutdown();
+	}
+	
+	@Test
+	void strassenProdTest() {
+		Random random = new Random(7);
+		for (int n : new int[] {1, 2, 9, 16, 37}) {
+			Matrix<Double> a = new Matrix<Double>(n, n);
+			Matrix<Double> b = new Matrix<Double>(n, n);
+			for (int i = 0; i < n; i++) {
+				for (int j = 0; j < n; j++) {
+					a.set(i, j, random.nextDouble()*10);
+					b.set(i, j, random.nextDouble()*10);
+				}
+			}
+			assertTrue(Strassen.prod(a, b, f, 2).equals(a.prod(b, f), p));
+		}
+		assertTrue(m2.strassenProd(m7, f).equals(m2.prod(m7, f), p));
+		
+		Ring<Complex> c = Ring.complexRing();
+		Matrix<Complex> z = new Matrix<Complex>(11, 11);
+		for (int i = 0; i < 11; i++) {
+			for (int j = 0; j < 11; j++) {
+				z.set(i, j, new Complex(random.nextDouble(), random.nextDouble()));
+			}
+		}
+		assertEquals(z.prod(z, c), Strassen.prod(z, z, c, 3));
+		
+		assertThrows(Matrix.NotSquareMatrixException.class, ()->Strassen.prod(m1, m2, f));
+	}
+	
+	@Test
+	void powTest() {
+		assertTrue(m2.pow(0, f).equals(id3, p));
+		assertTrue(m2.pow(1, f).equals(m2, p));
+		assertTrue(m2.pow(5, f).equals(m2.prod(m2, f).prod(m2, f).prod(m2, f).prod(m2, f), p));
+		
+		Matrix<Double> markov = Matrix.of(new Double[][] {{0.5,0.5},{0.25,0.75}});
+		Matrix<Double> stationary = Matrix.of(new Double[][] {{1./3,2./3},{1./3,2./3}});
+		assertTrue(markov.pow(1_000_000_000_000L, f).equals(stationary, p));
+		
+		Ring<Double> maxPlus = Ring.realsDioideMax();
+		Matrix<Double> transitions = Matrix.of(new Double[][] {{1.,Double.NEGATIVE_INFINITY,3.},
+															   {2.,0.,Double.NEGATIVE_INFINITY},
+															   {Double.NEGATIVE_INFINITY,4.,1.}});
+		Matrix<Double> pow = Matrix.id(maxPlus, 3);
+		for (int k = 0; k < 13; k++) {
+			pow = pow.prod(transitions, maxPlus);
+		}
+		assertTrue(transitions.pow(13, maxPlus).equals(pow, p));
+		
+		assertThrows(Matrix.NotSquareMatrixException.class, ()->m1.pow(2, f));
+	}
+	
 	@Test
 	void augmentedTest() {
 		Matrix<Double> augmented = A.augmRow(C);
@@ -146,10 +216,53 @@ class MatrixTests {
 	}
 	
 	
+	@Test
+	void viewsTest() {
+		Matrix<Double> m = m2.clone();
+		
+		Matrix<Double> sub = m.subMatrix(1, 1, 2, 2);
+		assertTrue(sub.equals(Matrix.of(new Double[][] {{0.,0.},{1.,7.}}), p));
+		sub.set(0, 0, 42.);
+		assertEquals(42., m.get(1, 1));
+		assertTrue(sub.sharesStorage(m));
+		
+		assertTrue(m.row(2).equals(Matrix.of(new Double[][] {{-3.,1.,7.}}), p));
+		assertTrue(m.col(0).equals(Matrix.of(new Double[][] {{1.},{-2.},{-3.}}), p));
+		assertTrue(m.block(1, 1, 2, 2).equals(Matrix.of(new Double[][] {{7.}}), p));
+		
+		Matrix<Double> t = m1.transposedView();
+		assertTrue(t.equals(m1.transpose(), p));
+		assertTrue(t.col(1).transposedView().equals(m1.row(1), p));
+		
+		assertThrows(Matrix.NotMatchingDimensionsException.class, ()->m.subMatrix(2, 2, 2, 2));
+	}
+	
+	@Test
+	void layoutTest() {
+		Matrix<Double> colMajor = new Matrix<Double>(2, 3, Matrix.Layout.COL_MAJOR);
+		colMajor.assign(m1);
+		assertTrue(colMajor.equals(m1, p));
+		assertEquals(Matrix.Layout.COL_MAJOR, colMajor.layout());
+		assertEquals(Matrix.Layout.ROW_MAJOR, colMajor.clone().layout());
+		assertEquals(Matrix.Layout.ROW_MAJOR, colMajor.transposedView().layout());
+		assertEquals(null, m2.subMatrix(0, 0, 2, 2).layout());
+	}
+	
+	@Test
+	void swapColsTest() {
+		Matrix<Double> expected = new Matrix<Double>(new Double[][] {{2.,1.,0.},
+																	 {3.,-1.,4.}});
+		Matrix<Double> m1Swapped01 = m1.clone();
+		m1Swapped01.swapCols(0, 1);
+		assertTrue(m1Swapped01.equals(expected, p));
+	}
+	
 	@Test
 	void gaussInvTest() {
 		Matrix<Double> inv = A.gaussInv(f, Math::abs, p);
 		assertTrue(A.prod(inv, f).equals(id2, p));
+		//a compact matrix, not a view on the augmented matrix
+		assertEquals(Matrix.Layout.ROW_MAJOR, inv.layout());
 		
 		//TODO: return an error of divByZeroException
 		Matrix<Double> notInversible = new Matrix<Double>(new Double[][] {{1.,1.},
@@ -194,6 +307,30 @@ class MatrixTests {
 		assertThrows(Matrix.NotSquareMatrixException.class, ()->B.recDet(f));
 	}
 	
+	@Test
+	void bareissDetTest() {
+		IntegralDomain<Long> z = IntegralDomain.integersDomain();
+		Matrix<Long> m = Randoms.matrix(7, 7, 8, random->(long) random.nextInt(19)-9);
+		assertEquals(m.recDet(z), m.bareissDet(z, Long::equals));
+		assertEquals(m.recDet(z), m.det(z));
+		
+		//a null pivot forces a swap of rows
+		Matrix<Long> swap = Matrix.of(new Long[][] {{0L,2L,1L},{3L,1L,4L},{1L,5L,9L}});
+		assertEquals(swap.recDet(z), swap.det(z));
+		assertEquals(0L, Matrix.of(new Long[][] {{1L,2L},{2L,4L}}).det(z));
+		
+		//a field goes through the LU decomposition with partial pivoting, not Bareiss
+		assertTrue(Reals.equals(58., m2.det(f, p)));
+		Matrix<Double> tiny = Matrix.of(new Double[][] {{1e-17,1.,2.},{1.,1.,1.},{2.,1.,3.}});
+		assertEquals(tiny.lu(f, Math::abs, p).det(), tiny.det(f, p));
+		assertTrue(Reals.equals(A.recDet(f), A.det(f, p)));
+		assertThrows(Matrix.NotSquareMatrixException.class, ()->B.det(f));
+		
+		//no exact division: cofactor expansion
+		Ring<Long> ring = Ring.of(Long::sum, (e1,e2)->e1*e2, 0L, 1L, e->-e);
+		assertEquals(m.recDet(z), m.det(ring));
+	}
+	
 	@Test
 	void comInvTest() {
 		
@@ -278,9 +415,10 @@ class MatrixTests {
 						   new Double[24],new Double[24],new Double[24],new Double[24],
 						   new Double[24],new Double[24],new Double[24],new Double[24]};
 		
+		Random random = new Random(24);
 		for (int i = 0; i < tab2.length; i++) {
 			for (int j = 0; j < 24; j++) {
-				tab2[i][j] = new Random().nextDouble()*100;
+				tab2[i][j] = random.nextDouble()*100;
 			}
 		}
 		
@@ -300,6 +438,47 @@ class MatrixTests {
 		
 	}
 	
+	@Test
+	void parallelGaussTest() {
+		ForkJoinPool previous = Gemm.getPool();
+		Gemm.setPool(new ForkJoinPool(4));
+		try {
+			Matrix<Double> big = DenseMatRTests.random(120, 120).toMatR();
+			Matrix<Double> inv = big.gaussInv(f, Math::abs, p);
+			assertTrue(big.prod(inv, f).equals(Matrix.id(f, 120), (a,b)->Math.abs(a-b) < 1e-9));
+			
+			Matrix<Double> echelon = big.clone();
+			assertEquals(120, echelon.rowEchelonFormInPlace(f, p));
+			assertTrue(assertEchelonned(echelon));
+		} finally {
+			Gemm.setPool(previous);
+		}
+	}
+	
+	@Test
+	void poolTest() {
+		ForkJoinPool previous = Gemm.getPool();
+		try {
+			Gemm.setParallelism(2);
+			ForkJoinPool first = Gemm.getPool();
+			Gemm.setParallelism(3);
+			//the pool created by Gemm is shut down when it is replaced
+			assertTrue(first.isShutdown());
+			ForkJoinPool second = Gemm.getPool();
+			assertEquals(3, second.getParallelism());
+			
+			ForkJoinPool given = new ForkJoinPool(2);
+			Gemm.setPool(given);
+			assertTrue(second.isShutdown());
+			Gemm.setPool(previous);
+			//but not a pool given by the caller
+			assertTrue(!given.isShutdown());
+			given.shutdown();
+		} finally {
+			Gemm.setPool(previous);
+		}
+	}
+	
 	@Test
 	void testRank() {
 		assertEquals(1, m4.rank(f, p));
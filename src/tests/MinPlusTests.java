@@ -0,0 +1,74 @@
+package tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.Gemm;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.MinPlus;
+import fr.romain.Maths.linalg.algstruct.Ring;
+
+class MinPlusTests {
+
+	public final static double inf = Double.POSITIVE_INFINITY;
+
+	/**
+	 * The min-plus dioid as an other instance, on which no kernel of MinPlus is used
+	 */
+	public final static Ring<Double> generic = Ring.of(Math::min, Double::sum, inf, 0., null);
+
+	/**
+	 * A random graph: each edge exists with the probability density, with a length in [0,10[
+	 */
+	static Matrix<Double> randomGraph(int n, double density, long seed) {
+		return Randoms.matrix(n, n, seed, random->random.nextDouble() < density ? Math.floor(random.nextDouble()*10) : inf);
+	}
+
+	@Test
+	void prodTest() {
+		Ring<Double> minPlus = Ring.realsDioideMin();
+		Matrix<Double> a = randomGraph(70, 0.3, 1);
+		Matrix<Double> b = randomGraph(70, 0.3, 2);
+
+		Matrix<Double> expected = Gemm.prod(a, b, generic);
+		assertEquals(expected, a.prod(b, minPlus));
+		assertEquals(expected, MinPlus.prod(a, b));
+		assertEquals(DenseMatR.of(expected), MinPlus.prod(DenseMatR.of(a), DenseMatR.of(b)));
+
+		Matrix<Double> rect = MinPlus.prod(randomGraph(70, 0.5, 3).subMatrix(0, 0, 20, 70), b);
+		assertEquals(Gemm.prod(randomGraph(70, 0.5, 3).subMatrix(0, 0, 20, 70), b, generic), rect);
+	}
+
+	@Test
+	void closureTest() {
+		Matrix<Double> graph = Matrix.of(new Double[][] {{0.,3.,inf,7.},
+														 {8.,0.,2.,inf},
+														 {5.,inf,0.,1.},
+														 {2.,inf,inf,0.}});
+		Matrix<Double> distances = Matrix.of(new Double[][] {{0.,3.,5.,6.},
+															 {5.,0.,2.,3.},
+															 {3.,6.,0.,1.},
+															 {2.,5.,7.,0.}});
+		assertEquals(distances, graph.closure(Ring.realsDioideMin()));
+		assertEquals(distances, graph.closure(generic));
+
+		//several tiles, the last one incomplete, updated in parallel
+		Matrix<Double> big = randomGraph(150, 0.03, 4);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		assertEquals(DenseMatR.of(big.closure(generic)), MinPlus.closure(DenseMatR.of(big), pool));
+		pool.shutdown();
+		assertEquals(big.closure(generic), big.closure(Ring.realsDioideMin()));
+	}
+
+	@Test
+	void negativeCycleTest() {
+		DenseMatR graph = new DenseMatR(new double[][] {{0.,1.},{-2.,0.}});
+		assertThrows(IllegalArgumentException.class, ()->MinPlus.closure(graph));
+		assertThrows(Matrix.NotSquareMatrixException.class, ()->MinPlus.closure(DenseMatR.ones(2, 3)));
+	}
+}
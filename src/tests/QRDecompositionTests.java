@@ -0,0 +1,71 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.QRDecomposition;
+import fr.romain.Maths.linalg.VectR;
+import fr.romain.Maths.linalg.Vector;
+
+class QRDecompositionTests {
+
+	public static DenseMatR m = new DenseMatR(new double[][] {{12.,-51.,4.},
+															  {6.,167.,-68.},
+															  {-4.,24.,-41.}});
+
+	@Test
+	void factorsTest() {
+		//the sizes go over one and several panels
+		for (DenseMatR a : List.of(m, DenseMatRTests.random(10, 4), DenseMatRTests.random(80, 50), DenseMatRTests.random(100, 70))) {
+			QRDecomposition qr = a.qr();
+			DenseMatR q = qr.getQ();
+			DenseMatR r = qr.getR();
+			assertEquals(a, q.dot(r));
+			assertEquals(DenseMatR.id(a.dimCols()), q.t().dot(q));
+			for (int i = 0; i < r.dimRows(); i++) {
+				for (int j = 0; j < i; j++) {
+					assertEquals(0., r.get(i, j));
+				}
+			}
+		}
+	}
+
+	@Test
+	void applyQTest() {
+		DenseMatR a = DenseMatRTests.random(90, 40);
+		QRDecomposition qr = a.qr();
+		DenseMatR b = DenseMatRTests.random(90, 3);
+		assertEquals(b, qr.applyQ(qr.applyQt(b)));
+		assertEquals(qr.getQ().t().dot(b), DenseMatR.of(qr.applyQt(b).toMatR().subMatrix(0, 0, 40, 3)));
+	}
+
+	@Test
+	void solveTest() {
+		VectR x = m.qr().solve(new Vector<Double>(1.,2.,3.));
+		assertEquals(DenseMatR.of(new Vector<Double>(1.,2.,3.).toColMat()), m.dot(DenseMatR.of(x.toColMat())));
+
+		//least squares: the residual is orthogonal to the columns of a
+		DenseMatR a = DenseMatRTests.random(120, 45);
+		DenseMatR b = DenseMatRTests.random(120, 2);
+		DenseMatR residual = a.dot(a.qr().solve(b)).minus(b);
+		assertEquals(DenseMatR.zeros(45, 2), a.tDot(residual));
+		assertEquals(a.gram().cholesky().solve(a.tDot(b)), a.qr().solve(b));
+	}
+
+	@Test
+	void rankDeficientTest() {
+		DenseMatR a = new DenseMatR(new double[][] {{1.,2.},{2.,4.},{3.,6.}});
+		assertFalse(a.qr().isFullRank());
+		assertTrue(m.qr().isFullRank());
+		assertThrows(Matrix.NotInversibleMatrixException.class, ()->a.qr().solve(DenseMatR.ones(3, 1)));
+		assertThrows(Matrix.NotMatchingDimensionsException.class, ()->DenseMatRTests.random(2, 3).qr());
+	}
+}
@@ -0,0 +1,76 @@
+package tests;
+
+import java.util.Random;
+import java.util.function.Function;
+
+import fr.romain.Maths.linalg.DenseMatC;
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.Matrix;
+
+/**
+ * The random matrices and arrays shared by the tests. Each one is drawn from its own seed,
+ * so that the tests are reproducible, with its elements uniform in [-5,5[ unless they come
+ * from a given law
+ */
+final class Randoms {
+
+	private Randoms() {}
+
+	static double[] doubles(int len, long seed) {
+		Random random = new Random(seed);
+		double[] values = new double[len];
+		for (int k = 0; k < values.length; k++) {
+			values[k] = random.nextDouble()*10-5;
+		}
+		return values;
+	}
+
+	/**
+	 * @param element draws each element, row after row, from the generator
+	 */
+	static<K> Matrix<K> matrix(int n, int m, long seed, Function<Random, K> element) {
+		Random random = new Random(seed);
+		Matrix<K> matrix = new Matrix<K>(n, m);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				matrix.set(i, j, element.apply(random));
+			}
+		}
+		return matrix;
+	}
+
+	static DenseMatR denseMatR(int n, int m, long seed) {
+		Random random = new Random(seed);
+		DenseMatR matrix = new DenseMatR(n, m);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				matrix.set(i, j, random.nextDouble()*10-5);
+			}
+		}
+		return matrix;
+	}
+
+	static DenseMatC denseMatC(int n, int m, long seed) {
+		Random random = new Random(seed);
+		DenseMatC matrix = new DenseMatC(n, m);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < m; j++) {
+				matrix.set(i, j, random.nextDouble()*10-5, random.nextDouble()*10-5);
+			}
+		}
+		return matrix;
+	}
+
+	static DenseMatR symmetric(int n, long seed) {
+		Random random = new Random(seed);
+		DenseMatR matrix = new DenseMatR(n, n);
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j <= i; j++) {
+				double x = random.nextDouble()*10-5;
+				matrix.set(i, j, x);
+				matrix.set(j, i, x);
+			}
+		}
+		return matrix;
+	}
+}
@@ -0,0 +1,71 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.function.BiPredicate;
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.MatC;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.RankDecomposition;
+import fr.romain.Maths.linalg.Vector;
+import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.utils.Complex;
+import fr.romain.Maths.utils.Reals;
+
+class RankDecompositionTests {
+
+	static Field<Double> f = Field.realsField();
+	static BiPredicate<Double, Double> p = Reals::equals;
+
+	static Matrix<Double> m = Matrix.of(new Double[][] {{1.,5.,9.,0.,2.,1.,5.},
+														{0.,0.,4.,5.,0.,0.,8.},
+														{-1.,-8.,-6.,0.,0.,7.,9.},
+														{0.,-3.,7.,5.,2.,8.,22.}});
+
+	@Test
+	void rankFactorizationTest() {
+		RankDecomposition<Double> rd = m.rankDecomposition(f, Math::abs, p);
+		assertEquals(3, rd.rank());
+		assertEquals(4, rd.nullity());
+		assertArrayEquals(new int[] {0, 1, 2}, rd.getPivotCols());
+		assertTrue(rd.getC().prod(rd.getF(), f).equals(m, p));
+	}
+
+	@Test
+	void kerImTest() {
+		RankDecomposition<Double> rd = m.rankDecomposition(f, Math::abs, p);
+		List<Vector<Double>> ker = rd.ker();
+		assertEquals(rd.nullity(), ker.size());
+		for (Vector<Double> root : ker) {
+			assertTrue(m.prod(root.toColMat(), f).equals(Matrix.zeros(f, 4, 1), p));
+		}
+
+		List<Vector<Double>> im = m.im(f, Math::abs, p);
+		assertEquals(3, im.size());
+		//the image is spanned by independent columns of m
+		Matrix<Double> cols = new Matrix<Double>(4, im.size());
+		for (int j = 0; j < im.size(); j++) {
+			cols.setCol(j, im.get(j));
+		}
+		assertEquals(3, cols.rank(f, p));
+		assertTrue(im.get(1).equals(m.getCol(1), p));
+
+		assertEquals(0, Matrix.id(f, 3).rankDecomposition(f, Math::abs, p).ker().size());
+		assertEquals(0, Matrix.zeros(f, 2, 3).rankDecomposition(f, Math::abs, p).im().size());
+	}
+
+	@Test
+	void complexTest() {
+		MatC z = new MatC(new Complex[][] {{Complex.i, Complex.one},
+										   {Complex.one, new Complex(0, -1)}});
+		assertEquals(1, z.rankDecomposition().rank());
+		assertEquals(List.of(z.getCol(0)), z.im());
+		Vector<Complex> root = z.rankDecomposition().ker().get(0);
+		assertEquals(Matrix.zeros(Field.complexField(), 2, 1), z.prod(root.toColMat(), Field.complexField()));
+	}
+}
@@ -29,6 +29,11 @@ class RingTests {
 		assertEquals(Math.pow(5, 6), r.pow(5., 6));
 		assertEquals(5, r.pow(5., 1));
 		assertEquals(1, r.pow(Math.PI, 0));
+		assertEquals(1, r.pow(1., 1_000_000_000_000L));
+		assertEquals(Math.pow(-1.5, 31), r.pow(-1.5, 31));
+		
+		Ring<Double> maxPlus = Ring.realsDioideMax();
+		assertEquals(3.*1_000_000, maxPlus.pow(3., 1_000_000));
 		
 	}
 
@@ -0,0 +1,89 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.Simd;
+import fr.romain.Maths.linalg.VectR;
+import fr.romain.Maths.utils.Reals;
+
+class SimdTests {
+
+	/**
+	 * Runs the kernels with the current backend: the results are checked against the plain loops
+	 */
+	static void checkKernels() {
+		//an odd length to go through the scalar tail of the vector loops
+		int len = 1003;
+		double[] a = Randoms.doubles(len, 1);
+		double[] b = Randoms.doubles(len, 2);
+
+		double dot = 0;
+		double sum = 0;
+		for (int k = 0; k < len; k++) {
+			dot += a[k]*b[k];
+			sum += a[k];
+		}
+		assertTrue(Reals.equals(dot, Simd.dot(a, b, len)));
+		assertTrue(Reals.equals(sum, Simd.sum(a, len)));
+		assertTrue(Reals.equals(Simd.dot(a, a, len), Simd.sumSquares(a, len)));
+		assertTrue(Reals.equals(a[5]*b[5]+a[6]*b[6], Simd.dot(a, 5, b, 5, 2)));
+
+		double[] out = new double[len];
+		Simd.add(a, b, out, len);
+		assertTrue(Reals.equals(a[len-1]+b[len-1], out[len-1]));
+		Simd.sub(a, b, out, len);
+		assertTrue(Reals.equals(a[0]-b[0], out[0]));
+		Simd.mul(a, b, out, len);
+		assertTrue(Reals.equals(a[len-2]*b[len-2], out[len-2]));
+		Simd.scale(3, a, out, len);
+		assertTrue(Reals.equals(3*a[7], out[7]));
+
+		double[] y = b.clone();
+		Simd.axpy(2, a, 3, y, 1, len-3);
+		assertTrue(Reals.equals(b[0], y[0]));
+		assertTrue(Reals.equals(b[1]+2*a[3], y[1]));
+		assertTrue(Reals.equals(b[len-3]+2*a[len-1], y[len-3]));
+		assertTrue(Reals.equals(b[len-1], y[len-1]));
+
+		Simd.logistic(a, out, len);
+		for (int k = 0; k < len; k++) {
+			assertTrue(Reals.equals(1./(1+Math.exp(-a[k])), out[k]));
+		}
+	}
+
+	@Test
+	void kernelsTest() {
+		checkKernels();
+		if(Simd.isAvailable()) {
+			Simd.setEnabled(false);
+			try {
+				checkKernels();
+			} finally {
+				Simd.setEnabled(true);
+			}
+		}
+		else {
+			assertThrows(IllegalStateException.class, ()->Simd.setEnabled(true));
+		}
+	}
+
+	@Test
+	void matricesTest() {
+		DenseMatR a = new DenseMatR(new double[][] {{1., 2., 3.}, {-1., 0., 4.}});
+		assertEquals(new DenseMatR(new double[][] {{2., 4., 6.}, {-2., 0., 8.}}), a.plus(a));
+		assertEquals(new DenseMatR(new double[][] {{1., 4., 9.}, {1., 0., 16.}}), a.hDot(a));
+		assertEquals(DenseMatR.zeros(2, 3), a.minus(a));
+		assertEquals(0.5, a.dot(0).logistic().get(1, 2));
+
+		VectR v = new VectR(3., 4., 0.);
+		assertTrue(Reals.equals(5, v.norm2()));
+		assertTrue(Reals.equals(7, v.sum()));
+		assertEquals(new VectR(9., 16., 0.), v.elmtWiseProd(v));
+	}
+}
@@ -0,0 +1,106 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.MatR;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.SparseMatrix;
+import fr.romain.Maths.linalg.Vector;
+import fr.romain.Maths.linalg.algstruct.Field;
+import fr.romain.Maths.linalg.algstruct.Ring;
+
+class SparseMatrixTests {
+
+	public final static Field<Double> f = Field.realsField();
+	public final static Ring<Long> z = Ring.of(Long::sum, (e1,e2)->e1*e2, 0L, 1L, e->-e);
+
+	/**
+	 * about one element out of ten is not null
+	 */
+	static Matrix<Long> random(int n, int m, long seed) {
+		//about one non null element in ten
+		return Randoms.matrix(n, m, seed, random->random.nextInt(10) == 0 ? (long) random.nextInt(19)-9 : z.zero());
+	}
+
+	@Test
+	void tripletsTest() {
+		SparseMatrix<Long> s = SparseMatrix.of(3, 4, new int[] {2,0,2,1,0}, new int[] {1,3,1,0,0},
+												new Long[] {5L,7L,-2L,1L,0L}, z);
+		assertEquals(3, s.nnz());
+		assertEquals(3L, s.get(2, 1, z));
+		assertEquals(0L, s.get(0, 0, z));
+		assertEquals(Matrix.of(new Long[][] {{0L,0L,0L,7L},{1L,0L,0L,0L},{0L,3L,0L,0L}}), s.toMatrix(z));
+
+		SparseMatrix<Long> csc = SparseMatrix.of(3, 4, new int[] {2,0,2,1}, new int[] {1,3,1,0},
+												  new Long[] {5L,7L,-2L,1L}, z, SparseMatrix.Format.CSC);
+		assertEquals(SparseMatrix.Format.CSC, csc.format());
+		assertEquals(s, csc);
+		assertThrows(Matrix.NotMatchingDimensionsException.class,
+				()->SparseMatrix.of(2, 2, new int[] {2}, new int[] {0}, new Long[] {1L}, z));
+	}
+
+	@Test
+	void conversionTest() {
+		Matrix<Long> dense = random(20, 30, 1);
+		SparseMatrix<Long> s = SparseMatrix.of(dense, z);
+		assertEquals(dense, s.toMatrix(z));
+		assertEquals(dense, s.toCSC().toMatrix(z));
+		assertEquals(s, s.toCSC());
+		assertEquals(dense.transpose(), s.transpose().toMatrix(z));
+		assertEquals(dense.transpose(), s.toCSC().transpose().toMatrix(z));
+
+		MatR matR = new MatR(new Double[][] {{0.,1e-15},{2.,0.}});
+		assertEquals(1, matR.toSparse().nnz());
+		assertEquals(new MatR(new Double[][] {{0.,0.},{2.,0.}}), MatR.of(matR.toSparse()));
+	}
+
+	@Test
+	void prodTest() {
+		Matrix<Long> a = random(25, 40, 2);
+		Matrix<Long> b = random(40, 15, 3);
+		Matrix<Long> expected = a.prod(b, z);
+		SparseMatrix<Long> sa = SparseMatrix.of(a, z);
+		SparseMatrix<Long> sb = SparseMatrix.of(b, z);
+
+		assertEquals(expected, sa.prod(b, z));
+		assertEquals(expected, sa.toCSC().prod(b, z));
+		assertEquals(expected, a.prod(sb, z));
+		assertEquals(expected, sb.toCSC().leftProd(a, z));
+		assertEquals(expected, sa.prod(sb, z).toMatrix(z));
+		assertEquals(expected, sa.toCSC().prod(sb.toCSC(), z).toMatrix(z));
+		assertThrows(Matrix.NotMultipliableMatricesException.class, ()->sa.prod(sa, z));
+
+		Vector<Long> v = new Vector<Long>(40);
+		for (int i = 0; i < 40; i++) {
+			v.set(i, (long) i);
+		}
+		assertEquals(a.prod(v.toColMat(), z).toVec(), sa.prod(v, z));
+		assertEquals(a.prod(v.toColMat(), z).toVec(), sa.toCSC().prod(v, z));
+
+		MatR x = new MatR(new Double[][] {{1.,2.},{3.,4.}});
+		SparseMatrix<Double> id = SparseMatrix.of(2, 2, new int[] {0,1}, new int[] {0,1}, new Double[] {1.,1.}, f);
+		assertEquals(x, x.dot(id));
+	}
+
+	@Test
+	void plusTimesTest() {
+		Matrix<Long> a = random(30, 20, 4);
+		Matrix<Long> b = random(30, 20, 5);
+		SparseMatrix<Long> sa = SparseMatrix.of(a, z);
+		SparseMatrix<Long> sb = SparseMatrix.of(b, z);
+
+		assertEquals(a.plus(b, z), sa.plus(sb, z).toMatrix(z));
+		assertEquals(a.plus(b, z), sa.toCSC().plus(sb, z).toMatrix(z));
+		assertEquals(0, sa.plus(sa.times(-1L, z), z).nnz());
+		assertEquals(a.times(3L, z), sa.times(3L, z).toMatrix(z));
+		assertEquals(a.hadamardProd(b, z), sa.hadamardProd(sb, z).toMatrix(z));
+		assertEquals(a.hadamardProd(b, z), sa.hadamardProd(b, z).toMatrix(z));
+		assertTrue(sa.hadamardProd(sb, z).nnz() <= Math.min(sa.nnz(), sb.nnz()));
+		assertThrows(Matrix.NotSameDimensionsException.class, ()->sa.plus(sa.transpose(), z));
+	}
+}
@@ -0,0 +1,134 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.Gemm;
+import fr.romain.Maths.linalg.MaxPlus;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.linalg.TimedEventGraph;
+import fr.romain.Maths.linalg.algstruct.Ring;
+import fr.romain.Maths.utils.Reals;
+
+class TimedEventGraphTests {
+
+	public final static double eps = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * The max-plus dioid as an other instance, on which no kernel of MaxPlus is used
+	 */
+	public final static Ring<Double> generic = Ring.of(Math::max, Double::sum, eps, 0., null);
+
+	//cycles: 0->0 (2), 1->1 (3), 0->1->0 (mean (5+3)/2 = 4)
+	public static DenseMatR A = new DenseMatR(new double[][] {{2.,5.},
+															  {3.,3.}});
+
+	/**
+	 * A strongly connected graph: a cycle through all the transitions and random arcs
+	 */
+	static TimedEventGraph randomGraph(int n, int arcsPerNode, long seed) {
+		Random random = new Random(seed);
+		int arcs = n*(arcsPerNode+1);
+		int[] to = new int[arcs];
+		int[] from = new int[arcs];
+		double[] delays = new double[arcs];
+		for (int i = 0; i < n; i++) {
+			to[i] = (i+1)%n;
+			from[i] = i;
+			delays[i] = random.nextInt(10);
+		}
+		for (int a = n; a < arcs; a++) {
+			to[a] = random.nextInt(n);
+			from[a] = random.nextInt(n);
+			delays[a] = random.nextInt(10);
+		}
+		return new TimedEventGraph(n, to, from, delays);
+	}
+
+	@Test
+	void stepTest() {
+		TimedEventGraph graph = new TimedEventGraph(A);
+		graph.setState(0., 0.);
+		graph.step();
+		assertArrayEquals(new double[] {5.,3.}, graph.getState());
+
+		Matrix<Double> x = Matrix.of(new Double[][] {{5.},{3.}});
+		for (int k = 0; k < 10; k++) {
+			graph.step();
+			x = A.toMatR().prod(x, Ring.realsDioideMax());
+		}
+		assertEquals(11, graph.steps());
+		assertEquals(x.get(0, 0), graph.get(0));
+		assertEquals(x.get(1, 0), graph.get(1));
+
+		graph.run(100000);
+		assertTrue(Math.abs(graph.get(0)/graph.steps()-4) < 1e-3);
+	}
+
+	@Test
+	void prodTest() {
+		Random random = new Random(3);
+		DenseMatR a = new DenseMatR(40, 30);
+		DenseMatR b = new DenseMatR(30, 20);
+		for (DenseMatR m : new DenseMatR[] {a, b}) {
+			for (int i = 0; i < m.dimRows(); i++) {
+				for (int j = 0; j < m.dimCols(); j++) {
+					m.set(i, j, random.nextInt(4) == 0 ? eps : random.nextInt(20)-10);
+				}
+			}
+		}
+		Matrix<Double> expected = Gemm.prod(a.toMatR(), b.toMatR(), generic);
+		assertEquals(DenseMatR.of(expected), MaxPlus.prod(a, b));
+		assertEquals(expected, a.toMatR().prod(b.toMatR(), Ring.realsDioideMax()));
+	}
+
+	@Test
+	void cycleTimeTest() {
+		TimedEventGraph graph = new TimedEventGraph(A);
+		assertEquals(4., graph.cycleMean());
+
+		TimedEventGraph.Spectrum spectrum = graph.howard();
+		assertArrayEquals(new double[] {4.,4.}, spectrum.cycleTimes());
+		double[] v = spectrum.bias();
+		//A v = 4 + v
+		assertTrue(Reals.equals(Math.max(2+v[0], 5+v[1]), 4+v[0]));
+		assertTrue(Reals.equals(Math.max(3+v[0], 3+v[1]), 4+v[1]));
+
+		//no cycle
+		assertEquals(eps, new TimedEventGraph(new DenseMatR(new double[][] {{eps,eps},{1.,eps}})).cycleMean());
+	}
+
+	@Test
+	void reducibleTest() {
+		//0 -> 1: the cycle time of 1 is the biggest of its own and of the one of 0
+		TimedEventGraph graph = new TimedEventGraph(new DenseMatR(new double[][] {{1.,eps},{0.,3.}}));
+		assertArrayEquals(new double[] {1.,3.}, graph.howard().cycleTimes());
+		assertEquals(3., graph.cycleMean());
+
+		graph = new TimedEventGraph(new DenseMatR(new double[][] {{5.,eps},{0.,3.}}));
+		assertArrayEquals(new double[] {5.,5.}, graph.howard().cycleTimes());
+
+		assertThrows(IllegalArgumentException.class,
+				()->new TimedEventGraph(new DenseMatR(new double[][] {{1.,eps},{eps,eps}})).howard());
+	}
+
+	@Test
+	void largeGraphTest() {
+		for (long seed = 0; seed < 5; seed++) {
+			TimedEventGraph graph = randomGraph(300, 3, seed);
+			TimedEventGraph.Spectrum spectrum = graph.howard();
+			double karp = graph.cycleMean();
+			assertTrue(Math.abs(karp-spectrum.eigenvalue()) < 1e-9);
+			for (double chi : spectrum.cycleTimes()) {
+				assertTrue(Math.abs(karp-chi) < 1e-9);
+			}
+		}
+	}
+}
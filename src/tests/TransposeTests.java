@@ -0,0 +1,82 @@
+package tests;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import fr.romain.Maths.linalg.DenseMatR;
+import fr.romain.Maths.linalg.MatR;
+import fr.romain.Maths.linalg.Matrix;
+import fr.romain.Maths.mlearn.Classification;
+import fr.romain.Maths.mlearn.LinearRegression;
+import fr.romain.Maths.utils.Reals;
+
+class TransposeTests {
+
+	@Test
+	void blockedTransposeTest() {
+		//big enough and not square to go through several levels of the recursion
+		DenseMatR a = DenseMatRTests.random(157, 93);
+		DenseMatR t = a.t();
+		assertEquals(93, t.dimRows());
+		assertEquals(157, t.dimCols());
+		for (int i = 0; i < 157; i++) {
+			for (int j = 0; j < 93; j++) {
+				assertEquals(a.get(i, j), t.get(j, i));
+			}
+		}
+		assertEquals(a, t.t());
+
+		MatR boxed = a.toMatR();
+		assertEquals(t, boxed.transposedView().toDense());
+		assertEquals(t.toMatR(), boxed.t());
+
+		//a view of a view: the copy follows the strides of the sub-matrix
+		Matrix<Double> sub = boxed.subMatrix(3, 5, 40, 70).transposedView();
+		Matrix<Double> copy = sub.clone();
+		assertEquals(70, copy.dimRows());
+		assertEquals(a.get(3+7, 5+11), copy.get(11, 7));
+	}
+
+	@Test
+	void transposedViewProdTest() {
+		DenseMatR a = DenseMatRTests.random(60, 20);
+		DenseMatR b = DenseMatRTests.random(60, 3);
+		MatR expected = a.t().dot(b).toMatR();
+		MatR prod = a.toMatR().transposedView().dot(b.toMatR());
+		assertTrue(expected.equals(prod, Reals::equals));
+		assertTrue(expected.equals(a.toMatR().tDot(b.toMatR()), Reals::equals));
+	}
+
+	@Test
+	void gradJTest() {
+		MatR x = new MatR(new Double[][] {{1., 2.}, {1., 3.}, {1., 5.}});
+		MatR y = new MatR(new Double[][] {{1.}, {0.}, {1.}});
+		MatR theta = new MatR(new Double[][] {{0.5}, {-0.25}});
+
+		//tX.(X.theta - y)/m
+		MatR residual = x.dot(theta).minus(y);
+		MatR expected = x.t().dot(residual).dot(1./3);
+		assertTrue(expected.equals(new LinearRegression(x, y).gradJ(theta), Reals::equals));
+
+		//tX.(g - y)/m
+		MatR g = x.dot(theta).logistic();
+		expected = x.t().dot(g.minus(y)).dot(1./3);
+		assertTrue(expected.equals(new Classification(x, y).gradJ(theta), Reals::equals));
+
+		//J = -sum(y.log(g) + (1-y).log(1-g))/m, on the same copy of X
+		double cost = 0;
+		for (int i = 0; i < 3; i++) {
+			cost -= y.get(i, 0)*Math.log(g.get(i, 0))+(1-y.get(i, 0))*Math.log(1-g.get(i, 0));
+		}
+		assertTrue(Reals.equals(cost/3, new Classification(x, y).costFunction(theta)));
+
+		//the copy of X used by gradJ follows the normalization and the column of ones of init
+		LinearRegression regression = new LinearRegression(new MatR(new Double[][] {{2.}, {3.}, {5.}}), y);
+		regression.init();
+		MatR normalized = new MatR(new Double[][] {{1., -4./9}, {1., -1./9}, {1., 5./9}});
+		expected = normalized.t().dot(normalized.dot(theta).minus(y)).dot(1./3);
+		assertTrue(expected.equals(regression.gradJ(theta), Reals::equals));
+	}
+}